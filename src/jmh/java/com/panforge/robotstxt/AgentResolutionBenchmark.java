@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * User agent resolution benchmark.
+ * <p>
+ * Uses a single rule per group, thus the cost is dominated by finding the
+ * group applicable for the user agent.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AgentResolutionBenchmark {
+
+  @Param({"10", "1000"})
+  public int groups;
+
+  private RobotsTxt robotsTxt;
+  private String knownAgent;
+  private String fullUserAgent;
+
+  @Setup
+  public void setup() {
+    SyntheticCorpus corpus = new SyntheticCorpus(42);
+    robotsTxt = new RobotsTxtReader().readRobotsTxt(corpus.robotsTxtBytes(groups, 4, 1, 0.0));
+    knownAgent = SyntheticCorpus.agentName(groups * 4 - 1);
+    fullUserAgent = "Mozilla/5.0 (compatible; " + knownAgent + "/2.1; +http://www.example.com/bot.html)";
+  }
+
+  @Benchmark
+  public boolean knownAgent() {
+    return robotsTxt.query(knownAgent, "/page.html");
+  }
+
+  @Benchmark
+  public boolean unknownAgent() {
+    return robotsTxt.query("UnknownBot", "/page.html");
+  }
+
+  @Benchmark
+  public boolean fullUserAgent() {
+    return robotsTxt.query(fullUserAgent, "/page.html");
+  }
+}
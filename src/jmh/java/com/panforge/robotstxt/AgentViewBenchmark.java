@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Sibling paths answered by robots.txt and by memoizing agent view.
+ * <p>
+ * Paths are made of a fixed set of directories followed by numeric ids, as
+ * seen when crawling product pages or paginated listings.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AgentViewBenchmark {
+
+  @Param({"10", "100", "1000"})
+  public int rules;
+
+  private RobotsTxt robotsTxt;
+  private AgentView view;
+  private String[] paths;
+  private int index;
+
+  @Setup
+  public void setup() {
+    SyntheticCorpus corpus = new SyntheticCorpus(42);
+    robotsTxt = new RobotsTxtReader().readRobotsTxt(corpus.robotsTxtBytes(0, 0, rules, 0.0));
+    view = new AgentView(robotsTxt, "SomeBot");
+    String[] directories = corpus.paths(16);
+    paths = new String[4096];
+    for (int i = 0; i < paths.length; i++) {
+      paths[i] = directories[i % directories.length] + "/" + (100000 + i * 7919 % 900000);
+    }
+  }
+
+  private String nextPath() {
+    return paths[index++ & (paths.length - 1)];
+  }
+
+  @Benchmark
+  public Grant robotsTxt() {
+    return robotsTxt.ask("SomeBot", nextPath());
+  }
+
+  @Benchmark
+  public Grant agentView() {
+    return view.ask(nextPath());
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Scaling of queries against a single instance shared by many threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConcurrentQueryBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Shared {
+    RobotsTxt robotsTxt;
+    String[] paths;
+
+    @Setup
+    public void setup() {
+      SyntheticCorpus corpus = new SyntheticCorpus(42);
+      robotsTxt = new RobotsTxtReader().readRobotsTxt(corpus.robotsTxtBytes(20, 2, 50, 0.2));
+      paths = corpus.paths(1024);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Cursor {
+    int index;
+
+    String next(Shared shared) {
+      return shared.paths[index++ & (shared.paths.length - 1)];
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public boolean threads1(Shared shared, Cursor cursor) {
+    return shared.robotsTxt.query("SomeBot", cursor.next(shared));
+  }
+
+  @Benchmark
+  @Threads(2)
+  public boolean threads2(Shared shared, Cursor cursor) {
+    return shared.robotsTxt.query("SomeBot", cursor.next(shared));
+  }
+
+  @Benchmark
+  @Threads(4)
+  public boolean threads4(Shared shared, Cursor cursor) {
+    return shared.robotsTxt.query("SomeBot", cursor.next(shared));
+  }
+
+  @Benchmark
+  @Threads(8)
+  public boolean threads8(Shared shared, Cursor cursor) {
+    return shared.robotsTxt.query("SomeBot", cursor.next(shared));
+  }
+
+  @Benchmark
+  @Threads(16)
+  public boolean threads16(Shared shared, Cursor cursor) {
+    return shared.robotsTxt.query("SomeBot", cursor.next(shared));
+  }
+
+  @Benchmark
+  @Threads(64)
+  public boolean threads64(Shared shared, Cursor cursor) {
+    return shared.robotsTxt.query("SomeBot", cursor.next(shared));
+  }
+}
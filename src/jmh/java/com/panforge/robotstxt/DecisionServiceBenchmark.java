@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Load of the decision service over loopback.
+ * <p>
+ * Every operation is a single HTTP request with a batch of paths; decisions
+ * per second are operations per second multiplied by the batch size. Divide
+ * by the number of cores given to the server to get throughput per core.
+ * Runs with Nagle's algorithm off, as recommended for {@link RobotsTxtServer}.
+ */
+@Fork(jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DecisionServiceBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Service {
+    @Param({"1", "100"})
+    int batch;
+
+    RobotsTxtServer server;
+    URI endpoint;
+    String[] bodies;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+      SyntheticCorpus corpus = new SyntheticCorpus(42);
+      RobotsTxt robotsTxt = new RobotsTxtReader().readRobotsTxt(corpus.robotsTxtBytes(20, 2, 50, 0.2));
+      server = new RobotsTxtServer(origin -> CompletableFuture.completedFuture(robotsTxt));
+      endpoint = URI.create("http://" + server.start(0).getHostString() + ":" + server.getAddress().getPort() + RobotsTxtServer.PATH);
+
+      String[] paths = corpus.paths(1024);
+      bodies = new String[64];
+      for (int i = 0; i < bodies.length; i++) {
+        StringBuilder body = new StringBuilder("https://host").append(i % 16).append(".example.com\tSomeBot\n");
+        for (int p = 0; p < batch; p++) {
+          body.append(paths[(i * batch + p) & (paths.length - 1)]).append('\n');
+        }
+        bodies[i] = body.toString();
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      server.close();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Client {
+    HttpClient client;
+    int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    String next(Service service) throws Exception {
+      HttpRequest request = HttpRequest.newBuilder(service.endpoint)
+              .POST(HttpRequest.BodyPublishers.ofString(service.bodies[index++ & (service.bodies.length - 1)]))
+              .build();
+      return client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public String clients1(Service service, Client client) throws Exception {
+    return client.next(service);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public String clients4(Service service, Client client) throws Exception {
+    return client.next(service);
+  }
+
+  @Benchmark
+  @Threads(16)
+  public String clients16(Service service, Client client) throws Exception {
+    return client.next(service);
+  }
+}
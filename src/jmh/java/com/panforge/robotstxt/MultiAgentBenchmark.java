@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Asking for several crawler identities at once versus one by one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MultiAgentBenchmark {
+
+  private RobotsTxt robotsTxt;
+  private List<String> agents;
+  private String[] paths;
+  private int index;
+
+  @Setup
+  public void setup() {
+    SyntheticCorpus corpus = new SyntheticCorpus(42);
+    robotsTxt = new RobotsTxtReader().readRobotsTxt(corpus.robotsTxtBytes(20, 1, 50, 0.2));
+    // one agent with its own group, two falling back to the default group
+    agents = Arrays.asList(SyntheticCorpus.agentName(0), "ImageBot", "AdsBot");
+    paths = corpus.paths(1024);
+  }
+
+  private String nextPath() {
+    return paths[index++ & (paths.length - 1)];
+  }
+
+  @Benchmark
+  public void askEach(Blackhole blackhole) {
+    String path = nextPath();
+    for (String agent : agents) {
+      blackhole.consume(robotsTxt.ask(agent, path));
+    }
+  }
+
+  @Benchmark
+  public Map<String, Grant> askAll() {
+    return robotsTxt.askAll(agents, nextPath());
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Parsing benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParseBenchmark {
+
+  @Param({"small", "typical", "huge"})
+  public String size;
+
+  private byte[] content;
+  private final RobotsTxtReader reader = new RobotsTxtReader();
+  private final RobotsTxtReader.Scratch scratch = new RobotsTxtReader.Scratch();
+
+  @Setup
+  public void setup() {
+    SyntheticCorpus corpus = new SyntheticCorpus(42);
+    switch (size) {
+      case "small":
+        content = corpus.robotsTxtBytes(0, 0, 3, 0.0);
+        break;
+      case "typical":
+        content = corpus.robotsTxtBytes(5, 2, 20, 0.2);
+        break;
+      case "huge":
+        content = corpus.robotsTxtBytes(500, 4, 50, 0.2);
+        break;
+      default:
+        throw new IllegalArgumentException(size);
+    }
+  }
+
+  @Benchmark
+  public RobotsTxt readStream() throws IOException {
+    return reader.readRobotsTxt(new ByteArrayInputStream(content));
+  }
+
+  @Benchmark
+  public RobotsTxt readBytes() {
+    return reader.readRobotsTxt(content, scratch);
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Query benchmark.
+ * <p>
+ * Measures matching and winner selection against a single group with
+ * varying number of rules and share of wildcard rules.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class QueryBenchmark {
+
+  @Param({"1", "100", "5000"})
+  public int rules;
+
+  @Param({"0.0", "1.0"})
+  public double wildcardRatio;
+
+  private RobotsTxt robotsTxt;
+  private RobotsTxt compiledRobotsTxt;
+  private RobotsTxt nestedRobotsTxt;
+  private String[] paths;
+  private int index;
+
+  @Setup
+  public void setup() {
+    SyntheticCorpus corpus = new SyntheticCorpus(42);
+    robotsTxt = new RobotsTxtReader().readRobotsTxt(corpus.robotsTxtBytes(0, 0, rules, wildcardRatio));
+    paths = corpus.paths(1024);
+    RobotsTxtReader compilingReader = new RobotsTxtReader();
+    compilingReader.setCompileThreshold(0);
+    compiledRobotsTxt = compilingReader.readRobotsTxt(new SyntheticCorpus(42).robotsTxtBytes(0, 0, rules, wildcardRatio));
+
+    // every rule matches the same path, thus all of them compete for winning
+    StringBuilder sb = new StringBuilder("User-agent: *\n");
+    StringBuilder clause = new StringBuilder();
+    for (int i = 0; i < Math.min(rules, 200); i++) {
+      clause.append("/d");
+      sb.append(i % 2 == 0 ? "Disallow: " : "Allow: ").append(clause).append("\n");
+    }
+    nestedRobotsTxt = new RobotsTxtReader().readRobotsTxt(sb.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private String nextPath() {
+    return paths[index++ & (paths.length - 1)];
+  }
+
+  @Benchmark
+  public boolean query() {
+    return robotsTxt.query("SomeBot", nextPath());
+  }
+
+  @Benchmark
+  public Grant ask() {
+    return robotsTxt.ask("SomeBot", nextPath());
+  }
+
+  @Benchmark
+  public Grant askCompiled() {
+    return compiledRobotsTxt.ask("SomeBot", nextPath());
+  }
+
+  @Benchmark
+  public Grant askManyCandidates() {
+    return nestedRobotsTxt.ask("SomeBot", "/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/d/page.html");
+  }
+}
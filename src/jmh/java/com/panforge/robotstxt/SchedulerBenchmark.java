@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Politeness scheduler throughput over many hosts shared by many threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SchedulerBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Shared {
+
+    @Param({"1000", "1000000"})
+    public int hosts;
+
+    PolitenessScheduler scheduler;
+    URI[] urls;
+    Grant grant;
+
+    @Setup
+    public void setup() {
+      scheduler = new PolitenessScheduler();
+      urls = new URI[Integer.highestOneBit(hosts)];
+      for (int i = 0; i < urls.length; i++) {
+        urls[i] = URI.create("http://host" + i + ".example.com/page.html");
+      }
+      grant = new RobotsTxtReader().readRobotsTxt("User-agent: *\nCrawl-delay: 1".getBytes()).ask("SomeBot", "/page.html");
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Cursor {
+    int index;
+
+    URI next(Shared shared) {
+      index += 0x9E3779B9;
+      return shared.urls[index & (shared.urls.length - 1)];
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public long reserve1(Shared shared, Cursor cursor) {
+    return shared.scheduler.reserve(cursor.next(shared), shared.grant);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public long reserve8(Shared shared, Cursor cursor) {
+    return shared.scheduler.reserve(cursor.next(shared), shared.grant);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public URI submitAndPoll8(Shared shared, Cursor cursor) {
+    shared.scheduler.submit(cursor.next(shared), shared.grant);
+    return shared.scheduler.poll();
+  }
+}
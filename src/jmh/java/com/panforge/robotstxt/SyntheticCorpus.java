@@ -0,0 +1,158 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Reproducible generator of synthetic robots.txt content and paths.
+ * <p>
+ * The same seed always produces the same content, thus benchmark results are
+ * comparable between runs and between revisions of the code.
+ */
+final class SyntheticCorpus {
+
+  private static final String[] WORDS = {
+    "admin", "api", "archive", "assets", "blog", "cart", "catalog", "category",
+    "checkout", "cgi-bin", "content", "data", "docs", "download", "en", "feed",
+    "files", "help", "images", "img", "include", "login", "media", "news",
+    "page", "private", "product", "public", "search", "static", "tag", "tmp",
+    "user", "wp-admin", "wp-content", "wp-includes"
+  };
+  private static final String[] EXTENSIONS = {"html", "php", "js", "css", "gif", "jpg", "pdf", "xml"};
+
+  private final Random random;
+
+  /**
+   * Creates instance of the generator.
+   * @param seed random seed
+   */
+  SyntheticCorpus(long seed) {
+    this.random = new Random(seed);
+  }
+
+  /**
+   * Generates robots.txt content.
+   * @param groups number of named groups (in addition to the "*" group)
+   * @param agentsPerGroup number of user agents per named group
+   * @param rulesPerGroup number of rules in each group
+   * @param wildcardRatio ratio of rules using wildcards (from 0 to 1)
+   * @return robots.txt content
+   */
+  String robotsTxt(int groups, int agentsPerGroup, int rulesPerGroup, double wildcardRatio) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("# synthetic robots.txt\n");
+    sb.append("User-agent: *\n");
+    appendRules(sb, rulesPerGroup, wildcardRatio);
+    sb.append("Crawl-delay: 1\n\n");
+    for (int g = 0; g < groups; g++) {
+      for (int a = 0; a < agentsPerGroup; a++) {
+        sb.append("User-agent: ").append(agentName(g * agentsPerGroup + a)).append("\n");
+      }
+      appendRules(sb, rulesPerGroup, wildcardRatio);
+      sb.append("\n");
+    }
+    sb.append("Sitemap: https://www.example.com/sitemap.xml\n");
+    return sb.toString();
+  }
+
+  /**
+   * Generates robots.txt content as bytes.
+   * @param groups number of named groups (in addition to the "*" group)
+   * @param agentsPerGroup number of user agents per named group
+   * @param rulesPerGroup number of rules in each group
+   * @param wildcardRatio ratio of rules using wildcards (from 0 to 1)
+   * @return robots.txt content
+   */
+  byte[] robotsTxtBytes(int groups, int agentsPerGroup, int rulesPerGroup, double wildcardRatio) {
+    return robotsTxt(groups, agentsPerGroup, rulesPerGroup, wildcardRatio).getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Generates paths.
+   * @param count number of paths
+   * @return array of paths
+   */
+  String[] paths(int count) {
+    String[] paths = new String[count];
+    for (int i = 0; i < count; i++) {
+      StringBuilder sb = new StringBuilder();
+      int depth = 1 + random.nextInt(4);
+      for (int d = 0; d < depth; d++) {
+        sb.append("/").append(word());
+      }
+      if (random.nextBoolean()) {
+        sb.append("/").append(random.nextInt(100000)).append(".").append(extension());
+      }
+      if (random.nextInt(5) == 0) {
+        sb.append("?id=").append(random.nextInt(1000));
+      }
+      paths[i] = sb.toString();
+    }
+    return paths;
+  }
+
+  /**
+   * Gets synthetic user agent name.
+   * @param index index of the agent
+   * @return user agent name
+   */
+  static String agentName(int index) {
+    return "SyntheticBot" + index + "-" + WORDS[index % WORDS.length];
+  }
+
+  private void appendRules(StringBuilder sb, int count, double wildcardRatio) {
+    for (int r = 0; r < count; r++) {
+      sb.append(random.nextInt(4) == 0 ? "Allow: " : "Disallow: ");
+      sb.append(random.nextDouble() < wildcardRatio ? wildcardClause() : literalClause());
+      sb.append("\n");
+    }
+  }
+
+  private String literalClause() {
+    StringBuilder sb = new StringBuilder();
+    int depth = 1 + random.nextInt(3);
+    for (int d = 0; d < depth; d++) {
+      sb.append("/").append(word());
+    }
+    if (random.nextBoolean()) {
+      sb.append("/");
+    }
+    return sb.toString();
+  }
+
+  private String wildcardClause() {
+    switch (random.nextInt(4)) {
+      case 0:
+        return "/*." + extension() + "$";
+      case 1:
+        return "/" + word() + "*/" + word() + "/";
+      case 2:
+        return "/*" + word() + "*" + word() + "*." + extension();
+      default:
+        return "/*?" + word() + "=*";
+    }
+  }
+
+  private String word() {
+    return WORDS[random.nextInt(WORDS.length)];
+  }
+
+  private String extension() {
+    return EXTENSIONS[random.nextInt(EXTENSIONS.length)];
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Queries against trivial robots.txt files.
+ * <p>
+ * <code>shared</code> variant uses the shared representation; <code>full</code>
+ * variant forces full model by setting a listener on the reader.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TrivialQueryBenchmark {
+
+  @Param({"empty", "allowAll", "disallowAll"})
+  public String shape;
+
+  private RobotsTxt shared;
+  private RobotsTxt full;
+  private String[] paths;
+  private int index;
+
+  @Setup
+  public void setup() {
+    String content = shape.equals("empty") ? "" : shape.equals("allowAll") ? "User-agent: *\nDisallow:\n" : "User-agent: *\nDisallow: /\n";
+    byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+    shared = new RobotsTxtReader().readRobotsTxt(bytes);
+    RobotsTxtReader fullReader = new RobotsTxtReader();
+    fullReader.setListener(new MetricsListener() {});
+    full = fullReader.readRobotsTxt(bytes);
+    paths = new SyntheticCorpus(42).paths(1024);
+  }
+
+  private String nextPath() {
+    return paths[index++ & (paths.length - 1)];
+  }
+
+  @Benchmark
+  public boolean shared() {
+    return shared.query("SomeBot", nextPath());
+  }
+
+  @Benchmark
+  public boolean full() {
+    return full.query("SomeBot", nextPath());
+  }
+}
@@ -15,61 +15,112 @@
  */
 package com.panforge.robotstxt;
 
-
-import java.util.Collections;
-import java.util.List;
-
 /**
  * Access.
+ * <p>
+ * Immutable, single rule of a group. Parsed robots.txt keeps its rules in a
+ * {@link RuleArena}; access objects are created for a rule only on demand.
  */
-class Access implements Grant {
-  private final Group group;
+class Access {
+  /**
+   * Access granted when no rule matches.
+   */
+  public static final Access DEFAULT = new Access("", "", true);
+
   private final String source;
   private final String clause;
+  private final String canonicalClause;
   private final boolean accessAllowed;
 
   /**
    * Creates instance of the access.
-   * @param group group
    * @param source source of the information
    * @param clause access path
    * @param accessAllowed access to the path
    */
-  public Access(Group group, String source, String clause, boolean accessAllowed) {
-    this.group = group;
+  public Access(String source, String clause, boolean accessAllowed) {
+    this(source, clause, clause, accessAllowed);
+  }
+
+  /**
+   * Creates instance of the access.
+   * @param source source of the information
+   * @param clause access path (decoded)
+   * @param rawClause access path as declared in robots.txt
+   * @param accessAllowed access to the path
+   */
+  public Access(String source, String clause, String rawClause, boolean accessAllowed) {
     this.source = source;
     this.clause = clause;
+    this.canonicalClause = PercentEncoding.canonicalize(rawClause);
     this.accessAllowed = accessAllowed;
   }
 
-  @Override
+  /**
+   * Gets clause.
+   * @return clause
+   */
   public String getClause() {
     return clause;
   }
   
-  @Override
-  public boolean hasAccess() {
-    return accessAllowed;
-  }
-
-  @Override
-  public Integer getCrawlDelay() {
-    return group!=null? group.getCrawlDelay(): null;
+  /**
+   * Gets clause in canonical percent-encoded form.
+   * @return canonical clause
+   */
+  public String getCanonicalClause() {
+    return canonicalClause;
   }
 
-  @Override
-  public List<String> getUserAgents() {
-    return group!=null? group.getUserAgents(): Collections.emptyList();
+  /**
+   * Checks if access is allowed.
+   * @return <code>true</code> if access allowed
+   */
+  public boolean hasAccess() {
+    return accessAllowed;
   }
   
   /**
    * Checks if path matches access path
-   * @param path path to check
+   * <p>
+   * Matching which takes too long is treated as not matching.
+   * @param path path to check, prepared with {@link MatchingStrategy#prepare(String)}
    * @param matchingStrategy matcher
+   * @param listener metrics listener (might be <code>null</code>)
    * @return <code>true</code> if path matches access path
    */
-  public boolean matches(String path, MatchingStrategy matchingStrategy) {
-    return path!=null && matchingStrategy.matches(clause, path);
+  public boolean matches(String path, MatchingStrategy matchingStrategy, MetricsListener listener) {
+    return matches(canonicalClause, path, matchingStrategy, listener);
+  }
+
+  /**
+   * Checks if path matches canonical clause.
+   * <p>
+   * Matching which takes too long is treated as not matching.
+   * @param canonicalClause canonical clause
+   * @param path path to check, prepared with {@link MatchingStrategy#prepare(String)}
+   * @param matchingStrategy matcher
+   * @param listener metrics listener (might be <code>null</code>)
+   * @return <code>true</code> if path matches the clause
+   */
+  static boolean matches(String canonicalClause, String path, MatchingStrategy matchingStrategy, MetricsListener listener) {
+    if (path==null) {
+      return false;
+    }
+    try {
+      return matchingStrategy.matchesPrepared(canonicalClause, path);
+    } catch (TimeLimitedMatcherFactory.RegExpTimeoutException ex) {
+      if (listener!=null) {
+        listener.onTimeout(canonicalClause, path);
+      }
+      TimeoutEvent event = new TimeoutEvent();
+      if (event.isEnabled()) {
+        event.pattern = canonicalClause;
+        event.path = path;
+        event.commit();
+      }
+      return false;
+    }
   }
   
   @Override
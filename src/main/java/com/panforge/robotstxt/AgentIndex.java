@@ -0,0 +1,276 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Index of groups by user agent.
+ * <p>
+ * User agents are kept in a case-folded trie, thus finding the most specific
+ * group for a user agent takes a single walk over its characters. The index
+ * is immutable; it is built with {@link Builder} while parsing. Nodes of the
+ * trie are stored in flat arrays: children of each node occupy a contiguous
+ * range of edges sorted by character.
+ */
+class AgentIndex {
+
+  /**
+   * No group.
+   */
+  static final int NONE = -1;
+
+  /**
+   * Group which has been discarded.
+   */
+  static final int DISCARDED = -2;
+
+  private final char[] edges;
+  private final int[] targets;
+  private final int[] firstEdge;
+  private final int[] edgeCount;
+  private final int[] groups;
+
+  private AgentIndex(char[] edges, int[] targets, int[] firstEdge, int[] edgeCount, int[] groups) {
+    this.edges = edges;
+    this.targets = targets;
+    this.firstEdge = firstEdge;
+    this.edgeCount = edgeCount;
+    this.groups = groups;
+  }
+
+  /**
+   * Finds group applicable for the user agent.
+   * <p>
+   * Both the user agent string and product tokens extracted from it are
+   * considered; the group declaring the longest user agent being a prefix of
+   * any of them wins.
+   *
+   * @param userAgent user agent
+   * @return index of the most specific group or {@link #NONE} if none
+   */
+  public int find(String userAgent) {
+    if (userAgent == null || edges.length == 0) {
+      return NONE;
+    }
+    int best = NONE;
+    int bestDepth = 0;
+    for (String candidate : ProductTokens.extract(userAgent)) {
+      int node = 0;
+      for (int i = 0; i < candidate.length(); i++) {
+        int from = firstEdge[node];
+        int edge = Arrays.binarySearch(edges, from, from + edgeCount[node], fold(candidate.charAt(i)));
+        if (edge < 0) {
+          break;
+        }
+        node = targets[edge];
+        if (groups[node] >= 0 && i + 1 > bestDepth) {
+          best = groups[node];
+          bestDepth = i + 1;
+        }
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Checks if any of the user agents might be applicable for the user agent.
+   *
+   * @param userAgents user agents of a group
+   * @param userAgent user agent
+   * @return {@code true} if any user agent of the group is a prefix of the
+   * user agent or of any product token extracted from it
+   */
+  static boolean isApplicable(List<String> userAgents, String userAgent) {
+    for (String candidate : ProductTokens.extract(userAgent)) {
+      for (String agent : userAgents) {
+        if (candidate.regionMatches(true, 0, agent, 0, agent.length())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Estimates retained size.
+   *
+   * @return number of bytes
+   * @see MemoryLayout
+   */
+  long getRetainedBytes() {
+    return MemoryLayout.object(5, 0)
+            + MemoryLayout.array(edges.length, 2)
+            + MemoryLayout.array(targets.length, 4)
+            + MemoryLayout.array(firstEdge.length, 4)
+            + MemoryLayout.array(edgeCount.length, 4)
+            + MemoryLayout.array(groups.length, 4);
+  }
+
+  private static char fold(char c) {
+    return Character.toLowerCase(Character.toUpperCase(c));
+  }
+
+  /**
+   * Index builder.
+   */
+  static final class Builder {
+
+    private final Node root = new Node();
+    private final List<Integer> entries = new ArrayList<>();
+
+    /**
+     * Adds user agents of the group.
+     * <p>
+     * User agents already indexed keep pointing to the group which declared
+     * them first.
+     *
+     * @param userAgents user agents
+     * @param group index of the group
+     */
+    public void add(List<String> userAgents, int group) {
+      int entry = entries.size();
+      entries.add(group);
+      for (String userAgent : userAgents) {
+        Node node = root;
+        for (int i = 0; i < userAgent.length(); i++) {
+          node = node.child(fold(userAgent.charAt(i)), true);
+        }
+        if (node.entry < 0) {
+          node.entry = entry;
+        }
+      }
+    }
+
+    /**
+     * Adds user agents of the group which is not kept.
+     * <p>
+     * Groups merging with such a group are discarded as well.
+     *
+     * @param userAgents user agents
+     */
+    public void discard(List<String> userAgents) {
+      add(userAgents, DISCARDED);
+    }
+
+    /**
+     * Finds group declaring any of the user agents.
+     *
+     * @param userAgents user agents
+     * @return index of the earliest indexed group declaring any of the user
+     * agents, {@link #DISCARDED} if that group has been discarded or
+     * {@link #NONE} if none
+     */
+    public int findExact(List<String> userAgents) {
+      int exact = -1;
+      for (String userAgent : userAgents) {
+        Node node = root;
+        for (int i = 0; node != null && i < userAgent.length(); i++) {
+          node = node.child(fold(userAgent.charAt(i)), false);
+        }
+        if (node != null && node.entry >= 0 && (exact < 0 || node.entry < exact)) {
+          exact = node.entry;
+        }
+      }
+      return exact >= 0 ? entries.get(exact) : NONE;
+    }
+
+    /**
+     * Builds immutable index.
+     *
+     * @return index
+     */
+    public AgentIndex build() {
+      List<Node> nodes = new ArrayList<>();
+      Deque<Node> queue = new ArrayDeque<>();
+      root.id = 0;
+      nodes.add(root);
+      queue.add(root);
+      int edgeTotal = 0;
+      while (!queue.isEmpty()) {
+        Node node = queue.poll();
+        for (Node child : node.children) {
+          child.id = nodes.size();
+          nodes.add(child);
+          queue.add(child);
+        }
+        edgeTotal += node.keys.length;
+      }
+
+      char[] edges = new char[edgeTotal];
+      int[] targets = new int[edgeTotal];
+      int[] firstEdge = new int[nodes.size()];
+      int[] edgeCount = new int[nodes.size()];
+      int[] groups = new int[nodes.size()];
+      int edge = 0;
+      for (Node node : nodes) {
+        firstEdge[node.id] = edge;
+        edgeCount[node.id] = node.keys.length;
+        groups[node.id] = node.entry >= 0 ? entries.get(node.entry) : NONE;
+        for (int i = 0; i < node.keys.length; i++, edge++) {
+          edges[edge] = node.keys[i];
+          targets[edge] = node.children[i].id;
+        }
+      }
+      return new AgentIndex(edges, targets, firstEdge, edgeCount, groups);
+    }
+  }
+
+  /**
+   * Trie node used while building the index.
+   */
+  private static final class Node {
+
+    private char[] keys = new char[0];
+    private Node[] children = new Node[0];
+    private int entry = -1;
+    private int id;
+
+    /**
+     * Gets child node.
+     *
+     * @param key key
+     * @param create {@code true} to create child if not exists
+     * @return child node or {@code null} if not exists
+     */
+    Node child(char key, boolean create) {
+      int index = Arrays.binarySearch(keys, key);
+      if (index >= 0) {
+        return children[index];
+      }
+      if (!create) {
+        return null;
+      }
+      int insertion = -index - 1;
+      char[] newKeys = new char[keys.length + 1];
+      Node[] newChildren = new Node[children.length + 1];
+      System.arraycopy(keys, 0, newKeys, 0, insertion);
+      System.arraycopy(children, 0, newChildren, 0, insertion);
+      System.arraycopy(keys, insertion, newKeys, insertion + 1, keys.length - insertion);
+      System.arraycopy(children, insertion, newChildren, insertion + 1, children.length - insertion);
+      Node node = new Node();
+      newKeys[insertion] = key;
+      newChildren[insertion] = node;
+      keys = newKeys;
+      children = newChildren;
+      return node;
+    }
+  }
+}
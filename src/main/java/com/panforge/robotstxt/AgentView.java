@@ -0,0 +1,224 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * View of robots.txt for a single user agent.
+ * <p>
+ * The group applicable to the agent is found once. Grants are memoized by
+ * the shortest prefix of the path which determines the outcome, thus sibling
+ * paths like <code>/product/123</code> and <code>/product/124</code> or
+ * further pages of a listing are answered with a few hash lookups (one per
+ * distinct length of memoized prefixes) instead of matching all the rules.
+ * <p>
+ * Memoization applies to groups without <code>*</code> wildcards, queried
+ * with the default strategies and without metrics listener; otherwise queries
+ * are passed to robots.txt as they are. Memoized grants are the same as
+ * returned by {@link RobotsTxt#ask(String, String)}. Instances are
+ * thread-safe; the memo is cleared once it reaches its capacity.
+ */
+public final class AgentView {
+
+  private static final int DEFAULT_CAPACITY = 4096;
+
+  private final RobotsTxt robotsTxt;
+  private final String userAgent;
+  private final int capacity;
+  private final RobotsTxtImpl impl;
+  private final Group group;
+  private final ConcurrentHashMap<Prefix, Grant> memo = new ConcurrentHashMap<>();
+  // distinct lengths of memoized prefixes, sorted; copied on write
+  private volatile int[] lengths = new int[0];
+
+  /**
+   * Creates instance of the view.
+   *
+   * @param robotsTxt robots.txt
+   * @param userAgent user agent
+   */
+  public AgentView(RobotsTxt robotsTxt, String userAgent) {
+    this(robotsTxt, userAgent, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates instance of the view.
+   *
+   * @param robotsTxt robots.txt
+   * @param userAgent user agent
+   * @param capacity maximum number of memoized prefixes
+   */
+  public AgentView(RobotsTxt robotsTxt, String userAgent, int capacity) {
+    if (robotsTxt == null) {
+      throw new IllegalArgumentException("Robots.txt must not be null.");
+    }
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive.");
+    }
+    this.robotsTxt = robotsTxt;
+    this.userAgent = userAgent;
+    this.capacity = capacity;
+    this.impl = robotsTxt instanceof RobotsTxtImpl ? (RobotsTxtImpl) robotsTxt : null;
+    Group found = impl != null ? impl.findGroup(userAgent) : null;
+    this.group = found != null && found.isStarFree() ? found : null;
+  }
+
+  /**
+   * Gets user agent.
+   *
+   * @return user agent
+   */
+  public String getUserAgent() {
+    return userAgent;
+  }
+
+  /**
+   * Checks access to the path.
+   *
+   * @param path path
+   * @return <code>true</code> if access allowed
+   * @see RobotsTxt#query(String, String)
+   */
+  public boolean query(String path) {
+    return ask(path).hasAccess();
+  }
+
+  /**
+   * Asks for access to the path.
+   *
+   * @param path path
+   * @return grant
+   * @see RobotsTxt#ask(String, String)
+   */
+  public Grant ask(String path) {
+    if (group == null || path == null || !path.startsWith("/") || "/robots.txt".equalsIgnoreCase(path)
+            || !impl.isPlain() || QueryEvent.sample() != null) {
+      return robotsTxt.ask(userAgent, path);
+    }
+    String prepared = MatchingStrategy.DEFAULT.prepare(path);
+
+    int hash = 0;
+    int length = prepared.length();
+    int position = 0;
+    for (int probe : lengths) {
+      if (probe > length) {
+        break;
+      }
+      for (; position < probe; position++) {
+        hash = 31 * hash + prepared.charAt(position);
+      }
+      Grant grant = memo.get(new Prefix(prepared, probe, hash, false));
+      if (grant != null) {
+        return grant;
+      }
+    }
+    for (; position < length; position++) {
+      hash = 31 * hash + prepared.charAt(position);
+    }
+    Grant grant = memo.get(new Prefix(prepared, length, hash, true));
+    if (grant != null) {
+      return grant;
+    }
+
+    grant = group.selectWinner(prepared, MatchingStrategy.DEFAULT, WinningStrategy.DEFAULT, null, null);
+    if (grant == null) {
+      grant = impl.getDefaultGrant();
+    }
+    remember(prepared, group.getDeterminingLength(prepared), grant);
+    return grant;
+  }
+
+  /**
+   * Gets number of memoized prefixes.
+   *
+   * @return number of prefixes
+   */
+  public int size() {
+    return memo.size();
+  }
+
+  private void remember(String prepared, int determining, Grant grant) {
+    if (memo.size() >= capacity) {
+      memo.clear();
+    }
+    if (determining == RuleArena.NONE) {
+      memo.put(new Prefix(prepared, prepared.length(), prepared.hashCode(), true), grant);
+      return;
+    }
+    String key = prepared.substring(0, determining);
+    addLength(determining);
+    memo.put(new Prefix(key, determining, key.hashCode(), false), grant);
+  }
+
+  private void addLength(int length) {
+    if (Arrays.binarySearch(lengths, length) >= 0) {
+      return;
+    }
+    synchronized (this) {
+      int[] current = lengths;
+      int index = Arrays.binarySearch(current, length);
+      if (index < 0) {
+        int insertion = -index - 1;
+        int[] updated = new int[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, insertion);
+        updated[insertion] = length;
+        System.arraycopy(current, insertion, updated, insertion + 1, current.length - insertion);
+        lengths = updated;
+      }
+    }
+  }
+
+  /**
+   * Prefix of a path.
+   * <p>
+   * Prefix of a path being looked up refers to the path itself, thus no
+   * substring is created to probe the memo.
+   */
+  private static final class Prefix {
+
+    private final String path;
+    private final int length;
+    private final int hash;
+    private final boolean exact;
+
+    Prefix(String path, int length, int hash, boolean exact) {
+      this.path = path;
+      this.length = length;
+      this.hash = hash;
+      this.exact = exact;
+    }
+
+    @Override
+    public int hashCode() {
+      return exact ? ~hash : hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Prefix)) {
+        return false;
+      }
+      Prefix other = (Prefix) obj;
+      return length == other.length && exact == other.exact && hash == other.hash
+              && path.regionMatches(0, other.path, 0, length);
+    }
+  }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Matcher compiled for the rules of a single group.
+ * <p>
+ * Clauses without <code>*</code> are merged into a trie, thus a single walk
+ * along the path finds all of them matching, regardless of their number.
+ * Clauses with <code>*</code> are split into literal segments once; segments
+ * are located with {@link String#indexOf(String, int)}. The winner is the same
+ * as selected by {@link Group} with the default strategies from the canonical
+ * clauses.
+ * <p>
+ * Compiling costs more than a few interpreted queries, therefore it is done
+ * for the groups queried often (see {@link RobotsTxtReader#setCompileThreshold(int)}).
+ * Instances are immutable.
+ */
+final class CompiledMatcher {
+  private static final int ROOT = 0;
+
+  private final RuleArena rules;
+
+  // trie edges: open addressing table of (node, character) -> node
+  private final int[] edgeKeys;
+  private final int[] edgeTargets;
+  private final int edgeMask;
+  private final int edgeShift;
+
+  // best rules ending at the node, by kind: prefix clauses and anchored (exact) clauses
+  private final int[] prefixAllow;
+  private final int[] prefixDisallow;
+  private final int[] exactAllow;
+  private final int[] exactDisallow;
+
+  // rules with wildcards
+  private final int[] wildcardRules;
+  private final String[][] wildcardSegments;
+  private final boolean[] wildcardAnchored;
+
+  private final long retainedBytes;
+
+  /**
+   * Compiles rules.
+   * @param rules rules of the robots.txt
+   * @param from first rule of the group (inclusive)
+   * @param to last rule of the group (exclusive)
+   */
+  CompiledMatcher(RuleArena rules, int from, int to) {
+    this.rules = rules;
+
+    List<Integer> wildcards = new ArrayList<>();
+    int chars = 0;
+    for (int rule = from; rule < to; rule++) {
+      String clause = rules.getCanonicalClause(rule);
+      if (clause.indexOf('*') >= 0) {
+        wildcards.add(rule);
+      } else {
+        chars += clause.length();
+      }
+    }
+
+    int capacity = Integer.highestOneBit(Math.max(4, chars * 2 + 1)) << 1;
+    edgeKeys = new int[capacity];
+    edgeTargets = new int[capacity];
+    edgeMask = capacity - 1;
+    edgeShift = Integer.numberOfLeadingZeros(capacity) + 1;
+    int nodes = chars + 1;
+    int[] prefixAllow = filled(nodes);
+    int[] prefixDisallow = filled(nodes);
+    int[] exactAllow = filled(nodes);
+    int[] exactDisallow = filled(nodes);
+
+    int count = 1;
+    for (int rule = from; rule < to; rule++) {
+      String clause = rules.getCanonicalClause(rule);
+      if (clause.indexOf('*') >= 0) {
+        continue;
+      }
+      boolean anchored = clause.endsWith("$");
+      int literal = anchored ? clause.length() - 1 : clause.length();
+      int node = ROOT;
+      for (int i = 0; i < literal; i++) {
+        int child = child(node, clause.charAt(i));
+        if (child < 0) {
+          child = count++;
+          insert(node, clause.charAt(i), child);
+        }
+        node = child;
+      }
+      int[] best = anchored
+              ? (rules.isAllowed(rule) ? exactAllow : exactDisallow)
+              : (rules.isAllowed(rule) ? prefixAllow : prefixDisallow);
+      if (better(rule, best[node])) {
+        best[node] = rule;
+      }
+    }
+    this.prefixAllow = Arrays.copyOf(prefixAllow, count);
+    this.prefixDisallow = Arrays.copyOf(prefixDisallow, count);
+    this.exactAllow = Arrays.copyOf(exactAllow, count);
+    this.exactDisallow = Arrays.copyOf(exactDisallow, count);
+
+    wildcardRules = new int[wildcards.size()];
+    wildcardSegments = new String[wildcards.size()][];
+    wildcardAnchored = new boolean[wildcards.size()];
+    for (int i = 0; i < wildcardRules.length; i++) {
+      int rule = wildcards.get(i);
+      String clause = rules.getCanonicalClause(rule);
+      boolean anchored = clause.endsWith("$");
+      wildcardRules[i] = rule;
+      wildcardAnchored[i] = anchored;
+      wildcardSegments[i] = (anchored ? clause.substring(0, clause.length() - 1) : clause).split("\\*", -1);
+    }
+    this.retainedBytes = measure();
+  }
+
+  /**
+   * Selects winning rule.
+   * @param path path prepared with the default matching strategy
+   * @return winning rule or {@link RuleArena#NONE} if no rule matches
+   */
+  int selectWinner(String path) {
+    int allow = RuleArena.NONE;
+    int disallow = RuleArena.NONE;
+
+    int node = ROOT;
+    int length = path.length();
+    int depth = 0;
+    while (true) {
+      if (better(prefixAllow[node], allow)) {
+        allow = prefixAllow[node];
+      }
+      if (better(prefixDisallow[node], disallow)) {
+        disallow = prefixDisallow[node];
+      }
+      if (depth == length) {
+        if (better(exactAllow[node], allow)) {
+          allow = exactAllow[node];
+        }
+        if (better(exactDisallow[node], disallow)) {
+          disallow = exactDisallow[node];
+        }
+        break;
+      }
+      node = child(node, path.charAt(depth++));
+      if (node < 0) {
+        break;
+      }
+    }
+
+    for (int i = 0; i < wildcardRules.length; i++) {
+      int rule = wildcardRules[i];
+      boolean allowed = rules.isAllowed(rule);
+      if (better(rule, allowed ? allow : disallow) && matches(wildcardSegments[i], wildcardAnchored[i], path)) {
+        if (allowed) {
+          allow = rule;
+        } else {
+          disallow = rule;
+        }
+      }
+    }
+
+    int allowLength = allow != RuleArena.NONE ? rules.getClauseLength(allow) : -1;
+    int disallowLength = disallow != RuleArena.NONE ? rules.getClauseLength(disallow) : -1;
+    if (allow != RuleArena.NONE && allowLength >= Math.max(disallowLength, 0)) {
+      return allow;
+    }
+    return disallow;
+  }
+
+  /**
+   * Estimates retained size, not including the rules.
+   * @return number of bytes
+   * @see MemoryLayout
+   */
+  long getRetainedBytes() {
+    return retainedBytes;
+  }
+
+  private long measure() {
+    long bytes = MemoryLayout.object(10, 16)
+            + MemoryLayout.array(edgeKeys.length, 4)
+            + MemoryLayout.array(edgeTargets.length, 4)
+            + 4 * MemoryLayout.array(prefixAllow.length, 4)
+            + MemoryLayout.array(wildcardRules.length, 4)
+            + MemoryLayout.references(wildcardSegments.length)
+            + MemoryLayout.array(wildcardAnchored.length, 1);
+    for (String[] segments : wildcardSegments) {
+      bytes += MemoryLayout.references(segments.length);
+      for (String segment : segments) {
+        bytes += MemoryLayout.string(segment);
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * Checks if rule wins over the current best rule of the same kind: longer
+   * decoded clause wins, the first rule wins on tie.
+   */
+  private boolean better(int rule, int best) {
+    if (rule == RuleArena.NONE) {
+      return false;
+    }
+    if (best == RuleArena.NONE) {
+      return true;
+    }
+    int length = rules.getClauseLength(rule);
+    int bestLength = rules.getClauseLength(best);
+    return length > bestLength || (length == bestLength && rule < best);
+  }
+
+  private static boolean matches(String[] segments, boolean anchored, String path) {
+    String first = segments[0];
+    if (!path.startsWith(first)) {
+      return false;
+    }
+    int position = first.length();
+    int last = segments.length - 1;
+    for (int i = 1; i < last; i++) {
+      int at = path.indexOf(segments[i], position);
+      if (at < 0) {
+        return false;
+      }
+      position = at + segments[i].length();
+    }
+    String tail = segments[last];
+    if (anchored) {
+      int at = path.length() - tail.length();
+      return at >= position && path.startsWith(tail, at);
+    }
+    return path.indexOf(tail, position) >= 0;
+  }
+
+  private int child(int node, char c) {
+    if (c >= 128) {
+      return -1;
+    }
+    int key = (node << 7 | c) + 1;
+    for (int slot = hash(key); ; slot = (slot + 1) & edgeMask) {
+      int k = edgeKeys[slot];
+      if (k == key) {
+        return edgeTargets[slot];
+      }
+      if (k == 0) {
+        return -1;
+      }
+    }
+  }
+
+  private void insert(int node, char c, int child) {
+    int key = (node << 7 | c) + 1;
+    int slot = hash(key);
+    while (edgeKeys[slot] != 0) {
+      slot = (slot + 1) & edgeMask;
+    }
+    edgeKeys[slot] = key;
+    edgeTargets[slot] = child;
+  }
+
+  private int hash(int key) {
+    return (key * 0x9E3779B9) >>> edgeShift;
+  }
+
+  private static int[] filled(int length) {
+    int[] array = new int[length];
+    Arrays.fill(array, RuleArena.NONE);
+    return array;
+  }
+}
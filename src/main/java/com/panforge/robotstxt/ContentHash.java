@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * 128-bit content hash.
+ * <p>
+ * MurmurHash3 (x64, 128-bit variant, seed 0) of the robots.txt body with
+ * line endings normalized: <code>CR LF</code> and <code>CR</code> are hashed
+ * as <code>LF</code> and trailing line endings are ignored. Bodies differing
+ * only in line endings parse the same, thus get the same hash.
+ */
+final class ContentHash {
+
+  private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+  private static final long C1 = 0x87c37b91114253d5L;
+  private static final long C2 = 0x4cf5ad432745937fL;
+
+  private final long h1;
+  private final long h2;
+
+  ContentHash(long h1, long h2) {
+    this.h1 = h1;
+    this.h2 = h2;
+  }
+
+  /**
+   * Calculates hash of the robots.txt body.
+   *
+   * @param content robots.txt body
+   * @return hash
+   */
+  static ContentHash of(byte[] content) {
+    int length = content.length;
+    while (length > 0 && (content[length - 1] == '\n' || content[length - 1] == '\r')) {
+      length--;
+    }
+    for (int i = 0; i < length; i++) {
+      if (content[i] == '\r') {
+        return murmur3(normalize(content, length));
+      }
+    }
+    return murmur3(content, length);
+  }
+
+  /**
+   * Calculates MurmurHash3 x64 128 of the data.
+   *
+   * @param data data
+   * @return hash
+   */
+  static ContentHash murmur3(byte[] data) {
+    return murmur3(data, data.length);
+  }
+
+  @SuppressWarnings("fallthrough")
+  private static ContentHash murmur3(byte[] data, int length) {
+    long h1 = 0;
+    long h2 = 0;
+
+    int blocks = length / 16;
+    for (int i = 0; i < blocks; i++) {
+      long k1 = (long) LONG_LE.get(data, i * 16);
+      long k2 = (long) LONG_LE.get(data, i * 16 + 8);
+
+      h1 ^= mixK1(k1);
+      h1 = Long.rotateLeft(h1, 27);
+      h1 += h2;
+      h1 = h1 * 5 + 0x52dce729;
+
+      h2 ^= mixK2(k2);
+      h2 = Long.rotateLeft(h2, 31);
+      h2 += h1;
+      h2 = h2 * 5 + 0x38495ab5;
+    }
+
+    int tail = blocks * 16;
+    long k1 = 0;
+    long k2 = 0;
+    // tail bytes are mixed in by falling through the cases, as in the reference implementation
+    switch (length & 15) {
+      case 15: k2 ^= (long) (data[tail + 14] & 0xff) << 48;
+      case 14: k2 ^= (long) (data[tail + 13] & 0xff) << 40;
+      case 13: k2 ^= (long) (data[tail + 12] & 0xff) << 32;
+      case 12: k2 ^= (long) (data[tail + 11] & 0xff) << 24;
+      case 11: k2 ^= (long) (data[tail + 10] & 0xff) << 16;
+      case 10: k2 ^= (long) (data[tail + 9] & 0xff) << 8;
+      case 9: k2 ^= (long) (data[tail + 8] & 0xff);
+        h2 ^= mixK2(k2);
+      case 8: k1 ^= (long) (data[tail + 7] & 0xff) << 56;
+      case 7: k1 ^= (long) (data[tail + 6] & 0xff) << 48;
+      case 6: k1 ^= (long) (data[tail + 5] & 0xff) << 40;
+      case 5: k1 ^= (long) (data[tail + 4] & 0xff) << 32;
+      case 4: k1 ^= (long) (data[tail + 3] & 0xff) << 24;
+      case 3: k1 ^= (long) (data[tail + 2] & 0xff) << 16;
+      case 2: k1 ^= (long) (data[tail + 1] & 0xff) << 8;
+      case 1: k1 ^= (long) (data[tail] & 0xff);
+        h1 ^= mixK1(k1);
+      default:
+        break;
+    }
+
+    h1 ^= length;
+    h2 ^= length;
+    h1 += h2;
+    h2 += h1;
+    h1 = fmix(h1);
+    h2 = fmix(h2);
+    h1 += h2;
+    h2 += h1;
+    return new ContentHash(h1, h2);
+  }
+
+  private static long mixK1(long k1) {
+    k1 *= C1;
+    k1 = Long.rotateLeft(k1, 31);
+    k1 *= C2;
+    return k1;
+  }
+
+  private static long mixK2(long k2) {
+    k2 *= C2;
+    k2 = Long.rotateLeft(k2, 33);
+    k2 *= C1;
+    return k2;
+  }
+
+  private static long fmix(long k) {
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
+
+  private static byte[] normalize(byte[] content, int length) {
+    byte[] normalized = new byte[length];
+    int n = 0;
+    for (int i = 0; i < length; i++) {
+      byte b = content[i];
+      if (b == '\r') {
+        normalized[n++] = '\n';
+        if (i + 1 < length && content[i + 1] == '\n') {
+          i++;
+        }
+      } else {
+        normalized[n++] = b;
+      }
+    }
+    return Arrays.copyOf(normalized, n);
+  }
+
+  /**
+   * Gets high 64 bits.
+   *
+   * @return first half of the hash
+   */
+  long getH1() {
+    return h1;
+  }
+
+  /**
+   * Gets low 64 bits.
+   *
+   * @return second half of the hash
+   */
+  long getH2() {
+    return h2;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof ContentHash)) {
+      return false;
+    }
+    ContentHash other = (ContentHash) obj;
+    return h1 == other.h1 && h2 == other.h2;
+  }
+
+  @Override
+  public int hashCode() {
+    return (int) h1;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%016x%016x", h1, h2);
+  }
+}
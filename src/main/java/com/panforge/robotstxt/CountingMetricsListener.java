@@ -0,0 +1,180 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Metrics listener counting events.
+ * <p>
+ * Counters are backed by {@link LongAdder}, thus updating them from many
+ * threads doesn't cause contention. Counters might be exposed through JMX
+ * with {@link #registerMBean}.
+ */
+public class CountingMetricsListener implements MetricsListener, CountingMetricsListenerMBean {
+
+  private final LongAdder parseCount = new LongAdder();
+  private final LongAdder parseNanos = new LongAdder();
+  private final LongAdder parsedBytes = new LongAdder();
+  private final LongAdder parsedGroups = new LongAdder();
+  private final LongAdder parsedRules = new LongAdder();
+  private final LongAdder removedRules = new LongAdder();
+  private final LongAdder queryCount = new LongAdder();
+  private final LongAdder queryNanos = new LongAdder();
+  private final LongAdder matchedRules = new LongAdder();
+  private final LongAdder timeoutCount = new LongAdder();
+  private final LongAdder cacheHitCount = new LongAdder();
+  private final LongAdder cacheMissCount = new LongAdder();
+
+  @Override
+  public void onParse(long nanos, long bytes, int groups, int rules) {
+    parseCount.increment();
+    parseNanos.add(nanos);
+    parsedBytes.add(bytes);
+    parsedGroups.add(groups);
+    parsedRules.add(rules);
+  }
+
+  @Override
+  public void onOptimize(int removedRules) {
+    this.removedRules.add(removedRules);
+  }
+
+  @Override
+  public void onQuery(long nanos, int matchedRules) {
+    queryCount.increment();
+    queryNanos.add(nanos);
+    this.matchedRules.add(matchedRules);
+  }
+
+  @Override
+  public void onTimeout(String pattern, String path) {
+    timeoutCount.increment();
+  }
+
+  @Override
+  public void onCacheHit() {
+    cacheHitCount.increment();
+  }
+
+  @Override
+  public void onCacheMiss() {
+    cacheMissCount.increment();
+  }
+
+  @Override
+  public long getParseCount() {
+    return parseCount.sum();
+  }
+
+  @Override
+  public long getParseNanos() {
+    return parseNanos.sum();
+  }
+
+  @Override
+  public long getParsedBytes() {
+    return parsedBytes.sum();
+  }
+
+  @Override
+  public long getParsedGroups() {
+    return parsedGroups.sum();
+  }
+
+  @Override
+  public long getParsedRules() {
+    return parsedRules.sum();
+  }
+
+  @Override
+  public long getRemovedRules() {
+    return removedRules.sum();
+  }
+
+  @Override
+  public long getQueryCount() {
+    return queryCount.sum();
+  }
+
+  @Override
+  public long getQueryNanos() {
+    return queryNanos.sum();
+  }
+
+  @Override
+  public double getAverageQueryNanos() {
+    long count = queryCount.sum();
+    return count > 0 ? (double) queryNanos.sum() / count : 0.0;
+  }
+
+  @Override
+  public long getMatchedRules() {
+    return matchedRules.sum();
+  }
+
+  @Override
+  public long getTimeoutCount() {
+    return timeoutCount.sum();
+  }
+
+  @Override
+  public long getCacheHitCount() {
+    return cacheHitCount.sum();
+  }
+
+  @Override
+  public long getCacheMissCount() {
+    return cacheMissCount.sum();
+  }
+
+  @Override
+  public void reset() {
+    parseCount.reset();
+    parseNanos.reset();
+    parsedBytes.reset();
+    parsedGroups.reset();
+    parsedRules.reset();
+    removedRules.reset();
+    queryCount.reset();
+    queryNanos.reset();
+    matchedRules.reset();
+    timeoutCount.reset();
+    cacheHitCount.reset();
+    cacheMissCount.reset();
+  }
+
+  /**
+   * Registers this listener in the platform MBean server.
+   * @param name object name, for example: <code>com.panforge.robotstxt:type=Metrics</code>
+   * @return object name under which the listener has been registered
+   * @throws JMException if registration fails
+   */
+  public ObjectName registerMBean(String name) throws JMException {
+    ObjectName objectName = new ObjectName(name);
+    ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+    return objectName;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("parses: %d, queries: %d, avg query: %.0f ns, timeouts: %d, cache hits: %d, cache misses: %d",
+            getParseCount(), getQueryCount(), getAverageQueryNanos(), getTimeoutCount(), getCacheHitCount(), getCacheMissCount());
+  }
+}
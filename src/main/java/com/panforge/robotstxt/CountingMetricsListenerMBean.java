@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+/**
+ * JMX view of the {@link CountingMetricsListener}.
+ */
+public interface CountingMetricsListenerMBean {
+
+  /**
+   * Gets number of parsed robots.txt.
+   * @return number of parsed robots.txt
+   */
+  long getParseCount();
+
+  /**
+   * Gets total parsing time.
+   * @return parsing time in nanoseconds
+   */
+  long getParseNanos();
+
+  /**
+   * Gets total number of parsed bytes.
+   * @return number of bytes
+   */
+  long getParsedBytes();
+
+  /**
+   * Gets total number of parsed groups.
+   * @return number of groups
+   */
+  long getParsedGroups();
+
+  /**
+   * Gets total number of parsed rules.
+   * @return number of rules
+   */
+  long getParsedRules();
+
+  /**
+   * Gets total number of rules removed by optimization.
+   * @return number of removed rules
+   */
+  long getRemovedRules();
+
+  /**
+   * Gets number of queries.
+   * @return number of queries
+   */
+  long getQueryCount();
+
+  /**
+   * Gets total query time.
+   * @return query time in nanoseconds
+   */
+  long getQueryNanos();
+
+  /**
+   * Gets average query time.
+   * @return average query time in nanoseconds
+   */
+  double getAverageQueryNanos();
+
+  /**
+   * Gets total number of rules matched by queries.
+   * @return number of matched rules
+   */
+  long getMatchedRules();
+
+  /**
+   * Gets number of matching timeouts.
+   * @return number of timeouts
+   */
+  long getTimeoutCount();
+
+  /**
+   * Gets number of cache hits.
+   * @return number of cache hits
+   */
+  long getCacheHitCount();
+
+  /**
+   * Gets number of cache misses.
+   * @return number of cache misses
+   */
+  long getCacheMissCount();
+
+  /**
+   * Resets all the counters.
+   */
+  void reset();
+}
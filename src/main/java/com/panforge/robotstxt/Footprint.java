@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+/**
+ * Memory footprint and shape of a parsed robots.txt.
+ * <p>
+ * Retained size is an estimate of the heap memory which would be freed if
+ * the robots.txt was no longer referenced: objects shared between instances
+ * (strategies, listeners, shared trivial instances) are not included. The
+ * estimate follows the layout of the HotSpot virtual machine.
+ *
+ * @see RobotsTxt#getFootprint()
+ */
+public final class Footprint {
+
+  /**
+   * Footprint of an instance retaining no memory of its own.
+   */
+  static final Footprint NONE = new Footprint(0, 0, 0, 0, 0);
+
+  private final long retainedBytes;
+  private final int groups;
+  private final int rules;
+  private final int wildcardRules;
+  private final int maxClauseLength;
+
+  Footprint(long retainedBytes, int groups, int rules, int wildcardRules, int maxClauseLength) {
+    this.retainedBytes = retainedBytes;
+    this.groups = groups;
+    this.rules = rules;
+    this.wildcardRules = wildcardRules;
+    this.maxClauseLength = maxClauseLength;
+  }
+
+  /**
+   * Gets estimated retained size.
+   * @return number of bytes
+   */
+  public long getRetainedBytes() {
+    return retainedBytes;
+  }
+
+  /**
+   * Gets number of groups.
+   * @return number of groups including the group for any agent
+   */
+  public int getGroups() {
+    return groups;
+  }
+
+  /**
+   * Gets number of rules.
+   * @return number of rules in all the groups
+   */
+  public int getRules() {
+    return rules;
+  }
+
+  /**
+   * Gets number of rules with <code>*</code> wildcard.
+   * @return number of wildcard rules
+   */
+  public int getWildcardRules() {
+    return wildcardRules;
+  }
+
+  /**
+   * Gets length of the longest clause.
+   * @return number of characters of the longest decoded clause
+   */
+  public int getMaxClauseLength() {
+    return maxClauseLength;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("retained: %d bytes, groups: %d, rules: %d, wildcard rules: %d, max clause length: %d",
+            retainedBytes, groups, rules, wildcardRules, maxClauseLength);
+  }
+}
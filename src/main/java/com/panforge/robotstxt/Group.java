@@ -20,16 +20,59 @@ import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Robots.txt group of directives.
+ * <p>
+ * Immutable; built from one or more {@link Section}s. Rules of the group are
+ * a range of rules in the {@link RuleArena} shared by all the groups of the
+ * robots.txt.
  */
 class Group {
-  private final List<String> userAgents = new ArrayList<>();
-  private final AccessList accessList = new AccessList();
-  private boolean anyAgent;
-  private Integer crawlDelay;
+  private final List<String> userAgents;
+  private final RuleArena rules;
+  private final int from;
+  private final int to;
+  private final boolean anyAgent;
+  private final Integer crawlDelay;
+  private final int verdict;
+  private final boolean starFree;
+  private final int compileThreshold;
+  // retained size of the group without the compiled matcher
+  private final long retainedBytes;
+  // approximate number of queries; races only delay compilation
+  private int queries;
+  private volatile CompiledMatcher compiled;
+
+  /**
+   * Creates instance of the group.
+   * @param userAgents user agents
+   * @param anyAgent <code>true</code> if group applies to any agent
+   * @param crawlDelay crawl delay or <code>null</code>
+   * @param rules rules of the robots.txt
+   * @param from first rule of the group (inclusive)
+   * @param to last rule of the group (exclusive)
+   * @param compileThreshold number of queries after which rules are compiled
+   * (see {@link CompiledMatcher}) or negative number to never compile
+   */
+  public Group(List<String> userAgents, boolean anyAgent, Integer crawlDelay, RuleArena rules, int from, int to, int compileThreshold) {
+    this.userAgents = List.copyOf(userAgents);
+    this.anyAgent = anyAgent;
+    this.crawlDelay = crawlDelay;
+    this.rules = rules;
+    this.from = from;
+    this.to = to;
+    this.verdict = constantVerdict();
+    this.starFree = isStarFree(rules, from, to);
+    this.compileThreshold = compileThreshold;
+
+    long bytes = MemoryLayout.object(4, 5 * 4 + 2 + 8) + MemoryLayout.strings(this.userAgents);
+    // small values are cached instances of Integer
+    if (crawlDelay != null && crawlDelay != Integer.valueOf(crawlDelay)) {
+      bytes += MemoryLayout.object(0, 4);
+    }
+    this.retainedBytes = bytes;
+  }
 
   /**
    * Checks if is any agent.
@@ -38,45 +81,21 @@ class Group {
   public boolean isAnyAgent() {
     return anyAgent;
   }
-  
-  /**
-   * Checks if group is exact in terms of user agents.
-   * @param group group to compare
-   * @return {@code true} if sections are exact.
-   */
-  public boolean isExact(Group group) {
-    if (isAnyAgent() && group.isAnyAgent()) return true;
-    if ((isAnyAgent() && !group.isAnyAgent() || (!isAnyAgent() && group.isAnyAgent()))) return false;
 
-    return group.userAgents.stream().anyMatch(sectionUserAgent->userAgents.stream().anyMatch(userAgent->userAgent.equalsIgnoreCase(sectionUserAgent)));
-  }
-  
   /**
-   * Adds user agent.
-   * @param userAgent host name
+   * Gets rules.
+   * @return rules of the robots.txt
    */
-  public void addUserAgent(String userAgent) {
-    if (userAgent.equals("*")) {
-      anyAgent = true;
-    } else {
-      this.userAgents.add(userAgent);
-    }
+  public RuleArena getRules() {
+    return rules;
   }
 
   /**
-   * Gets access list.
-   * @return access list
+   * Counts rules of the group.
+   * @return number of rules
    */
-  public AccessList getAccessList() {
-    return accessList;
-  }
-  
-  /**
-   * Adds access.
-   * @param access access
-   */
-  public void addAccess(Access access) {
-    this.accessList.addAccess(access);
+  public int countRules() {
+    return to - from;
   }
 
   /**
@@ -86,39 +105,240 @@ class Group {
   public List<String> getUserAgents() {
     return userAgents;
   }
+
+  /**
+   * Gets disallowed clauses.
+   * @return list of decoded clauses of the disallowing rules
+   */
+  public List<String> getDisallowList() {
+    List<String> disallowList = new ArrayList<>();
+    for (int rule = from; rule < to; rule++) {
+      if (!rules.isAllowed(rule)) {
+        disallowList.add(rules.getClause(rule));
+      }
+    }
+    return disallowList;
+  }
   
   /**
    * Select any access matching input path.
-   * @param userAgent user agent
-   * @param relativePath path to test
+   * <p>
+   * Applicability of the group for the user agent is determined by {@link AgentIndex}.
+   * @param relativePath path to test, prepared by the matching strategy
    * @param matchingStrategy matcher
+   * @param listener metrics listener (might be <code>null</code>)
+   * @param profile profile recording matching of each rule (might be <code>null</code>)
    * @return list of matching elements
    */
-  public List<Access> select(String userAgent, String relativePath, MatchingStrategy matchingStrategy) {
-    if ((userAgent==null && !isAnyAgent()) || relativePath==null || !matchUserAgent(userAgent)) {
-      return Collections.EMPTY_LIST;
+  public List<Access> select(String relativePath, MatchingStrategy matchingStrategy, MetricsListener listener, Profile profile) {
+    if (relativePath==null) {
+      return Collections.emptyList();
+    }
+    List<Access> allMatching = new ArrayList<>();
+    for (int rule = from; rule < to; rule++) {
+      boolean matches;
+      if (profile != null) {
+        long start = System.nanoTime();
+        matches = rules.matches(rule, relativePath, matchingStrategy, listener);
+        profile.onMatch(rule, matches, System.nanoTime() - start);
+      } else {
+        matches = rules.matches(rule, relativePath, matchingStrategy, listener);
+      }
+      if (matches) {
+        allMatching.add(rules.toAccess(rule));
+      }
     }
-    return accessList.select(relativePath, matchingStrategy).stream().collect(Collectors.toList());
+    return allMatching;
   }
-  
+
   /**
-   * Checks if the section is applicable for a given user agent.
-   * @param userAgent requested user agent
-   * @return <code>true</code> if the section is applicable for the requested user agent
+   * Selects winning rule for the path.
+   * <p>
+   * With the default winning strategy the winner is selected while matching,
+   * without creating any access objects; with the default matching strategy
+   * as well, frequently queried groups are answered by compiled matcher.
+   * @param relativePath path to test, prepared by the matching strategy
+   * @param matchingStrategy matcher
+   * @param winningStrategy winning strategy
+   * @param listener metrics listener (might be <code>null</code>)
+   * @param matches results of matching by clause number (see {@link RuleArena#matches(int, String, MatchingStrategy, MetricsListener, byte[])})
+   * or <code>null</code> to not remember results
+   * @return grant or <code>null</code> if no winner
    */
-  public boolean matchUserAgent(String userAgent) {
-    if (anyAgent) return true;
-    if (userAgent == null) return false;
-    return userAgents.stream().anyMatch(userAgent::startsWith);
+  public Grant selectWinner(String relativePath, MatchingStrategy matchingStrategy, WinningStrategy winningStrategy, MetricsListener listener, byte[] matches) {
+    if (relativePath==null) {
+      return null;
+    }
+    if (winningStrategy != WinningStrategy.DEFAULT) {
+      List<Access> candidates = new ArrayList<>();
+      for (int rule = from; rule < to; rule++) {
+        if (matches(rule, relativePath, matchingStrategy, listener, matches)) {
+          candidates.add(rules.toAccess(rule));
+        }
+      }
+      Access winner = !candidates.isEmpty()? winningStrategy.selectWinner(candidates): null;
+      return winner!=null? new Match(this, winner): null;
+    }
+
+    CompiledMatcher matcher = matchingStrategy == MatchingStrategy.DEFAULT ? compiled() : null;
+    if (matcher != null) {
+      int winner = matcher.selectWinner(relativePath);
+      return winner != RuleArena.NONE ? new Match(this, winner) : null;
+    }
+
+    // the longest clause of each kind wins within its kind, the first one on tie
+    int allow = RuleArena.NONE, allowLength = -1;
+    int disallow = RuleArena.NONE, disallowLength = -1;
+    for (int rule = from; rule < to; rule++) {
+      int length = rules.getClauseLength(rule);
+      boolean allowed = rules.isAllowed(rule);
+      if (length > (allowed ? allowLength : disallowLength) && matches(rule, relativePath, matchingStrategy, listener, matches)) {
+        if (allowed) {
+          allow = rule;
+          allowLength = length;
+        } else {
+          disallow = rule;
+          disallowLength = length;
+        }
+      }
+    }
+    if (allow != RuleArena.NONE && allowLength >= Math.max(disallowLength, 0)) {
+      return new Match(this, allow);
+    }
+    return disallow != RuleArena.NONE ? new Match(this, disallow) : null;
   }
 
   /**
-   * Sets crawl delay.
-   *
-   * @param crawlDelay crawl delay.
+   * Gets compiled matcher, compiling rules once the group has been queried
+   * often enough.
    */
-  public void setCrawlDelay(Integer crawlDelay) {
-    this.crawlDelay = crawlDelay;
+  private CompiledMatcher compiled() {
+    CompiledMatcher matcher = compiled;
+    if (matcher == null && compileThreshold >= 0 && queries++ >= compileThreshold) {
+      matcher = new CompiledMatcher(rules, from, to);
+      compiled = matcher;
+    }
+    return matcher;
+  }
+
+  private boolean matches(int rule, String relativePath, MatchingStrategy matchingStrategy, MetricsListener listener, byte[] matches) {
+    return matches != null
+            ? rules.matches(rule, relativePath, matchingStrategy, listener, matches)
+            : rules.matches(rule, relativePath, matchingStrategy, listener);
+  }
+
+  /**
+   * Checks if no rule of the group uses <code>*</code> wildcard.
+   * @return <code>true</code> if clauses are plain prefixes (optionally anchored with <code>$</code>)
+   */
+  public boolean isStarFree() {
+    return starFree;
+  }
+
+  /**
+   * Gets length of the prefix of the path determining the outcome.
+   * <p>
+   * Every path starting with the same prefix of the returned length matches
+   * exactly the same rules. Applies to star-free groups only (see
+   * {@link #isStarFree()}).
+   * @param relativePath path to test, prepared by the default matching strategy
+   * @return length of the prefix or {@link RuleArena#NONE} if the outcome
+   * depends on where the path ends, thus applies to the very path only
+   */
+  public int getDeterminingLength(String relativePath) {
+    int length = 0;
+    for (int rule = from; rule < to; rule++) {
+      String clause = rules.getCanonicalClause(rule);
+      boolean anchored = clause.endsWith("$");
+      int literal = anchored ? clause.length() - 1 : clause.length();
+      int common = 0;
+      int limit = Math.min(literal, relativePath.length());
+      while (common < limit && clause.charAt(common) == relativePath.charAt(common)) {
+        common++;
+      }
+      int determining;
+      if (common < literal) {
+        // mismatch is known at the first differing character unless path ends first
+        determining = common < relativePath.length() ? common + 1 : RuleArena.NONE;
+      } else if (!anchored) {
+        determining = literal;
+      } else {
+        // anchored clause: it's known whether the path goes on after the clause
+        determining = relativePath.length() > literal ? literal + 1 : RuleArena.NONE;
+      }
+      if (determining == RuleArena.NONE) {
+        return RuleArena.NONE;
+      }
+      length = Math.max(length, determining);
+    }
+    return length;
+  }
+
+  private static boolean isStarFree(RuleArena rules, int from, int to) {
+    for (int rule = from; rule < to; rule++) {
+      if (rules.getCanonicalClause(rule).indexOf('*') >= 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Gets constant verdict.
+   * <p>
+   * Group made only of <code>Disallow:</code> rules allows every path;
+   * group made only of <code>Disallow: /</code> rules disallows every path
+   * starting with slash. Such a group answers without matching, provided the
+   * default strategies are used (see {@link #isConstantFor(String)}).
+   * @return winning rule for every applicable path or {@link RuleArena#NONE} if
+   * group is not trivial
+   */
+  public int getVerdict() {
+    return verdict;
+  }
+
+  /**
+   * Checks if constant verdict applies to the path.
+   * @param relativePath relative path
+   * @return <code>true</code> if {@link #getVerdict()} is the winner for the path
+   */
+  public boolean isConstantFor(String relativePath) {
+    if (verdict == RuleArena.NONE || relativePath == null) {
+      return false;
+    }
+    if (rules.isAllowed(verdict)) {
+      return true;
+    }
+    // canonical form of the path starts with slash if the path does
+    return relativePath.startsWith("/");
+  }
+
+  private int constantVerdict() {
+    if (from == to) {
+      return RuleArena.NONE;
+    }
+    String clause = rules.getCanonicalClause(from);
+    boolean allowAll = rules.isAllowed(from) && clause.isEmpty();
+    boolean disallowAll = !rules.isAllowed(from) && clause.equals("/");
+    if (!allowAll && !disallowAll) {
+      return RuleArena.NONE;
+    }
+    for (int rule = from; rule < to; rule++) {
+      if (rules.isAllowed(rule) != rules.isAllowed(from) || rules.getClauseId(rule) != rules.getClauseId(from)) {
+        return RuleArena.NONE;
+      }
+    }
+    return from;
+  }
+
+  /**
+   * Estimates retained size, not including the rules.
+   * @return number of bytes
+   * @see MemoryLayout
+   */
+  public long getRetainedBytes() {
+    CompiledMatcher matcher = compiled;
+    return matcher != null ? retainedBytes + matcher.getRetainedBytes() : retainedBytes;
   }
 
   /**
@@ -140,7 +360,13 @@ class Group {
     
     userAgents.forEach(userAgent->pw.format("User-agent: %s", userAgent).println());
     
-    pw.println(accessList);
+    for (int rule = from; rule < to; rule++) {
+      if (rule > from) {
+        pw.print("\n");
+      }
+      pw.print(rules.getSource(rule));
+    }
+    pw.println();
     
     if (crawlDelay!=null) {
       pw.format("Crawl-delay: %d", crawlDelay).println();
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+/**
+ * Log-linear latency histogram.
+ * <p>
+ * Values are recorded in buckets spanning powers of two, each split into
+ * {@value #SUB_BUCKETS} linear sub-buckets, thus percentiles are reported with
+ * relative error under 1/{@value #SUB_BUCKETS}. Not thread-safe.
+ */
+final class LatencyHistogram {
+  private static final int SUB_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+  private final long[] counts = new long[(64 - SUB_BITS + 1) * SUB_BUCKETS];
+  private long count;
+  private long total;
+  private long max;
+
+  /**
+   * Records value.
+   * @param nanos value in nanoseconds
+   */
+  void record(long nanos) {
+    nanos = Math.max(nanos, 0);
+    counts[index(nanos)]++;
+    count++;
+    total += nanos;
+    max = Math.max(max, nanos);
+  }
+
+  /**
+   * Gets number of recorded values.
+   * @return number of values
+   */
+  long getCount() {
+    return count;
+  }
+
+  /**
+   * Gets sum of recorded values.
+   * @return sum in nanoseconds
+   */
+  long getTotal() {
+    return total;
+  }
+
+  /**
+   * Gets maximum recorded value.
+   * @return maximum in nanoseconds
+   */
+  long getMax() {
+    return max;
+  }
+
+  /**
+   * Gets percentile.
+   * @param percentile percentile (0-100)
+   * @return upper bound of the bucket holding the percentile, in nanoseconds
+   */
+  long getPercentile(double percentile) {
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(upperBound(i), max);
+      }
+    }
+    return max;
+  }
+
+  private static int index(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+    int mantissa = (int) (value >>> exponent) & (SUB_BUCKETS - 1);
+    return (exponent + 1) * SUB_BUCKETS + mantissa;
+  }
+
+  private static long upperBound(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int exponent = index / SUB_BUCKETS - 1;
+    long mantissa = SUB_BUCKETS + index % SUB_BUCKETS;
+    return ((mantissa + 1) << exponent) - 1;
+  }
+}
@@ -15,16 +15,56 @@
  */
 package com.panforge.robotstxt;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Selection match.
+ * <p>
+ * Grant made of the winning access and the group it belongs to. The winning
+ * access is either given or referred to by the rule number within rules of
+ * the group; in the latter case clause and source are read from the
+ * {@link RuleArena} only when asked for.
  */
-class Match {
+class Match implements Grant {
   public final Group group;
-  public final Access access;
+  private final Access access;
+  private final int rule;
 
   public Match(Group group, Access access) {
     this.group = group;
     this.access = access;
+    this.rule = RuleArena.NONE;
+  }
+
+  public Match(Group group, int rule) {
+    this.group = group;
+    this.access = null;
+    this.rule = rule;
+  }
+
+  @Override
+  public boolean hasAccess() {
+    return access!=null? access.hasAccess(): group.getRules().isAllowed(rule);
+  }
+
+  @Override
+  public String getClause() {
+    return access!=null? access.getClause(): group.getRules().getClause(rule);
+  }
+
+  @Override
+  public List<String> getUserAgents() {
+    return group!=null? group.getUserAgents(): Collections.emptyList();
+  }
+
+  @Override
+  public Integer getCrawlDelay() {
+    return group!=null? group.getCrawlDelay(): null;
+  }
+
+  @Override
+  public String toString() {
+    return access!=null? access.toString(): group.getRules().getSource(rule);
   }
-  
 }
@@ -15,11 +15,6 @@
  */
 package com.panforge.robotstxt;
 
-import static com.panforge.robotstxt.URLDecoder.decode;
-import static com.panforge.robotstxt.WildcardsCompiler.compile;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
  * Matching strategy.
  * <p>
@@ -35,30 +30,60 @@ interface MatchingStrategy {
    * @param pattern pattern
    * @param pathToTest path to test
    * @return <code>true</code> if match
+   * @throws TimeLimitedMatcherFactory.RegExpTimeoutException if matching takes too long
    */
   boolean matches(String pattern, String pathToTest);
 
+  /**
+   * Prepares path for matching against many patterns.
+   *
+   * @param pathToTest path to test
+   * @return prepared path
+   */
+  default String prepare(String pathToTest) {
+    return pathToTest;
+  }
+
+  /**
+   * Matches path already prepared with {@link #prepare(String)} with a pattern.
+   *
+   * @param pattern pattern
+   * @param preparedPath prepared path
+   * @return <code>true</code> if match
+   * @throws TimeLimitedMatcherFactory.RegExpTimeoutException if matching takes too long
+   */
+  default boolean matchesPrepared(String pattern, String preparedPath) {
+    return matches(pattern, preparedPath);
+  }
+
   /**
    * This strategy recognizes (*) and ($) as wildcards.
+   * <p>
+   * Path is brought to the canonical percent-encoded form once when
+   * prepared; patterns are expected in the same form (see
+   * {@link Access#getCanonicalClause()}). Matching compares characters of
+   * the canonical forms, i.e. UTF-8 octets.
    */
-  MatchingStrategy DEFAULT = (pattern, pathToTest) -> {
-    if (pathToTest == null) {
-      return false;
+  MatchingStrategy DEFAULT = new MatchingStrategy() {
+    @Override
+    public boolean matches(String pattern, String pathToTest) {
+      return matchesPrepared(PercentEncoding.canonicalize(pattern), prepare(pathToTest));
     }
-    if (pattern == null || pattern.isEmpty()) {
-      return true;
+
+    @Override
+    public String prepare(String pathToTest) {
+      return PercentEncoding.canonicalize(pathToTest);
     }
 
-    String relativePath = decode(pathToTest);
-    try {
-      Pattern pt = compile(pattern);
-      // Protection against Regular Expression Denial of Service.
-      // https://www.owasp.org/index.php/Regular_expression_Denial_of_Service_-_ReDoS
-      // @author vishnu rao
-      Matcher timeBoundMatcher = TimeLimitedMatcherFactory.matcher(pt, relativePath);
-      return timeBoundMatcher.find() && timeBoundMatcher.start() == 0;
-    } catch (TimeLimitedMatcherFactory.RegExpTimeoutException e) {
-      return false;
+    @Override
+    public boolean matchesPrepared(String pattern, String preparedPath) {
+      if (preparedPath == null) {
+        return false;
+      }
+      if (pattern == null || pattern.isEmpty()) {
+        return true;
+      }
+      return WildcardMatcher.matches(pattern, preparedPath);
     }
   };
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Sizes of objects on the heap.
+ * <p>
+ * Follows the HotSpot layout: object header, fields packed without gaps and
+ * size rounded up to 8 bytes. Compressed references and class pointers are
+ * detected once; if they can't be detected, both are assumed (the default for
+ * heaps smaller than 32 GB). Strings are sized with compact strings in mind:
+ * one byte per character if all the characters are Latin-1, two otherwise.
+ */
+final class MemoryLayout {
+  private static final int ALIGNMENT = 8;
+  private static final int REFERENCE;
+  private static final int HEADER;
+
+  static {
+    boolean compressedOops = true;
+    boolean compressedClassPointers = true;
+    try {
+      HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+      compressedOops = Boolean.parseBoolean(hotSpot.getVMOption("UseCompressedOops").getValue());
+      compressedClassPointers = Boolean.parseBoolean(hotSpot.getVMOption("UseCompressedClassPointers").getValue());
+    } catch (RuntimeException | LinkageError ex) {
+      // not a HotSpot virtual machine; keep defaults
+    }
+    REFERENCE = compressedOops ? 4 : 8;
+    HEADER = compressedClassPointers ? 12 : 16;
+  }
+
+  private MemoryLayout() {
+  }
+
+  /**
+   * Gets size of an object.
+   * @param references number of reference fields
+   * @param primitiveBytes total size of primitive fields
+   * @return size in bytes
+   */
+  static long object(int references, int primitiveBytes) {
+    return align(HEADER + (long) references * REFERENCE + primitiveBytes);
+  }
+
+  /**
+   * Gets size of an array of primitives.
+   * @param length length of the array
+   * @param elementBytes size of an element
+   * @return size in bytes
+   */
+  static long array(int length, int elementBytes) {
+    return align(HEADER + 4 + (long) length * elementBytes);
+  }
+
+  /**
+   * Gets size of an array of references, not including referenced objects.
+   * @param length length of the array
+   * @return size in bytes
+   */
+  static long references(int length) {
+    return array(length, REFERENCE);
+  }
+
+  /**
+   * Gets size of a string including its characters.
+   * @param string string (might be <code>null</code>)
+   * @return size in bytes
+   */
+  static long string(String string) {
+    if (string == null) {
+      return 0;
+    }
+    long self = object(1, 4 + 2);
+    return string.isEmpty() ? self : self + array(string.length(), isLatin1(string) ? 1 : 2);
+  }
+
+  /**
+   * Gets size of an unmodifiable list (see {@link List#copyOf}) of strings.
+   * @param strings list of strings
+   * @return size in bytes
+   */
+  static long strings(List<String> strings) {
+    int size = strings.size();
+    if (size == 0) {
+      // shared empty list
+      return 0;
+    }
+    long bytes = size <= 2 ? object(2, 0) : object(1, 1) + references(size);
+    for (String string : strings) {
+      bytes += string(string);
+    }
+    return bytes;
+  }
+
+  private static boolean isLatin1(String string) {
+    for (int i = 0; i < string.length(); i++) {
+      if (string.charAt(i) > 0xFF) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long align(long size) {
+    return (size + ALIGNMENT - 1) & -ALIGNMENT;
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+/**
+ * Global metrics registration.
+ * <p>
+ * Global listener receives events from all readers and parsed robots.txt
+ * which have no listener of their own.
+ */
+public final class Metrics {
+
+  private static volatile MetricsListener globalListener;
+
+  private Metrics() {
+  }
+
+  /**
+   * Sets global listener.
+   * @param listener listener or <code>null</code> to remove listener
+   */
+  public static void setGlobalListener(MetricsListener listener) {
+    globalListener = listener;
+  }
+
+  /**
+   * Gets global listener.
+   * @return global listener or <code>null</code> if no listener registered
+   */
+  public static MetricsListener getGlobalListener() {
+    return globalListener;
+  }
+
+  /**
+   * Resolves listener to notify.
+   * @param listener local listener (might be <code>null</code>)
+   * @return local listener, global listener or <code>null</code> if none
+   */
+  static MetricsListener resolve(MetricsListener listener) {
+    return listener != null ? listener : globalListener;
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+/**
+ * Metrics listener.
+ * <p>
+ * Receives notifications about parsing, querying, matching timeouts and
+ * cache activity. A listener might be registered either on a single reader
+ * ({@link RobotsTxtReader#setListener}) or globally ({@link Metrics#setGlobalListener}).
+ * <p>
+ * Methods are invoked synchronously from the threads doing the work, thus
+ * implementations have to be thread safe and fast.
+ *
+ * @see CountingMetricsListener
+ */
+public interface MetricsListener {
+
+  /**
+   * Called after robots.txt has been parsed.
+   * @param nanos parsing time in nanoseconds
+   * @param bytes number of bytes read
+   * @param groups number of groups
+   * @param rules number of rules
+   */
+  default void onParse(long nanos, long bytes, int groups, int rules) {
+  }
+
+  /**
+   * Called after rules of parsed robots.txt have been optimized (see
+   * {@link RobotsTxtReader#setOptimize(boolean)}).
+   * @param removedRules number of rules removed
+   */
+  default void onOptimize(int removedRules) {
+  }
+
+  /**
+   * Called after a query has been evaluated.
+   * @param nanos query time in nanoseconds
+   * @param matchedRules number of rules matching the path
+   */
+  default void onQuery(long nanos, int matchedRules) {
+  }
+
+  /**
+   * Called when matching a path against a pattern exceeded its time budget.
+   * Such a pattern is treated as not matching.
+   * @param pattern pattern
+   * @param path path
+   */
+  default void onTimeout(String pattern, String path) {
+  }
+
+  /**
+   * Called when parsed robots.txt has been found in a cache.
+   */
+  default void onCacheHit() {
+  }
+
+  /**
+   * Called when parsed robots.txt has not been found in a cache.
+   */
+  default void onCacheMiss() {
+  }
+}
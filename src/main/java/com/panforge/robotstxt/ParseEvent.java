@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event emitted when robots.txt has been parsed.
+ * <p>
+ * Disabled by default; enable with <code>com.panforge.robotstxt.Parse#enabled=true</code>.
+ */
+@Name("com.panforge.robotstxt.Parse")
+@Label("Robots.txt Parse")
+@Category("Robots.txt")
+@Description("Parsing of robots.txt")
+@Enabled(false)
+@StackTrace(false)
+class ParseEvent extends jdk.jfr.Event {
+
+  @Label("Bytes")
+  @DataAmount
+  long bytes;
+
+  @Label("Groups")
+  int groups;
+
+  @Label("Rules")
+  int rules;
+
+  @Label("Removed Rules")
+  int removedRules;
+}
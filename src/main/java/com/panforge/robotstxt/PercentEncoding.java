@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Canonical percent-encoding of paths and clauses (RFC 3986, RFC 9309).
+ * <p>
+ * Canonical form is made of ASCII characters only, thus comparing canonical
+ * strings compares their UTF-8 octets:
+ * <ul>
+ * <li>escapes of unreserved characters (<code>ALPHA DIGIT - . _ ~</code>)
+ * are decoded,</li>
+ * <li>escapes of any other octet are kept with hex digits in upper case,</li>
+ * <li>non-ASCII characters, controls, space and characters not allowed in
+ * URLs are encoded as UTF-8 octets,</li>
+ * <li><code>%</code> not followed by two hex digits is encoded as
+ * <code>%25</code>,</li>
+ * <li>any other character (including reserved ones) is kept.</li>
+ * </ul>
+ */
+final class PercentEncoding {
+
+  private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+  private PercentEncoding() {
+  }
+
+  /**
+   * Canonicalizes path or clause.
+   *
+   * @param str path or clause
+   * @return canonical form or <code>null</code> if <code>str</code> is <code>null</code>
+   */
+  static String canonicalize(String str) {
+    if (str == null || isCanonicalAscii(str)) {
+      return str;
+    }
+    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+    StringBuilder sb = new StringBuilder(bytes.length + 16);
+    for (int i = 0; i < bytes.length; i++) {
+      int b = bytes[i] & 0xff;
+      if (b == '%') {
+        int hi = i + 2 < bytes.length ? hexValue(bytes[i + 1]) : -1;
+        int lo = hi >= 0 ? hexValue(bytes[i + 2]) : -1;
+        if (lo >= 0) {
+          int octet = hi << 4 | lo;
+          if (isUnreserved(octet)) {
+            sb.append((char) octet);
+          } else {
+            appendEscape(sb, octet);
+          }
+          i += 2;
+        } else {
+          appendEscape(sb, b);
+        }
+      } else if (mustEscape(b)) {
+        appendEscape(sb, b);
+      } else {
+        sb.append((char) b);
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Checks if string is already in canonical form and made of characters
+   * kept as they are.
+   */
+  private static boolean isCanonicalAscii(String str) {
+    for (int i = 0; i < str.length(); i++) {
+      char c = str.charAt(i);
+      if (c == '%' || c >= 0x80 || mustEscape(c)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean mustEscape(int c) {
+    if (c <= 0x20 || c >= 0x7f) {
+      return true;
+    }
+    switch (c) {
+      case '"':
+      case '<':
+      case '>':
+      case '\\':
+      case '^':
+      case '`':
+      case '{':
+      case '|':
+      case '}':
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static boolean isUnreserved(int c) {
+    return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+            || c == '-' || c == '.' || c == '_' || c == '~';
+  }
+
+  private static int hexValue(byte b) {
+    if (b >= '0' && b <= '9') {
+      return b - '0';
+    }
+    if (b >= 'A' && b <= 'F') {
+      return b - 'A' + 10;
+    }
+    if (b >= 'a' && b <= 'f') {
+      return b - 'a' + 10;
+    }
+    return -1;
+  }
+
+  private static void appendEscape(StringBuilder sb, int octet) {
+    sb.append('%').append(HEX[octet >> 4]).append(HEX[octet & 0xf]);
+  }
+}
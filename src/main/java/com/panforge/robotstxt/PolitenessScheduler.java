@@ -0,0 +1,436 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-host politeness scheduler.
+ * <p>
+ * Spaces fetches to the same host according to the crawl delay declared in
+ * robots.txt for the user agent (see {@link Grant#getCrawlDelay()}). It can
+ * be used in two ways:
+ * <ul>
+ * <li>{@link #reserve(URI, Grant)} reserves the earliest permitted fetch time
+ * for the URL; the caller waits till then,</li>
+ * <li>{@link #submit(URI, String, RobotsTxt)} queues the URL and
+ * {@link #poll()} hands out URLs which are due, in due order.</li>
+ * </ul>
+ * Reservations are lock-free: the next permitted time of each host is
+ * advanced with compare-and-set. Queued URLs are kept per host; hosts with
+ * queued URLs are ordered by due time in a number of independently locked
+ * heaps, thus threads working on different hosts rarely contend.
+ * <p>
+ * Instances are thread-safe.
+ */
+public class PolitenessScheduler {
+
+  private static final long RETIRED = Long.MIN_VALUE;
+
+  private final Clock clock;
+  private final ConcurrentHashMap<String, Host> hosts = new ConcurrentHashMap<>();
+  private final Stripe[] stripes;
+  private final AtomicInteger pending = new AtomicInteger();
+  private volatile long defaultDelay;
+  private volatile long maxDelay = Long.MAX_VALUE;
+
+  /**
+   * Creates instance of the scheduler using system clock.
+   */
+  public PolitenessScheduler() {
+    this(Clock.systemUTC());
+  }
+
+  /**
+   * Creates instance of the scheduler.
+   *
+   * @param clock clock
+   */
+  public PolitenessScheduler(Clock clock) {
+    if (clock == null) {
+      throw new IllegalArgumentException("Clock must not be null.");
+    }
+    this.clock = clock;
+    int count = Integer.highestOneBit(Math.max(1, 2 * Runtime.getRuntime().availableProcessors() - 1)) << 1;
+    this.stripes = new Stripe[count];
+    for (int i = 0; i < stripes.length; i++) {
+      stripes[i] = new Stripe();
+    }
+  }
+
+  /**
+   * Gets default delay.
+   *
+   * @return delay used when robots.txt declares no crawl delay
+   */
+  public Duration getDefaultDelay() {
+    return Duration.ofMillis(defaultDelay);
+  }
+
+  /**
+   * Sets default delay.
+   *
+   * @param defaultDelay delay used when robots.txt declares no crawl delay
+   */
+  public void setDefaultDelay(Duration defaultDelay) {
+    this.defaultDelay = defaultDelay != null ? Math.max(0, defaultDelay.toMillis()) : 0;
+  }
+
+  /**
+   * Gets maximum delay.
+   *
+   * @return maximum delay
+   */
+  public Duration getMaxDelay() {
+    return Duration.ofMillis(maxDelay);
+  }
+
+  /**
+   * Sets maximum delay.
+   * <p>
+   * Caps crawl delays declared in robots.txt.
+   *
+   * @param maxDelay maximum delay or <code>null</code> for no limit
+   */
+  public void setMaxDelay(Duration maxDelay) {
+    this.maxDelay = maxDelay != null ? Math.max(0, maxDelay.toMillis()) : Long.MAX_VALUE;
+  }
+
+  /**
+   * Reserves fetch of the URL.
+   *
+   * @param url URL to fetch
+   * @param userAgent user agent
+   * @param robotsTxt robots.txt of the host
+   * @return earliest permitted fetch time in milliseconds since epoch
+   */
+  public long reserve(URI url, String userAgent, RobotsTxt robotsTxt) {
+    return reserve(url, robotsTxt.ask(userAgent, url.toString()));
+  }
+
+  /**
+   * Reserves fetch of the URL.
+   * <p>
+   * The host is considered busy until the returned time plus the delay,
+   * thus subsequent reservations for the same host get later times.
+   *
+   * @param url URL to fetch
+   * @param grant grant obtained from robots.txt for the URL
+   * @return earliest permitted fetch time in milliseconds since epoch
+   */
+  public long reserve(URI url, Grant grant) {
+    return reserve(originOf(url), delayOf(grant));
+  }
+
+  /**
+   * Gets earliest permitted fetch time without reserving it.
+   *
+   * @param url URL to fetch
+   * @return earliest permitted fetch time in milliseconds since epoch
+   */
+  public long peek(URI url) {
+    Host host = hosts.get(originOf(url));
+    long now = clock.millis();
+    long next = host != null ? host.next.get() : RETIRED;
+    return Math.max(now, next);
+  }
+
+  /**
+   * Submits URL to be handed out by {@link #poll()}.
+   *
+   * @param url URL to fetch
+   * @param userAgent user agent
+   * @param robotsTxt robots.txt of the host
+   * @return <code>true</code> if URL has been queued, <code>false</code> if
+   * access to the URL is disallowed
+   */
+  public boolean submit(URI url, String userAgent, RobotsTxt robotsTxt) {
+    Grant grant = robotsTxt.ask(userAgent, url.toString());
+    if (!grant.hasAccess()) {
+      return false;
+    }
+    submit(url, grant);
+    return true;
+  }
+
+  /**
+   * Submits URL to be handed out by {@link #poll()}.
+   *
+   * @param url URL to fetch
+   * @param grant grant obtained from robots.txt for the URL
+   */
+  public void submit(URI url, Grant grant) {
+    String key = originOf(url);
+    long delay = delayOf(grant);
+    Stripe stripe = stripeOf(key);
+    stripe.lock.lock();
+    try {
+      Host host = hosts.computeIfAbsent(key, Host::new);
+      host.queue.add(new Pending(url, delay));
+      pending.incrementAndGet();
+      if (!host.scheduled) {
+        host.scheduled = true;
+        host.due = Math.max(clock.millis(), host.next.get());
+        stripe.heap.add(host);
+      }
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  /**
+   * Takes URL which is due.
+   * <p>
+   * Reserves fetch of the URL, thus the URL should be fetched immediately.
+   *
+   * @return URL or <code>null</code> if no URL is due
+   */
+  public URI poll() {
+    if (pending.get() == 0) {
+      return null;
+    }
+    int start = ThreadLocalRandom.current().nextInt(stripes.length);
+    for (int i = 0; i < stripes.length; i++) {
+      URI url = stripes[(start + i) & (stripes.length - 1)].poll();
+      if (url != null) {
+        return url;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Gets time at which next queued URL will be due.
+   *
+   * @return time in milliseconds since epoch or {@link Long#MAX_VALUE} if
+   * nothing is queued
+   */
+  public long nextDueTime() {
+    long due = Long.MAX_VALUE;
+    for (Stripe stripe : stripes) {
+      stripe.lock.lock();
+      try {
+        Host host = stripe.heap.peek();
+        if (host != null) {
+          due = Math.min(due, host.due);
+        }
+      } finally {
+        stripe.lock.unlock();
+      }
+    }
+    return due;
+  }
+
+  /**
+   * Gets number of queued URLs.
+   *
+   * @return number of queued URLs
+   */
+  public int size() {
+    return pending.get();
+  }
+
+  /**
+   * Gets number of tracked hosts.
+   *
+   * @return number of tracked hosts
+   */
+  public int countHosts() {
+    return hosts.size();
+  }
+
+  /**
+   * Forgets hosts which are idle.
+   * <p>
+   * A host is idle when it has no queued URLs and its next permitted fetch
+   * time has passed, thus forgetting it doesn't change any future answer.
+   *
+   * @return number of forgotten hosts
+   */
+  public int purge() {
+    int purged = 0;
+    long now = clock.millis();
+    for (Host host : hosts.values()) {
+      Stripe stripe = stripeOf(host.key);
+      stripe.lock.lock();
+      try {
+        long next = host.next.get();
+        if (!host.scheduled && next != RETIRED && next <= now && host.next.compareAndSet(next, RETIRED)) {
+          hosts.remove(host.key, host);
+          purged++;
+        }
+      } finally {
+        stripe.lock.unlock();
+      }
+    }
+    return purged;
+  }
+
+  private long reserve(String key, long delay) {
+    while (true) {
+      Host host = hosts.computeIfAbsent(key, Host::new);
+      long slot = host.reserve(clock.millis(), delay);
+      if (slot != RETIRED) {
+        return slot;
+      }
+      // host is being purged; wait for a fresh one
+      hosts.remove(key, host);
+    }
+  }
+
+  private long delayOf(Grant grant) {
+    Integer crawlDelay = grant != null ? grant.getCrawlDelay() : null;
+    long delay = crawlDelay != null && crawlDelay > 0 ? crawlDelay * 1000L : defaultDelay;
+    return Math.min(delay, maxDelay);
+  }
+
+  private Stripe stripeOf(String key) {
+    int h = key.hashCode();
+    h ^= h >>> 16;
+    return stripes[h & (stripes.length - 1)];
+  }
+
+  /**
+   * Gets origin of the URL.
+   *
+   * @param url URL
+   * @return origin made of scheme, host and port (if explicit)
+   */
+  static String originOf(URI url) {
+    if (url == null || url.getHost() == null) {
+      throw new IllegalArgumentException(String.format("Invalid URL: %s", url));
+    }
+    String scheme = url.getScheme() != null ? url.getScheme().toLowerCase(Locale.ROOT) : "http";
+    return scheme + "://" + url.getHost().toLowerCase(Locale.ROOT) + (url.getPort() >= 0 ? ":" + url.getPort() : "");
+  }
+
+  /**
+   * Heap of hosts with queued URLs ordered by due time.
+   */
+  private final class Stripe {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Host> heap = new PriorityQueue<>((l, r) -> Long.compare(l.due, r.due));
+
+    URI poll() {
+      if (!lock.tryLock()) {
+        return null;
+      }
+      try {
+        long now = clock.millis();
+        for (Host host = heap.peek(); host != null && host.due <= now; host = heap.peek()) {
+          heap.poll();
+          Pending next = host.queue.peek();
+          if (!host.tryReserve(now, next.delay)) {
+            // host has been reserved directly in the meantime
+            host.due = host.next.get();
+            heap.add(host);
+            continue;
+          }
+          host.queue.poll();
+          pending.decrementAndGet();
+          if (host.queue.isEmpty()) {
+            host.scheduled = false;
+          } else {
+            host.due = host.next.get();
+            heap.add(host);
+          }
+          return next.url;
+        }
+        return null;
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Host state.
+   */
+  private static final class Host {
+
+    private final String key;
+    private final AtomicLong next = new AtomicLong();
+    // guarded by the lock of the stripe
+    private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+    private boolean scheduled;
+    private long due;
+
+    Host(String key) {
+      this.key = key;
+    }
+
+    /**
+     * Reserves next slot.
+     *
+     * @return reserved time or {@link #RETIRED} if host has been purged
+     */
+    long reserve(long now, long delay) {
+      while (true) {
+        long current = next.get();
+        if (current == RETIRED) {
+          return RETIRED;
+        }
+        long slot = Math.max(now, current);
+        if (next.compareAndSet(current, slot + delay)) {
+          return slot;
+        }
+      }
+    }
+
+    /**
+     * Reserves slot starting now.
+     *
+     * @return <code>true</code> if reserved, <code>false</code> if host is
+     * busy
+     */
+    boolean tryReserve(long now, long delay) {
+      while (true) {
+        long current = next.get();
+        if (current > now) {
+          return false;
+        }
+        if (next.compareAndSet(current, now + delay)) {
+          return true;
+        }
+      }
+    }
+  }
+
+  /**
+   * URL waiting to be handed out.
+   */
+  private static final class Pending {
+
+    private final URI url;
+    private final long delay;
+
+    Pending(URI url, long delay) {
+      this.url = url;
+      this.delay = delay;
+    }
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Product tokens extractor.
+ * <p>
+ * Extracts product tokens (RFC 9309, section 2.2.1) from user agent strings,
+ * for example: <code>Googlebot</code> from
+ * <code>Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)</code>.
+ * Crawlers use very few distinct user agent strings, thus extraction results
+ * are cached. The cache is a fixed size direct-mapped table: a user agent
+ * evicts only the one occupying its slot, thus many distinct user agents
+ * never make the cache thrash as a whole. Entries are immutable, hence
+ * racy reads and writes of the table are safe.
+ */
+class ProductTokens {
+
+  private static final int CACHE_SIZE = 1024;
+  private static final Entry[] CACHE = new Entry[CACHE_SIZE];
+
+  /**
+   * Extracts candidate names from the user agent string.
+   * <p>
+   * The first candidate is always the user agent string itself, followed by
+   * the product tokens found in it (without versions), in order of
+   * appearance.
+   *
+   * @param userAgent user agent string
+   * @return array of candidate names
+   */
+  public static String[] extract(String userAgent) {
+    int hash = userAgent.hashCode();
+    int slot = (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+    Entry entry = CACHE[slot];
+    if (entry == null || !entry.userAgent.equals(userAgent)) {
+      entry = new Entry(userAgent, parse(userAgent));
+      CACHE[slot] = entry;
+    }
+    return entry.tokens;
+  }
+
+  private static String[] parse(String userAgent) {
+    List<String> tokens = new ArrayList<>();
+    tokens.add(userAgent);
+
+    int depth = 0;
+    int start = -1;
+    for (int i = 0; i <= userAgent.length(); i++) {
+      char c = i < userAgent.length() ? userAgent.charAt(i) : ' ';
+      boolean separator = depth == 0
+              ? Character.isWhitespace(c) || c == '('
+              : c == ';' || c == '(' || c == ')';
+      if (separator) {
+        if (start >= 0) {
+          addToken(tokens, userAgent.substring(start, i).trim(), depth > 0);
+          start = -1;
+        }
+        if (c == '(') {
+          depth++;
+        } else if (c == ')' && depth > 0) {
+          depth--;
+        }
+      } else if (start < 0) {
+        start = i;
+      }
+    }
+
+    return tokens.toArray(new String[tokens.size()]);
+  }
+
+  private static void addToken(List<String> tokens, String token, boolean comment) {
+    int slashIndex = token.indexOf('/');
+    if (comment && slashIndex < 0) {
+      // comment items without version (like "compatible") are not products
+      return;
+    }
+    String name = slashIndex >= 0 ? token.substring(0, slashIndex) : token;
+    if (!name.isEmpty() && !tokens.contains(name) && isProductName(name)) {
+      tokens.add(name);
+    }
+  }
+
+  private static boolean isProductName(String name) {
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (!(Character.isLetterOrDigit(c) || c == '-' || c == '_' || c == '.')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Cached extraction result.
+   */
+  private static final class Entry {
+    private final String userAgent;
+    private final String[] tokens;
+
+    Entry(String userAgent, String[] tokens) {
+      this.userAgent = userAgent;
+      this.tokens = tokens;
+    }
+  }
+}
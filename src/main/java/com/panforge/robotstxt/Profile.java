@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live profiling counters of a single robots.txt.
+ * <p>
+ * Counters are backed by {@link LongAdder}, thus threads querying the same
+ * robots.txt don't contend on them.
+ *
+ * @see RobotsTxtProfiler
+ */
+final class Profile {
+  private final String host;
+  private final RuleArena rules;
+  private final LongAdder queries = new LongAdder();
+  private final LongAdder queryNanos = new LongAdder();
+  private final LongAdder matchNanos = new LongAdder();
+  private final Counters[] counters;
+
+  /**
+   * Creates instance of the profile.
+   * @param host host of the robots.txt
+   * @param rules rules of the robots.txt
+   */
+  Profile(String host, RuleArena rules) {
+    this.host = host;
+    this.rules = rules;
+    this.counters = new Counters[rules.size()];
+    for (int rule = 0; rule < counters.length; rule++) {
+      counters[rule] = new Counters();
+    }
+  }
+
+  String getHost() {
+    return host;
+  }
+
+  RuleArena getRules() {
+    return rules;
+  }
+
+  /**
+   * Records matching a rule.
+   * @param rule rule number
+   * @param hit <code>true</code> if rule matched the path
+   * @param nanos time of matching in nanoseconds
+   */
+  void onMatch(int rule, boolean hit, long nanos) {
+    Counters c = counters[rule];
+    c.attempts.increment();
+    if (hit) {
+      c.hits.increment();
+    }
+    c.nanos.add(nanos);
+    matchNanos.add(nanos);
+  }
+
+  /**
+   * Records a query.
+   * @param nanos time of the query in nanoseconds
+   */
+  void onQuery(long nanos) {
+    queries.increment();
+    queryNanos.add(nanos);
+  }
+
+  long getQueries() {
+    return queries.sum();
+  }
+
+  long getQueryNanos() {
+    return queryNanos.sum();
+  }
+
+  long getMatchNanos() {
+    return matchNanos.sum();
+  }
+
+  long getAttempts(int rule) {
+    return counters[rule].attempts.sum();
+  }
+
+  long getHits(int rule) {
+    return counters[rule].hits.sum();
+  }
+
+  long getNanos(int rule) {
+    return counters[rule].nanos.sum();
+  }
+
+  /**
+   * Resets all the counters.
+   */
+  void reset() {
+    queries.reset();
+    queryNanos.reset();
+    matchNanos.reset();
+    for (Counters c : counters) {
+      c.attempts.reset();
+      c.hits.reset();
+      c.nanos.reset();
+    }
+  }
+
+  private static final class Counters {
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+  }
+}
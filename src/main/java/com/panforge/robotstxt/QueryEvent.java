@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.util.concurrent.ThreadLocalRandom;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event emitted for a sample of queries.
+ * <p>
+ * Disabled by default; enable with <code>com.panforge.robotstxt.Query#enabled=true</code>.
+ * Only one in <code>com.panforge.robotstxt.jfr.querySampling</code> queries
+ * (system property, default: 64) is considered for recording, thus queries
+ * not sampled don't pay for creating the event. Queries don't even draw a
+ * random number unless the event is enabled.
+ */
+@Name("com.panforge.robotstxt.Query")
+@Label("Robots.txt Query")
+@Category("Robots.txt")
+@Description("Sampled robots.txt query")
+@Enabled(false)
+@StackTrace(false)
+class QueryEvent extends jdk.jfr.Event {
+
+  private static final int DEFAULT_SAMPLING = 64;
+
+  private static volatile int sampling = determineSampling();
+
+  @Label("User Agent")
+  String userAgent;
+
+  @Label("Path")
+  String path;
+
+  @Label("Rules")
+  @Description("Number of rules in the group applicable for the user agent")
+  int rules;
+
+  @Label("Matched Rules")
+  int matchedRules;
+
+  @Label("Allowed")
+  boolean allowed;
+
+  /**
+   * Begins event for a sampled query.
+   * @return event or <code>null</code> if query not sampled or event not enabled
+   */
+  static QueryEvent sample() {
+    if (!Type.TYPE.isEnabled() || ThreadLocalRandom.current().nextInt(sampling) != 0) {
+      return null;
+    }
+    QueryEvent event = new QueryEvent();
+    event.begin();
+    return event;
+  }
+
+  /**
+   * Gets sampling.
+   * @return one in how many queries is considered for recording
+   */
+  static int getSampling() {
+    return sampling;
+  }
+
+  /**
+   * Sets sampling.
+   * @param sampling one in how many queries is considered for recording
+   */
+  static void setSampling(int sampling) {
+    if (sampling <= 0) {
+      throw new IllegalArgumentException("Sampling must be positive.");
+    }
+    QueryEvent.sampling = sampling;
+  }
+
+  private static int determineSampling() {
+    String str = System.getProperty("com.panforge.robotstxt.jfr.querySampling");
+    if (str == null) {
+      return DEFAULT_SAMPLING;
+    }
+    try {
+      return Math.max(1, Integer.parseInt(str));
+    } catch (NumberFormatException ex) {
+      return DEFAULT_SAMPLING;
+    }
+  }
+
+  /**
+   * Lazily registered event type; checking it is a volatile read.
+   */
+  private static final class Type {
+    private static final EventType TYPE = EventType.getEventType(QueryEvent.class);
+  }
+}
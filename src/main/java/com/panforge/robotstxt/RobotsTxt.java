@@ -17,13 +17,19 @@ package com.panforge.robotstxt;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Represents access policy from a single "robots.txt" file.
  * <p>
  * Use {@link RobotsTxt#read(java.io.InputStream)} to read and parse robots.txt.
+ * <p>
+ * Parsed instances are immutable and thread-safe; a single instance might be
+ * queried from many threads at once and published without synchronization.
  */
 public interface RobotsTxt {
 
@@ -65,6 +71,26 @@ public interface RobotsTxt {
     };
   }
 
+  /**
+   * Asks for grants for many user agents at once.
+   * <p>
+   * Path is normalized once and rules shared by the user agents are
+   * evaluated once, thus asking for several user agents at once is cheaper
+   * than asking for each of them separately.
+   * @param userAgents user agents to be used evaluate authorization
+   * @param path path to access
+   * @return grant by user agent, in order of the user agents (never <code>null</code>)
+   */
+  default Map<String, Grant> askAll(Collection<String> userAgents, String path) {
+    Map<String, Grant> grants = new LinkedHashMap<>();
+    for (String userAgent : userAgents) {
+      if (!grants.containsKey(userAgent)) {
+        grants.put(userAgent, ask(userAgent, path));
+      }
+    }
+    return grants;
+  }
+
   /**
    * Gets crawl delay.
    * @return crawl delay in seconds or <code>0</code> if no delay declared
@@ -92,6 +118,19 @@ public interface RobotsTxt {
    */
   List<String> getDisallowList(String userAgent);
   
+  /**
+   * Gets memory footprint.
+   * <p>
+   * Estimates heap memory retained by this instance, for example to weigh
+   * entries of a memory bounded cache. Estimating takes time proportional to
+   * the number of groups and rules, far less than parsing.
+   * @return footprint (never <code>null</code>); retained size is zero if
+   * not known
+   */
+  default Footprint getFootprint() {
+    return Footprint.NONE;
+  }
+
   /**
    * Reads robots.txt available at the URL.
    * @param input stream of content
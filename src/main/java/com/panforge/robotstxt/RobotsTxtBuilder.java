@@ -0,0 +1,241 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Robots.txt builder.
+ * <p>
+ * Collects sections and directives while parsing and merges sections
+ * declaring the same user agents. Produces immutable {@link RobotsTxtImpl}.
+ */
+class RobotsTxtBuilder {
+
+  private final MatchingStrategy matchingStrategy;
+  private final WinningStrategy winningStrategy;
+  private final MetricsListener listener;
+
+  private Section defaultSection;
+  private final List<Section> sections = new ArrayList<>();
+  private final AgentIndex.Builder agentIndex = new AgentIndex.Builder();
+  private String host;
+  private final List<String> sitemaps = new ArrayList<>();
+  private int compileThreshold = -1;
+  private int removedRules;
+
+  /**
+   * Creates instance of the builder.
+   *
+   * @param matchingStrategy matching strategy
+   * @param winningStrategy winning strategy
+   * @param listener metrics listener or <code>null</code> to use global listener
+   */
+  public RobotsTxtBuilder(MatchingStrategy matchingStrategy, WinningStrategy winningStrategy, MetricsListener listener) {
+    this.matchingStrategy = matchingStrategy;
+    this.winningStrategy = winningStrategy;
+    this.listener = listener;
+  }
+
+  /**
+   * Adds section.
+   *
+   * @param section section
+   */
+  public void addSection(Section section) {
+    addSection(section, true);
+  }
+
+  /**
+   * Adds section.
+   * <p>
+   * A section which is not retained occupies its user agents, thus any
+   * section merging with it later is discarded as well.
+   *
+   * @param section section
+   * @param retain {@code false} to discard section unless it merges into an existing section
+   */
+  public void addSection(Section section, boolean retain) {
+    if (section != null) {
+      if (section.isAnyAgent()) {
+        if (defaultSection == null) {
+          defaultSection = section;
+        } else {
+          defaultSection.importSection(section);
+        }
+      } else {
+        int exact = agentIndex.findExact(section.getUserAgents());
+        if (exact == AgentIndex.NONE) {
+          if (retain) {
+            agentIndex.add(section.getUserAgents(), sections.size());
+            sections.add(section);
+          } else {
+            agentIndex.discard(section.getUserAgents());
+          }
+        } else if (exact != AgentIndex.DISCARDED) {
+          sections.get(exact).importSection(section);
+        }
+      }
+    }
+  }
+
+  /**
+   * Sets host.
+   *
+   * @param host host name
+   */
+  public void setHost(String host) {
+    this.host = host;
+  }
+
+  /**
+   * Sets number of queries of a group after which its rules are compiled.
+   *
+   * @param compileThreshold number of queries or negative number to never compile
+   */
+  public void setCompileThreshold(int compileThreshold) {
+    this.compileThreshold = compileThreshold;
+  }
+
+  /**
+   * Adds site map.
+   *
+   * @param sitemap site map URL
+   */
+  public void addSitemap(String sitemap) {
+    sitemaps.add(sitemap);
+  }
+
+  /**
+   * Counts groups.
+   *
+   * @return number of groups including default group
+   */
+  public int countGroups() {
+    return sections.size() + (defaultSection != null ? 1 : 0);
+  }
+
+  /**
+   * Counts rules.
+   *
+   * @return number of rules in all groups
+   */
+  public int countRules() {
+    int rules = defaultSection != null ? defaultSection.countAccess() : 0;
+    for (Section section : sections) {
+      rules += section.countAccess();
+    }
+    return rules;
+  }
+
+  /**
+   * Removes rules which never win from all the groups.
+   * <p>
+   * Applies to the default strategies only; with any other strategy rules
+   * are kept intact.
+   *
+   * @return number of rules removed
+   * @see RuleOptimizer
+   */
+  public int optimize() {
+    if (matchingStrategy != MatchingStrategy.DEFAULT || winningStrategy != WinningStrategy.DEFAULT) {
+      return 0;
+    }
+    int removed = defaultSection != null ? defaultSection.optimize() : 0;
+    for (Section section : sections) {
+      removed += section.optimize();
+    }
+    removedRules += removed;
+    return removed;
+  }
+
+  /**
+   * Counts rules removed by optimization.
+   *
+   * @return number of rules removed (see {@link #optimize()})
+   */
+  public int countRemovedRules() {
+    return removedRules;
+  }
+
+  /**
+   * Builds robots.txt.
+   * <p>
+   * Empty, allow-all and disallow-all robots.txt for all the agents are
+   * represented by shared instances of {@link TrivialRobotsTxt}.
+   *
+   * @return immutable robots.txt
+   */
+  public RobotsTxt build() {
+    RuleArena.Builder ruleBuilder = new RuleArena.Builder();
+    int defaultFrom = defaultSection != null ? defaultSection.addRules(ruleBuilder) : 0;
+    int[] from = new int[sections.size()];
+    for (int i = 0; i < from.length; i++) {
+      from[i] = sections.get(i).addRules(ruleBuilder);
+    }
+    RuleArena rules = ruleBuilder.build();
+
+    Group defaultGroup = defaultSection != null ? defaultSection.toGroup(rules, defaultFrom, compileThreshold) : null;
+    RobotsTxt trivial = trivial(defaultGroup);
+    if (trivial != null) {
+      return trivial;
+    }
+    Group[] groups = new Group[sections.size()];
+    for (int i = 0; i < groups.length; i++) {
+      groups[i] = sections.get(i).toGroup(rules, from[i], compileThreshold);
+    }
+    return new RobotsTxtImpl(
+            matchingStrategy,
+            winningStrategy,
+            listener,
+            rules,
+            defaultGroup,
+            groups,
+            agentIndex.build(),
+            host,
+            sitemaps);
+  }
+
+  /**
+   * Finds shared instance equivalent to the robots.txt.
+   *
+   * @param defaultGroup default group or <code>null</code> if none
+   * @return shared instance or <code>null</code> if robots.txt is not trivial
+   */
+  private RobotsTxt trivial(Group defaultGroup) {
+    if (listener != null || matchingStrategy != MatchingStrategy.DEFAULT || winningStrategy != WinningStrategy.DEFAULT) {
+      return null;
+    }
+    if (!sections.isEmpty() || host != null || !sitemaps.isEmpty()) {
+      return null;
+    }
+    if (defaultGroup == null) {
+      return TrivialRobotsTxt.EMPTY;
+    }
+    if (defaultGroup.getCrawlDelay() != null) {
+      return null;
+    }
+    if (defaultGroup.countRules() == 0) {
+      return TrivialRobotsTxt.EMPTY;
+    }
+    int verdict = defaultGroup.getVerdict();
+    if (verdict == RuleArena.NONE) {
+      return null;
+    }
+    return defaultGroup.getRules().isAllowed(verdict) ? TrivialRobotsTxt.ALLOW_ALL : TrivialRobotsTxt.DISALLOW_ALL;
+  }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Bulk robots.txt reader.
+ * <p>
+ * Parses large collections of robots.txt content in parallel. Content is
+ * pulled from the source only when there is a room for it, thus no more than
+ * configured number of documents is held in memory at any time. Each worker
+ * thread reuses its own decoding buffers.
+ * <p>
+ * Results are delivered to the consumer from the worker threads, therefore
+ * consumer has to be thread safe. Exceptions thrown by the consumer are
+ * counted apart from parsing failures.
+ */
+public class RobotsTxtBulkReader {
+
+  private final Executor executor;
+  private final int maxInFlight;
+  private final RobotsTxtReader reader;
+  private final ThreadLocal<RobotsTxtReader.Scratch> scratch = ThreadLocal.withInitial(RobotsTxtReader.Scratch::new);
+
+  /**
+   * Creates instance of the bulk reader using common fork-join pool.
+   */
+  public RobotsTxtBulkReader() {
+    this(ForkJoinPool.commonPool(), 4 * Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Creates instance of the bulk reader using default reader.
+   *
+   * @param executor executor used to parse content (for example: {@link ForkJoinPool})
+   * @param maxInFlight maximum number of documents being parsed or awaiting parsing at the same time
+   */
+  public RobotsTxtBulkReader(Executor executor, int maxInFlight) {
+    this(new RobotsTxtReader(), executor, maxInFlight);
+  }
+
+  /**
+   * Creates instance of the bulk reader.
+   * <p>
+   * Reader must not be reconfigured once the bulk reader is in use.
+   *
+   * @param reader reader used to parse robots.txt
+   * @param executor executor used to parse content (for example: {@link ForkJoinPool})
+   * @param maxInFlight maximum number of documents being parsed or awaiting parsing at the same time
+   */
+  public RobotsTxtBulkReader(RobotsTxtReader reader, Executor executor, int maxInFlight) {
+    if (reader == null) {
+      throw new IllegalArgumentException("Reader must not be null.");
+    }
+    if (executor == null) {
+      throw new IllegalArgumentException("Executor must not be null.");
+    }
+    if (maxInFlight <= 0) {
+      throw new IllegalArgumentException("Maximum number of documents in flight must be positive.");
+    }
+    this.reader = reader;
+    this.executor = executor;
+    this.maxInFlight = maxInFlight;
+  }
+
+  /**
+   * Reads all documents from the source.
+   *
+   * @param <K> type of the key
+   * @param source source of pairs of key and robots.txt content
+   * @param consumer consumer of the parsed robots.txt
+   * @return statistics
+   * @throws InterruptedException if interrupted while waiting for the documents to be parsed
+   */
+  public <K> Statistics read(Stream<? extends Map.Entry<K, byte[]>> source, BiConsumer<? super K, ? super RobotsTxt> consumer) throws InterruptedException {
+    return read(source.iterator(), consumer, null);
+  }
+
+  /**
+   * Reads all documents from the source.
+   *
+   * @param <K> type of the key
+   * @param source source of pairs of key and robots.txt content
+   * @param consumer consumer of the parsed robots.txt
+   * @return statistics
+   * @throws InterruptedException if interrupted while waiting for the documents to be parsed
+   */
+  public <K> Statistics read(Iterator<? extends Map.Entry<K, byte[]>> source, BiConsumer<? super K, ? super RobotsTxt> consumer) throws InterruptedException {
+    return read(source, consumer, null);
+  }
+
+  /**
+   * Reads all documents from the source.
+   * <p>
+   * This method returns after all the documents have been parsed and
+   * delivered to the consumer.
+   *
+   * @param <K> type of the key
+   * @param source source of pairs of key and robots.txt content
+   * @param consumer consumer of the parsed robots.txt
+   * @param failureConsumer consumer of parsing failures and exceptions thrown by the consumer (might be <code>null</code>)
+   * @return statistics
+   * @throws InterruptedException if interrupted while waiting for the documents to be parsed
+   */
+  public <K> Statistics read(Iterator<? extends Map.Entry<K, byte[]>> source, BiConsumer<? super K, ? super RobotsTxt> consumer, BiConsumer<? super K, ? super Exception> failureConsumer) throws InterruptedException {
+    Semaphore inFlight = new Semaphore(maxInFlight);
+    LongAdder parsed = new LongAdder();
+    LongAdder failed = new LongAdder();
+    LongAdder rejected = new LongAdder();
+    LongAdder bytes = new LongAdder();
+    long start = System.nanoTime();
+
+    try {
+      while (source.hasNext()) {
+        Map.Entry<K, byte[]> entry = source.next();
+        inFlight.acquire();
+        try {
+          executor.execute(() -> {
+            try {
+              process(entry, consumer, failureConsumer, parsed, failed, rejected, bytes);
+            } finally {
+              inFlight.release();
+            }
+          });
+        } catch (RejectedExecutionException ex) {
+          inFlight.release();
+          throw ex;
+        }
+      }
+    } finally {
+      inFlight.acquireUninterruptibly(maxInFlight);
+    }
+
+    return new Statistics(parsed.sum(), failed.sum(), rejected.sum(), bytes.sum(), System.nanoTime() - start);
+  }
+
+  private <K> void process(Map.Entry<K, byte[]> entry, BiConsumer<? super K, ? super RobotsTxt> consumer, BiConsumer<? super K, ? super Exception> failureConsumer, LongAdder parsed, LongAdder failed, LongAdder rejected, LongAdder bytes) {
+    K key = entry.getKey();
+    byte[] content = entry.getValue();
+    RobotsTxt robotsTxt;
+    try {
+      robotsTxt = reader.readRobotsTxt(content != null ? content : new byte[0], scratch.get());
+    } catch (Exception ex) {
+      failed.increment();
+      notifyFailure(key, ex, failureConsumer);
+      return;
+    }
+    bytes.add(content != null ? content.length : 0);
+    parsed.increment();
+    try {
+      consumer.accept(key, robotsTxt);
+    } catch (Exception ex) {
+      rejected.increment();
+      notifyFailure(key, ex, failureConsumer);
+    }
+  }
+
+  private static <K> void notifyFailure(K key, Exception ex, BiConsumer<? super K, ? super Exception> failureConsumer) {
+    if (failureConsumer != null) {
+      failureConsumer.accept(key, ex);
+    }
+  }
+
+  /**
+   * Bulk read statistics.
+   */
+  public static final class Statistics {
+
+    private final long parsed;
+    private final long failed;
+    private final long rejected;
+    private final long bytes;
+    private final long elapsedNanos;
+
+    Statistics(long parsed, long failed, long rejected, long bytes, long elapsedNanos) {
+      this.parsed = parsed;
+      this.failed = failed;
+      this.rejected = rejected;
+      this.bytes = bytes;
+      this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Gets number of successfully parsed documents.
+     * @return number of parsed documents
+     */
+    public long getParsed() {
+      return parsed;
+    }
+
+    /**
+     * Gets number of documents which failed to parse.
+     * @return number of failures
+     */
+    public long getFailed() {
+      return failed;
+    }
+
+    /**
+     * Gets number of parsed documents the consumer threw an exception for.
+     * @return number of rejected documents
+     */
+    public long getRejected() {
+      return rejected;
+    }
+
+    /**
+     * Gets total number of bytes parsed.
+     * @return number of bytes
+     */
+    public long getBytes() {
+      return bytes;
+    }
+
+    /**
+     * Gets elapsed time.
+     * @return elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+      return elapsedNanos;
+    }
+
+    /**
+     * Gets throughput.
+     * @return number of documents parsed per second
+     */
+    public double getDocumentsPerSecond() {
+      return elapsedNanos > 0 ? parsed * 1_000_000_000.0 / elapsedNanos : 0.0;
+    }
+
+    /**
+     * Gets throughput.
+     * @return number of bytes parsed per second
+     */
+    public double getBytesPerSecond() {
+      return elapsedNanos > 0 ? bytes * 1_000_000_000.0 / elapsedNanos : 0.0;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("parsed: %d, failed: %d, rejected: %d, bytes: %d, elapsed: %d ms, docs/s: %.1f", parsed, failed, rejected, bytes, elapsedNanos / 1_000_000, getDocumentsPerSecond());
+    }
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Content-addressed robots.txt cache.
+ * <p>
+ * Identical robots.txt bodies (for example: default templates of popular
+ * platforms) are parsed once and share a single immutable {@link RobotsTxt}
+ * instance. Bodies are identified by 128-bit MurmurHash3 of their content
+ * with line endings normalized; the bodies themselves are not kept.
+ * <p>
+ * Entries are held weakly: an instance stays in the cache as long as
+ * anybody (for example: a per-host cache) refers to it. Instances are
+ * thread-safe.
+ */
+public class RobotsTxtCache {
+
+  private final RobotsTxtReader reader;
+  private final ConcurrentHashMap<ContentHash, Entry> entries = new ConcurrentHashMap<>();
+  private final ReferenceQueue<RobotsTxt> collected = new ReferenceQueue<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Creates instance of the cache using default reader.
+   */
+  public RobotsTxtCache() {
+    this(new RobotsTxtReader());
+  }
+
+  /**
+   * Creates instance of the cache.
+   * <p>
+   * Reader must not be reconfigured once the cache is in use.
+   *
+   * @param reader reader used to parse bodies not found in the cache
+   */
+  public RobotsTxtCache(RobotsTxtReader reader) {
+    if (reader == null) {
+      throw new IllegalArgumentException("Reader must not be null.");
+    }
+    this.reader = reader;
+  }
+
+  /**
+   * Reads robots.txt.
+   *
+   * @param content robots.txt content
+   * @return parsed robots.txt, possibly shared with other identical bodies
+   */
+  public RobotsTxt read(byte[] content) {
+    expunge();
+    ContentHash hash = ContentHash.of(content);
+    MetricsListener metricsListener = Metrics.resolve(reader.getListener());
+
+    Entry entry = entries.get(hash);
+    RobotsTxt robotsTxt = entry != null ? entry.get() : null;
+    if (robotsTxt != null) {
+      hit(metricsListener);
+      return robotsTxt;
+    }
+
+    RobotsTxt parsed = reader.readRobotsTxt(content);
+    Entry fresh = new Entry(hash, parsed, collected);
+    while (true) {
+      entry = entries.putIfAbsent(hash, fresh);
+      if (entry == null) {
+        break;
+      }
+      robotsTxt = entry.get();
+      if (robotsTxt != null) {
+        // parsed concurrently by another thread
+        hit(metricsListener);
+        return robotsTxt;
+      }
+      if (entries.replace(hash, entry, fresh)) {
+        break;
+      }
+    }
+    misses.increment();
+    if (metricsListener != null) {
+      metricsListener.onCacheMiss();
+    }
+    return parsed;
+  }
+
+  /**
+   * Reads robots.txt.
+   *
+   * @param inputStream input stream with robots.txt content
+   * @return parsed robots.txt, possibly shared with other identical bodies
+   * @throws IOException if reading stream fails
+   */
+  public RobotsTxt read(InputStream inputStream) throws IOException {
+    return read(inputStream.readAllBytes());
+  }
+
+  /**
+   * Gets number of reads.
+   *
+   * @return number of reads
+   */
+  public long getRequests() {
+    return hits.sum() + misses.sum();
+  }
+
+  /**
+   * Gets number of reads served from the cache.
+   *
+   * @return number of hits
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Gets number of reads which required parsing.
+   *
+   * @return number of misses
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * Gets deduplication ratio.
+   *
+   * @return average number of reads per parsed body (<code>1.0</code> means
+   * no deduplication)
+   */
+  public double getDedupRatio() {
+    long parsed = misses.sum();
+    return parsed > 0 ? (double) (hits.sum() + parsed) / parsed : 1.0;
+  }
+
+  /**
+   * Gets number of distinct bodies currently cached.
+   *
+   * @return number of entries
+   */
+  public int size() {
+    expunge();
+    return entries.size();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("requests: %d, hits: %d, misses: %d, size: %d, dedup ratio: %.2f", getRequests(), getHits(), getMisses(), size(), getDedupRatio());
+  }
+
+  private void hit(MetricsListener metricsListener) {
+    hits.increment();
+    if (metricsListener != null) {
+      metricsListener.onCacheHit();
+    }
+  }
+
+  /**
+   * Removes entries of collected instances.
+   */
+  private void expunge() {
+    for (Object ref = collected.poll(); ref != null; ref = collected.poll()) {
+      Entry entry = (Entry) ref;
+      entries.remove(entry.hash, entry);
+    }
+  }
+
+  /**
+   * Weak cache entry.
+   */
+  private static final class Entry extends WeakReference<RobotsTxt> {
+
+    private final ContentHash hash;
+
+    Entry(ContentHash hash, RobotsTxt robotsTxt, ReferenceQueue<RobotsTxt> queue) {
+      super(robotsTxt, queue);
+      this.hash = hash;
+    }
+  }
+}
@@ -0,0 +1,561 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Robots.txt filter.
+ * <p>
+ * Processing stage passing through only URLs allowed by robots.txt of their
+ * origins. Robots.txt is obtained from {@link RobotsTxtProvider} once per
+ * origin. URLs of an origin whose robots.txt is still being loaded are
+ * parked without blocking any thread and released as soon as robots.txt is
+ * available, thus URLs of different origins might be reordered.
+ * <p>
+ * No more than <code>maxOrigins</code> loaded robots.txt are kept; the ones
+ * loaded first are evicted first and obtained from the provider again when
+ * needed. Give a caching provider (like {@link RobotsTxtRefresher}) to keep
+ * robots.txt of more origins or to keep them fresh.
+ * <p>
+ * The stage honors demand of the subscriber: no more than requested URLs are
+ * emitted and no more than <code>prefetch</code> URLs are requested from the
+ * upstream ahead of being emitted or dropped. Invalid URLs (without host) are
+ * dropped.
+ * <p>
+ * Use {@link #filter(Stream, RobotsTxtProvider, String)} to filter a stream.
+ */
+public class RobotsTxtFilter implements Flow.Processor<URI, URI> {
+
+  private static final int DEFAULT_PREFETCH = 256;
+  private static final int DEFAULT_MAX_ORIGINS = 4096;
+
+  private final RobotsTxtProvider provider;
+  private final String userAgent;
+  private final int prefetch;
+  private volatile boolean allowOnFailure;
+  private volatile int maxOrigins = DEFAULT_MAX_ORIGINS;
+
+  private final ConcurrentHashMap<String, Origin> origins = new ConcurrentHashMap<>();
+  private final ConcurrentLinkedQueue<Origin> loaded = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger loadedCount = new AtomicInteger();
+  private final ConcurrentLinkedQueue<URI> ready = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger parked = new AtomicInteger();
+  private final AtomicInteger wip = new AtomicInteger();
+  private final AtomicLong requested = new AtomicLong();
+  private final AtomicLong consumed = new AtomicLong();
+  private final AtomicReference<Flow.Subscriber<? super URI>> downstream = new AtomicReference<>();
+
+  private volatile Flow.Subscription upstream;
+  private volatile boolean done;
+  private volatile Throwable error;
+  private volatile boolean cancelled;
+  // accessed only within drain loop
+  private boolean terminated;
+  private boolean upstreamCancelled;
+
+  /**
+   * Creates instance of the filter.
+   *
+   * @param provider robots.txt provider
+   * @param userAgent user agent
+   */
+  public RobotsTxtFilter(RobotsTxtProvider provider, String userAgent) {
+    this(provider, userAgent, DEFAULT_PREFETCH);
+  }
+
+  /**
+   * Creates instance of the filter.
+   *
+   * @param provider robots.txt provider
+   * @param userAgent user agent
+   * @param prefetch maximum number of URLs requested from the upstream ahead
+   * of being emitted or dropped
+   */
+  public RobotsTxtFilter(RobotsTxtProvider provider, String userAgent, int prefetch) {
+    if (provider == null) {
+      throw new IllegalArgumentException("Provider must not be null.");
+    }
+    if (prefetch <= 0) {
+      throw new IllegalArgumentException("Prefetch must be positive.");
+    }
+    this.provider = provider;
+    this.userAgent = userAgent;
+    this.prefetch = prefetch;
+  }
+
+  /**
+   * Checks if URLs are allowed when robots.txt can't be obtained.
+   *
+   * @return <code>true</code> if URLs are allowed
+   */
+  public boolean isAllowOnFailure() {
+    return allowOnFailure;
+  }
+
+  /**
+   * Sets whether URLs are allowed when robots.txt can't be obtained.
+   * <p>
+   * By default URLs of such an origin are dropped. The failure isn't
+   * remembered: only URLs waiting for the failed load are affected and
+   * robots.txt is loaded again for the next URL of the origin.
+   *
+   * @param allowOnFailure <code>true</code> to allow URLs
+   */
+  public void setAllowOnFailure(boolean allowOnFailure) {
+    this.allowOnFailure = allowOnFailure;
+  }
+
+  /**
+   * Sets maximum number of origins whose robots.txt is kept.
+   * <p>
+   * By default robots.txt of up to 4096 origins is kept.
+   *
+   * @param maxOrigins maximum number of origins
+   */
+  public void setMaxOrigins(int maxOrigins) {
+    if (maxOrigins <= 0) {
+      throw new IllegalArgumentException("Maximum number of origins must be positive.");
+    }
+    this.maxOrigins = maxOrigins;
+  }
+
+  /**
+   * Filters stream of URLs.
+   * <p>
+   * Consuming the resulting stream blocks while robots.txt is being loaded.
+   * Closing the resulting stream closes the source stream.
+   *
+   * @param urls URLs
+   * @param provider robots.txt provider
+   * @param userAgent user agent
+   * @return stream of allowed URLs
+   */
+  public static Stream<URI> filter(Stream<URI> urls, RobotsTxtProvider provider, String userAgent) {
+    RobotsTxtFilter filter = new RobotsTxtFilter(provider, userAgent);
+    QueueSpliterator spliterator = new QueueSpliterator(DEFAULT_PREFETCH);
+    filter.subscribe(spliterator);
+    new IteratorPublisher(urls.iterator()).subscribe(filter);
+    return StreamSupport.stream(spliterator, false).onClose(() -> {
+      spliterator.cancel();
+      urls.close();
+    });
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super URI> subscriber) {
+    if (!downstream.compareAndSet(null, subscriber)) {
+      subscriber.onSubscribe(new Flow.Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+      });
+      subscriber.onError(new IllegalStateException("Filter allows only one subscriber."));
+      return;
+    }
+    subscriber.onSubscribe(new Flow.Subscription() {
+      @Override
+      public void request(long n) {
+        if (n <= 0) {
+          error = new IllegalArgumentException("Non-positive request.");
+          done = true;
+          cancelled = true;
+        } else {
+          requested.getAndAccumulate(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+        }
+        drain();
+      }
+
+      @Override
+      public void cancel() {
+        cancelled = true;
+        drain();
+      }
+    });
+    drain();
+  }
+
+  @Override
+  public void onSubscribe(Flow.Subscription subscription) {
+    if (upstream != null) {
+      subscription.cancel();
+      return;
+    }
+    upstream = subscription;
+    subscription.request(prefetch);
+  }
+
+  @Override
+  public void onNext(URI url) {
+    if (done || cancelled) {
+      return;
+    }
+    String key;
+    try {
+      key = PolitenessScheduler.originOf(url);
+    } catch (IllegalArgumentException ex) {
+      consumed.incrementAndGet();
+      drain();
+      return;
+    }
+    Origin origin = origins.computeIfAbsent(key, Origin::new);
+    RobotsTxt robotsTxt = origin.robotsTxt;
+    if (robotsTxt == null) {
+      boolean load = false;
+      synchronized (origin) {
+        robotsTxt = origin.robotsTxt;
+        if (robotsTxt == null) {
+          if (origin.parked == null) {
+            origin.parked = new ArrayList<>();
+            load = true;
+          }
+          origin.parked.add(url);
+          parked.incrementAndGet();
+        }
+      }
+      if (robotsTxt == null) {
+        if (load) {
+          load(origin);
+        }
+        return;
+      }
+    }
+    accept(url, robotsTxt);
+    drain();
+  }
+
+  @Override
+  public void onError(Throwable throwable) {
+    error = throwable;
+    done = true;
+    drain();
+  }
+
+  @Override
+  public void onComplete() {
+    done = true;
+    drain();
+  }
+
+  private void load(Origin origin) {
+    CompletionStage<RobotsTxt> stage;
+    try {
+      stage = provider.get(URI.create(origin.key));
+    } catch (RuntimeException ex) {
+      stage = CompletableFuture.failedFuture(ex);
+    }
+    stage.whenComplete((robotsTxt, ex) -> {
+      if (ex == null && robotsTxt != null) {
+        resolve(origin, robotsTxt);
+      } else {
+        fail(origin);
+      }
+    });
+  }
+
+  private void resolve(Origin origin, RobotsTxt robotsTxt) {
+    List<URI> urls;
+    synchronized (origin) {
+      origin.robotsTxt = robotsTxt;
+      urls = origin.parked;
+      origin.parked = null;
+    }
+    release(urls, robotsTxt);
+    evict(origin);
+    drain();
+  }
+
+  /**
+   * Releases URLs parked by the failed load with the fallback verdict. The
+   * origin is forgotten, thus its next URL loads robots.txt again.
+   */
+  private void fail(Origin origin) {
+    origins.remove(origin.key, origin);
+    List<URI> urls;
+    synchronized (origin) {
+      urls = origin.parked;
+      origin.parked = null;
+    }
+    release(urls, allowOnFailure ? TrivialRobotsTxt.ALLOW_ALL : TrivialRobotsTxt.DISALLOW_ALL);
+    drain();
+  }
+
+  private void release(List<URI> urls, RobotsTxt robotsTxt) {
+    for (URI url : urls) {
+      accept(url, robotsTxt);
+    }
+    parked.addAndGet(-urls.size());
+  }
+
+  /**
+   * Evicts origins loaded first once there are too many of them. Only
+   * origins already loaded are evicted, thus no parked URL is lost.
+   */
+  private void evict(Origin origin) {
+    loaded.offer(origin);
+    if (loadedCount.incrementAndGet() <= maxOrigins) {
+      return;
+    }
+    while (loadedCount.get() > maxOrigins) {
+      Origin eldest = loaded.poll();
+      if (eldest == null) {
+        break;
+      }
+      loadedCount.decrementAndGet();
+      origins.remove(eldest.key, eldest);
+    }
+  }
+
+  private void accept(URI url, RobotsTxt robotsTxt) {
+    if (robotsTxt.query(userAgent, url.toString())) {
+      ready.offer(url);
+    } else {
+      consumed.incrementAndGet();
+    }
+  }
+
+  /**
+   * Emits ready URLs and replenishes upstream.
+   * <p>
+   * Only one thread at a time drains; other threads leave their work to it.
+   */
+  private void drain() {
+    if (wip.getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    do {
+      Flow.Subscriber<? super URI> subscriber = downstream.get();
+      if (cancelled) {
+        ready.clear();
+        Flow.Subscription subscription = upstream;
+        if (subscription != null && !upstreamCancelled) {
+          upstreamCancelled = true;
+          subscription.cancel();
+        }
+        if (subscriber != null && !terminated && error != null) {
+          terminated = true;
+          subscriber.onError(error);
+        }
+      } else if (subscriber != null && !terminated) {
+        long r = requested.get();
+        long e = 0;
+        while (e != r && !cancelled) {
+          URI url = ready.poll();
+          if (url == null) {
+            break;
+          }
+          subscriber.onNext(url);
+          e++;
+        }
+        if (e != 0) {
+          if (r != Long.MAX_VALUE) {
+            requested.addAndGet(-e);
+          }
+          consumed.addAndGet(e);
+        }
+        if (done && parked.get() == 0 && ready.isEmpty()) {
+          terminated = true;
+          Throwable throwable = error;
+          if (throwable != null) {
+            subscriber.onError(throwable);
+          } else {
+            subscriber.onComplete();
+          }
+        }
+      }
+      long c = consumed.getAndSet(0);
+      Flow.Subscription subscription = upstream;
+      if (c > 0 && subscription != null && !done && !cancelled) {
+        subscription.request(c);
+      }
+      missed = wip.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  /**
+   * Origin state.
+   */
+  private static final class Origin {
+
+    private final String key;
+    private volatile RobotsTxt robotsTxt;
+    // guarded by this
+    private List<URI> parked;
+
+    Origin(String key) {
+      this.key = key;
+    }
+  }
+
+  /**
+   * Publisher emitting elements of an iterator on demand.
+   */
+  private static final class IteratorPublisher implements Flow.Publisher<URI> {
+
+    private final Iterator<URI> iterator;
+
+    IteratorPublisher(Iterator<URI> iterator) {
+      this.iterator = iterator;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super URI> subscriber) {
+      AtomicLong demand = new AtomicLong();
+      AtomicInteger emitting = new AtomicInteger();
+      subscriber.onSubscribe(new Flow.Subscription() {
+        private volatile boolean stopped;
+
+        @Override
+        public void request(long n) {
+          demand.getAndAccumulate(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+          if (emitting.getAndIncrement() != 0) {
+            return;
+          }
+          int missed = 1;
+          do {
+            try {
+              while (!stopped && demand.get() > 0) {
+                if (!iterator.hasNext()) {
+                  stopped = true;
+                  subscriber.onComplete();
+                  break;
+                }
+                demand.decrementAndGet();
+                subscriber.onNext(iterator.next());
+              }
+            } catch (RuntimeException ex) {
+              stopped = true;
+              subscriber.onError(ex);
+            }
+            missed = emitting.addAndGet(-missed);
+          } while (missed != 0);
+        }
+
+        @Override
+        public void cancel() {
+          stopped = true;
+        }
+      });
+    }
+  }
+
+  /**
+   * Subscriber exposing received elements as a blocking spliterator.
+   */
+  private static final class QueueSpliterator implements Flow.Subscriber<URI>, Spliterator<URI> {
+
+    private static final Object COMPLETE = new Object();
+
+    private final int batch;
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private volatile Flow.Subscription subscription;
+    private int outstanding;
+
+    QueueSpliterator(int batch) {
+      this.batch = batch;
+    }
+
+    void cancel() {
+      Flow.Subscription s = subscription;
+      if (s != null) {
+        s.cancel();
+      }
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(URI item) {
+      queue.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      queue.add(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      queue.add(COMPLETE);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super URI> action) {
+      if (outstanding == 0 && queue.isEmpty()) {
+        outstanding = batch;
+        subscription.request(batch);
+      }
+      Object next;
+      try {
+        next = queue.take();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for URLs.", ex);
+      }
+      if (next == COMPLETE) {
+        queue.add(COMPLETE);
+        return false;
+      }
+      if (next instanceof Throwable) {
+        queue.add(next);
+        throw next instanceof RuntimeException ? (RuntimeException) next : new IllegalStateException((Throwable) next);
+      }
+      outstanding--;
+      action.accept((URI) next);
+      return true;
+    }
+
+    @Override
+    public Spliterator<URI> trySplit() {
+      return null;
+    }
+
+    @Override
+    public long estimateSize() {
+      return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+      return NONNULL;
+    }
+  }
+}
@@ -19,49 +19,123 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.net.URI;
 import java.net.URL;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * Robots TXT implementation.
+ * <p>
+ * Instances are immutable, thus safe to share between threads without any
+ * synchronization. Use {@link RobotsTxtBuilder} to create an instance.
  */
 class RobotsTxtImpl implements RobotsTxt {
 
-  private Group defaultSection;
-  private final List<Group> groups = new ArrayList<>();
+  private final RuleArena rules;
+  private final Group defaultSection;
+  private final Group[] groups;
+  private final AgentIndex agentIndex;
+  private final Grant defaultGrant;
+  private final Grant defaultVerdict;
+  private final Grant[] verdicts;
 
-  private Integer crawlDelay;
-  private String host;
-  private final List<String> sitemaps = new ArrayList<>();
+  private final String host;
+  private final List<String> sitemaps;
 
   private final MatchingStrategy matchingStrategy;
   private final WinningStrategy winningStrategy;
+  private final MetricsListener listener;
+  private final Profile profile;
+  // retained size without the groups, whose compiled matchers come and go
+  private final long retainedBytes;
 
   /**
    * Creates instance of the RobotsTxt implementation
    *
    * @param matchingStrategy matchingStrategy
    * @param winningStrategy winning strategy
+   * @param listener metrics listener or <code>null</code> to use global listener
+   * @param rules rules of all the groups
+   * @param defaultSection group for any agent or <code>null</code> if none
+   * @param groups groups for specific agents
+   * @param agentIndex index of groups by user agent
+   * @param host host or <code>null</code> if none
+   * @param sitemaps site maps
    */
-  public RobotsTxtImpl(MatchingStrategy matchingStrategy, WinningStrategy winningStrategy) {
+  RobotsTxtImpl(MatchingStrategy matchingStrategy, WinningStrategy winningStrategy, MetricsListener listener,
+          RuleArena rules, Group defaultSection, Group[] groups, AgentIndex agentIndex, String host, List<String> sitemaps) {
     this.matchingStrategy = matchingStrategy;
     this.winningStrategy = winningStrategy;
+    this.listener = listener;
+    this.profile = null;
+    this.rules = rules;
+    this.defaultSection = defaultSection;
+    this.groups = groups.clone();
+    this.agentIndex = agentIndex;
+    this.host = host;
+    this.sitemaps = List.copyOf(sitemaps);
+    this.defaultGrant = new Match(defaultSection, Access.DEFAULT);
+
+    // trivial groups answer with a shared grant when default strategies are used
+    boolean constant = matchingStrategy == MatchingStrategy.DEFAULT && winningStrategy == WinningStrategy.DEFAULT;
+    this.defaultVerdict = constant ? verdictOf(defaultSection) : null;
+    this.verdicts = new Grant[this.groups.length];
+    for (int i = 0; constant && i < verdicts.length; i++) {
+      verdicts[i] = verdictOf(this.groups[i]);
+    }
+    this.retainedBytes = measure();
   }
 
-  @Override
-  public String getHost() {
-    return host;
+  /**
+   * Creates profiled view of another instance.
+   *
+   * @param other another instance
+   * @param profile profile recording queries
+   */
+  private RobotsTxtImpl(RobotsTxtImpl other, Profile profile) {
+    this.matchingStrategy = other.matchingStrategy;
+    this.winningStrategy = other.winningStrategy;
+    this.listener = other.listener;
+    this.profile = profile;
+    this.rules = other.rules;
+    this.defaultSection = other.defaultSection;
+    this.groups = other.groups;
+    this.agentIndex = other.agentIndex;
+    this.host = other.host;
+    this.sitemaps = other.sitemaps;
+    this.defaultGrant = other.defaultGrant;
+    this.defaultVerdict = other.defaultVerdict;
+    this.verdicts = other.verdicts;
+    this.retainedBytes = other.retainedBytes;
   }
 
   /**
-   * Sets host.
+   * Creates view of this instance recording every query in the profile.
+   * <p>
+   * View shares rules and groups with this instance.
    *
-   * @param host host name
+   * @param host host of the robots.txt
+   * @return profiled view
    */
-  public void setHost(String host) {
-    this.host = host;
+  RobotsTxtImpl profile(String host) {
+    return new RobotsTxtImpl(this, new Profile(host, rules));
+  }
+
+  /**
+   * Gets profile.
+   *
+   * @return profile or <code>null</code> if queries are not profiled
+   */
+  Profile getProfile() {
+    return profile;
+  }
+
+  @Override
+  public String getHost() {
+    return host;
   }
 
   @Override
@@ -70,30 +144,21 @@ class RobotsTxtImpl implements RobotsTxt {
   }
 
   /**
-   * Sets crawl delay.
+   * Gets crawl delay.
+   * <p>
+   * Crawl delay is declared per group; use {@link Grant#getCrawlDelay()}.
    *
-   * @param crawlDelay crawl delay.
-   * @deprecated 
+   * @return always <code>null</code>
    */
-  @Deprecated
-  public void setCrawlDelay(Integer crawlDelay) {
-    this.crawlDelay = crawlDelay;
-  }
-
   @Override
   public Integer getCrawlDelay() {
-    return crawlDelay;
+    return null;
   }
 
   @Override
   public List<String> getDisallowList(String userAgent) {
-    Group sec = findSectionByAgent(groups, userAgent, defaultSection);
-    return sec != null
-            ? sec.getAccessList().listAll().stream()
-                    .filter(acc -> !acc.hasAccess())
-                    .map(Access::getClause)
-                    .collect(Collectors.toList())
-            : Collections.emptyList();
+    Group sec = findSectionByAgent(userAgent);
+    return sec != null ? sec.getDisallowList() : Collections.emptyList();
   }
 
   @Override
@@ -104,33 +169,153 @@ class RobotsTxtImpl implements RobotsTxt {
 
   @Override
   public Grant ask(String userAgent, String path) {
-    List<Access> select = select(userAgent, path).stream().collect(Collectors.toList());
-    Access winner = winningStrategy.selectWinner(select);
-    return winner!=null? winner: createDefaultAccess();
+    MetricsListener metricsListener = Metrics.resolve(listener);
+    QueryEvent event = QueryEvent.sample();
+    String relativePath = relativize(path);
+    if (metricsListener == null && event == null && profile == null) {
+      if (relativePath == null) {
+        return createDefaultAccess();
+      }
+      int group = agentIndex.find(userAgent);
+      Group sec = group >= 0 ? groups[group] : defaultSection;
+      Grant verdict = group >= 0 ? verdicts[group] : defaultVerdict;
+      if (verdict != null && sec.isConstantFor(relativePath)) {
+        return verdict;
+      }
+      return selectWinner(sec, relativePath, null);
+    }
+
+    long start = System.nanoTime();
+    Group sec = selectGroup(userAgent, relativePath);
+    List<Access> select = select(sec, relativePath, metricsListener);
+    Grant grant = selectWinner(sec, select);
+    if (metricsListener != null) {
+      metricsListener.onQuery(System.nanoTime() - start, select.size());
+    }
+    if (profile != null) {
+      profile.onQuery(System.nanoTime() - start);
+    }
+    if (event != null) {
+      event.end();
+      event.userAgent = userAgent;
+      event.path = path;
+      event.rules = sec != null ? sec.countRules() : 0;
+      event.matchedRules = select.size();
+      event.allowed = grant.hasAccess();
+      event.commit();
+    }
+    return grant;
+  }
+
+  @Override
+  public Map<String, Grant> askAll(Collection<String> userAgents, String path) {
+    if (Metrics.resolve(listener) != null || QueryEvent.sample() != null || profile != null) {
+      // instrumented queries are reported one by one
+      return RobotsTxt.super.askAll(userAgents, path);
+    }
+
+    Map<String, Grant> grants = new LinkedHashMap<>();
+    String relativePath = relativize(path);
+    String preparedPath = relativePath != null ? matchingStrategy.prepare(relativePath) : null;
+    Map<Group, Grant> groupGrants = new IdentityHashMap<>();
+    byte[] matches = new byte[rules.countClauses()];
+    for (String userAgent : userAgents) {
+      if (grants.containsKey(userAgent)) {
+        continue;
+      }
+      int group = relativePath != null ? agentIndex.find(userAgent) : AgentIndex.NONE;
+      Group sec = relativePath == null ? null : group >= 0 ? groups[group] : defaultSection;
+      Grant verdict = group >= 0 ? verdicts[group] : defaultVerdict;
+      Grant grant;
+      if (sec == null) {
+        grant = createDefaultAccess();
+      } else if (verdict != null && sec.isConstantFor(relativePath)) {
+        grant = verdict;
+      } else {
+        grant = groupGrants.get(sec);
+        if (grant == null) {
+          grant = sec.selectWinner(preparedPath, matchingStrategy, winningStrategy, null, matches);
+          grant = grant != null ? grant : createDefaultAccess();
+          groupGrants.put(sec, grant);
+        }
+      }
+      grants.put(userAgent, grant);
+    }
+    return grants;
   }
 
   /**
-   * Adds section.
+   * Finds group applicable to the user agent.
    *
-   * @param section section
+   * @param userAgent user agent
+   * @return group or <code>null</code> if no group applies
    */
-  public void addGroup(Group section) {
-    if (section != null) {
-      if (section.isAnyAgent()) {
-        if (this.defaultSection == null) {
-          this.defaultSection = section;
-        } else {
-          this.defaultSection.getAccessList().importAccess(section.getAccessList());
-        }
-      } else {
-        Group exact = findExactSection(section);
-        if (exact == null) {
-          groups.add(section);
-        } else {
-          exact.getAccessList().importAccess(section.getAccessList());
-        }
+  Group findGroup(String userAgent) {
+    return findSectionByAgent(userAgent);
+  }
+
+  /**
+   * Gets grant given when no rule matches.
+   *
+   * @return default grant
+   */
+  Grant getDefaultGrant() {
+    return defaultGrant;
+  }
+
+  /**
+   * Checks if queries are answered with the default strategies and without
+   * reporting to metrics listener or profiling.
+   *
+   * @return <code>true</code> if queries are plain
+   */
+  boolean isPlain() {
+    return matchingStrategy == MatchingStrategy.DEFAULT && winningStrategy == WinningStrategy.DEFAULT
+            && Metrics.resolve(listener) == null && profile == null;
+  }
+
+  /**
+   * Counts groups.
+   *
+   * @return number of groups including default group
+   */
+  int countGroups() {
+    return groups.length + (defaultSection != null ? 1 : 0);
+  }
+
+  @Override
+  public Footprint getFootprint() {
+    long bytes = retainedBytes;
+    if (defaultSection != null) {
+      bytes += defaultSection.getRetainedBytes();
+    }
+    for (Group group : groups) {
+      bytes += group.getRetainedBytes();
+    }
+    int groupCount = groups.length + (defaultSection != null ? 1 : 0);
+    return new Footprint(bytes, groupCount, rules.size(), rules.countWildcardRules(), rules.getMaxClauseLength());
+  }
+
+  private long measure() {
+    long bytes = MemoryLayout.object(12, 8)
+            + rules.getRetainedBytes()
+            + agentIndex.getRetainedBytes()
+            + MemoryLayout.references(groups.length)
+            + MemoryLayout.references(verdicts.length)
+            + MemoryLayout.string(host)
+            + MemoryLayout.strings(sitemaps);
+    // grants: default grant and verdicts of trivial groups
+    long grant = MemoryLayout.object(2, 4);
+    bytes += grant;
+    if (defaultVerdict != null) {
+      bytes += grant;
+    }
+    for (Grant verdict : verdicts) {
+      if (verdict != null) {
+        bytes += grant;
       }
     }
+    return bytes;
   }
 
   @Override
@@ -142,7 +327,9 @@ class RobotsTxtImpl implements RobotsTxt {
       pw.println(defaultSection);
     }
 
-    groups.forEach(pw::println);
+    for (Group group : groups) {
+      pw.println(group);
+    }
 
     if (host != null) {
       pw.format("Host: %s", host).println();
@@ -155,72 +342,43 @@ class RobotsTxtImpl implements RobotsTxt {
     return sw.toString();
   }
 
+  private Grant selectWinner(Group sec, String relativePath, byte[] matches) {
+    Grant grant = sec != null ? sec.selectWinner(matchingStrategy.prepare(relativePath), matchingStrategy, winningStrategy, null, matches) : null;
+    return grant != null ? grant : createDefaultAccess();
+  }
+
+  private Grant selectWinner(Group sec, List<Access> candidates) {
+    Access winner = !candidates.isEmpty()? winningStrategy.selectWinner(candidates): null;
+    return winner!=null? new Match(sec, winner): createDefaultAccess();
+  }
+
   /**
-   * Finds exact section.
+   * Makes path relative.
    *
-   * @param section section to find exact
-   * @return exact section or {@code null} if no exact section found
+   * @param path path
+   * @return relative path or {@code null} if path is not subject of robots.txt
    */
-  private Group findExactSection(Group section) {
-    for (Group s : groups) {
-      if (s.isExact(section)) {
-        return s;
-      }
-    }
-    return null;
-  }
-
-  private List<Access> select(String userAgent, String path) {
+  static String relativize(String path) {
     String relativePath = assureRelative(path);
-
-    if (relativePath != null && !"/robots.txt".equalsIgnoreCase(relativePath)) {
-      ArrayList<Access> selected = new ArrayList<>();
-
-      Group sec = findSectionByAgent(groups, userAgent, defaultSection);
-      if (sec != null) {
-        selected.addAll(sec.select(userAgent, relativePath, matchingStrategy));
-      }
-      if (selected.isEmpty()) {
-        selected.add(createDefaultAccess());
-      }
-      return selected;
-    } else {
-      return Collections.EMPTY_LIST;
-    }
+    return relativePath != null && !"/robots.txt".equalsIgnoreCase(relativePath) ? relativePath : null;
   }
 
-  private Group findSectionByAgent(List<Group> sections, String userAgent, Group defaultGroup) {
-    List<Group> candidateGroups = getCandidateGroupsByAgent(sections, userAgent);
-
-    if (candidateGroups.isEmpty()) {
-      return defaultGroup;
-    }
-
-    return findBestMatchingSectionByAgent(candidateGroups, userAgent);
+  private Group selectGroup(String userAgent, String relativePath) {
+    return relativePath != null ? findSectionByAgent(userAgent) : null;
   }
 
-  private List<Group> getCandidateGroupsByAgent(List<Group> sections, String userAgent) {
-    return sections.stream()
-        .filter(sec -> sec.matchUserAgent(userAgent))
-        .collect(Collectors.toList());
+  private List<Access> select(Group sec, String relativePath, MetricsListener metricsListener) {
+    return sec != null
+            ? sec.select(matchingStrategy.prepare(relativePath), matchingStrategy, metricsListener, profile)
+            : Collections.emptyList();
   }
 
-  private Group findBestMatchingSectionByAgent(List<Group> sections, String userAgent) {
-    int longestMatch = 0;
-    Group bestMatch = null;
-    for (Group sec : sections) {
-      for (String agent : sec.getUserAgents()) {
-        int matchLength = StringUtils.greatestCommonPrefix(userAgent, agent).length();
-        if (matchLength > longestMatch) {
-          longestMatch = matchLength;
-          bestMatch = sec;
-        }
-      }
-    }
-    return bestMatch;
+  private Group findSectionByAgent(String userAgent) {
+    int group = agentIndex.find(userAgent);
+    return group >= 0 ? groups[group] : defaultSection;
   }
 
-  private String assureRelative(String path) {
+  private static String assureRelative(String path) {
     try {
       URI uri = new URI(path);
       if (uri.isAbsolute()) {
@@ -233,7 +391,11 @@ class RobotsTxtImpl implements RobotsTxt {
     }
   }
   
-  private Access createDefaultAccess() {
-    return new Access(defaultSection,"","",true);
+  private static Grant verdictOf(Group group) {
+    return group != null && group.getVerdict() != RuleArena.NONE ? new Match(group, group.getVerdict()) : null;
+  }
+
+  private Grant createDefaultAccess() {
+    return defaultGrant;
   }
 }
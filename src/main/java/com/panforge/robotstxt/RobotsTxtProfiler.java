@@ -0,0 +1,260 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Profiler of robots.txt queries.
+ * <p>
+ * Tells which hosts consume the most of matching time and which rules are
+ * responsible for it. Profiling is opt-in per robots.txt: only queries of
+ * the views returned by {@link #profile(String, RobotsTxt)} are recorded;
+ * any other robots.txt is queried without any profiling cost.
+ * <p>
+ * For every rule of a profiled robots.txt, number of match attempts, number
+ * of hits and cumulative matching time are counted; for every host, number
+ * of queries and cumulative query time. Counters are backed by
+ * {@link java.util.concurrent.atomic.LongAdder}, thus profiled robots.txt
+ * might be queried from many threads without contention. Profiled queries
+ * match every rule of the group, thus are slower than regular queries;
+ * grants are the same.
+ * <pre>
+ * RobotsTxtProfiler profiler = new RobotsTxtProfiler();
+ * RobotsTxt robotsTxt = profiler.profile("example.com", RobotsTxt.read(inputStream));
+ * ...
+ * profiler.print(System.out, 10, 5);
+ * </pre>
+ */
+public class RobotsTxtProfiler {
+
+  private final Map<String, Profile> profiles = new ConcurrentHashMap<>();
+
+  /**
+   * Creates profiled view of the robots.txt.
+   * <p>
+   * View answers the same as the robots.txt and records every query. Profiling
+   * the robots.txt of the same host again starts a new profile for the host.
+   * Shared trivial robots.txt (empty, allowing or disallowing everything)
+   * answer without matching, thus are not profiled and returned as is.
+   *
+   * @param host host of the robots.txt
+   * @param robotsTxt robots.txt
+   * @return profiled view of the robots.txt
+   */
+  public RobotsTxt profile(String host, RobotsTxt robotsTxt) {
+    if (host == null) {
+      throw new IllegalArgumentException("Host must not be null.");
+    }
+    if (!(robotsTxt instanceof RobotsTxtImpl)) {
+      return robotsTxt;
+    }
+    RobotsTxtImpl profiled = ((RobotsTxtImpl) robotsTxt).profile(host);
+    profiles.put(host, profiled.getProfile());
+    return profiled;
+  }
+
+  /**
+   * Gets profiles of the hosts.
+   *
+   * @return snapshot of the profiles of the hosts, the most expensive first
+   */
+  public List<HostProfile> getHosts() {
+    List<HostProfile> hosts = new ArrayList<>();
+    for (Profile profile : profiles.values()) {
+      hosts.add(new HostProfile(profile));
+    }
+    hosts.sort(Comparator.comparingLong(HostProfile::getMatchNanos).thenComparingLong(HostProfile::getQueryNanos).reversed());
+    return hosts;
+  }
+
+  /**
+   * Prints ranked report: the most expensive hosts and the most expensive
+   * rules of each of them.
+   *
+   * @param out output stream
+   * @param topHosts maximum number of hosts to print
+   * @param topRules maximum number of rules to print per host
+   */
+  public void print(PrintStream out, int topHosts, int topRules) {
+    List<HostProfile> hosts = getHosts();
+    long total = 0;
+    for (HostProfile host : hosts) {
+      total += host.getMatchNanos();
+    }
+    out.printf(Locale.ROOT, "hosts: %d, matching: %.3f ms%n", hosts.size(), total / 1e6);
+    for (HostProfile host : hosts.subList(0, Math.min(topHosts, hosts.size()))) {
+      out.printf(Locale.ROOT, "%-40s queries: %8d, query: %9.3f ms, matching: %9.3f ms (%.1f%%)%n",
+              host.getHost(), host.getQueries(), host.getQueryNanos() / 1e6, host.getMatchNanos() / 1e6,
+              total > 0 ? host.getMatchNanos() * 100.0 / total : 0.0);
+      for (RuleProfile rule : host.getRules().subList(0, Math.min(topRules, host.getRules().size()))) {
+        out.printf(Locale.ROOT, "  %-50s attempts: %8d, hits: %8d, matching: %9.3f ms%n",
+                rule.getRule(), rule.getAttempts(), rule.getHits(), rule.getMatchNanos() / 1e6);
+      }
+    }
+  }
+
+  /**
+   * Resets counters of all the hosts.
+   */
+  public void reset() {
+    profiles.values().forEach(Profile::reset);
+  }
+
+  /**
+   * Stops profiling all the hosts. Profiled views keep recording queries,
+   * but are no longer reported.
+   */
+  public void clear() {
+    profiles.clear();
+  }
+
+  /**
+   * Profile of a single host.
+   */
+  public static final class HostProfile {
+
+    private final String host;
+    private final long queries;
+    private final long queryNanos;
+    private final long matchNanos;
+    private final List<RuleProfile> rules;
+
+    HostProfile(Profile profile) {
+      this.host = profile.getHost();
+      this.queries = profile.getQueries();
+      this.queryNanos = profile.getQueryNanos();
+      this.matchNanos = profile.getMatchNanos();
+      RuleArena arena = profile.getRules();
+      List<RuleProfile> list = new ArrayList<>();
+      for (int rule = 0; rule < arena.size(); rule++) {
+        long attempts = profile.getAttempts(rule);
+        if (attempts > 0) {
+          list.add(new RuleProfile(arena.getSource(rule), attempts, profile.getHits(rule), profile.getNanos(rule)));
+        }
+      }
+      list.sort(Comparator.comparingLong(RuleProfile::getMatchNanos).reversed());
+      this.rules = Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Gets host.
+     * @return host
+     */
+    public String getHost() {
+      return host;
+    }
+
+    /**
+     * Gets number of queries.
+     * @return number of queries
+     */
+    public long getQueries() {
+      return queries;
+    }
+
+    /**
+     * Gets total query time.
+     * @return time in nanoseconds
+     */
+    public long getQueryNanos() {
+      return queryNanos;
+    }
+
+    /**
+     * Gets total time of matching rules.
+     * @return time in nanoseconds
+     */
+    public long getMatchNanos() {
+      return matchNanos;
+    }
+
+    /**
+     * Gets profiles of the rules attempted at least once.
+     * @return profiles of the rules, the most expensive first
+     */
+    public List<RuleProfile> getRules() {
+      return rules;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(Locale.ROOT, "%s: queries: %d, query: %d ns, matching: %d ns", host, queries, queryNanos, matchNanos);
+    }
+  }
+
+  /**
+   * Profile of a single rule.
+   */
+  public static final class RuleProfile {
+
+    private final String rule;
+    private final long attempts;
+    private final long hits;
+    private final long matchNanos;
+
+    RuleProfile(String rule, long attempts, long hits, long matchNanos) {
+      this.rule = rule;
+      this.attempts = attempts;
+      this.hits = hits;
+      this.matchNanos = matchNanos;
+    }
+
+    /**
+     * Gets rule.
+     * @return rule as declared in robots.txt
+     */
+    public String getRule() {
+      return rule;
+    }
+
+    /**
+     * Gets number of attempts to match the rule.
+     * @return number of attempts
+     */
+    public long getAttempts() {
+      return attempts;
+    }
+
+    /**
+     * Gets number of paths matching the rule.
+     * @return number of hits
+     */
+    public long getHits() {
+      return hits;
+    }
+
+    /**
+     * Gets total time of matching the rule.
+     * @return time in nanoseconds
+     */
+    public long getMatchNanos() {
+      return matchNanos;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(Locale.ROOT, "%s: attempts: %d, hits: %d, matching: %d ns", rule, attempts, hits, matchNanos);
+    }
+  }
+}
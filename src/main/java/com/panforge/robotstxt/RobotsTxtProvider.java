@@ -0,0 +1,38 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.net.URI;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Provider of robots.txt.
+ * <p>
+ * Loads robots.txt of an origin asynchronously, for example: by fetching
+ * <code>/robots.txt</code> with a non-blocking HTTP client.
+ */
+@FunctionalInterface
+public interface RobotsTxtProvider {
+
+  /**
+   * Gets robots.txt of the origin.
+   *
+   * @param origin origin (scheme, host and port)
+   * @return stage completed with robots.txt; stage completed exceptionally
+   * or with <code>null</code> means robots.txt couldn't be obtained
+   */
+  CompletionStage<RobotsTxt> get(URI origin);
+}
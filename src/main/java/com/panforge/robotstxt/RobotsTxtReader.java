@@ -17,18 +17,35 @@ package com.panforge.robotstxt;
 
 import static com.panforge.robotstxt.URLDecoder.decode;
 import java.io.BufferedReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Robots.txt reader.
+ * <p>
+ * Use {@link RobotsTxt#read(java.io.InputStream)} to read robots.txt with
+ * default settings.
  */
-class RobotsTxtReader {
+public class RobotsTxtReader {
 
   private final MatchingStrategy matchingStrategy;
   private final WinningStrategy winningStrategy;
+  private MetricsListener listener;
+  private List<String> targetAgents = Collections.emptyList();
+  private int compileThreshold = -1;
+  private boolean optimize;
 
   /**
    * Creates instance of the robots.txt reader with default strategies.
@@ -43,11 +60,114 @@ class RobotsTxtReader {
    * @param matchingStrategy
    * @param winningStrategy
    */
-  public RobotsTxtReader(MatchingStrategy matchingStrategy, WinningStrategy winningStrategy) {
+  RobotsTxtReader(MatchingStrategy matchingStrategy, WinningStrategy winningStrategy) {
     this.matchingStrategy = matchingStrategy;
     this.winningStrategy = winningStrategy;
   }
 
+  /**
+   * Gets metrics listener.
+   *
+   * @return metrics listener or <code>null</code> if no listener set
+   */
+  public MetricsListener getListener() {
+    return listener;
+  }
+
+  /**
+   * Sets metrics listener.
+   * <p>
+   * Listener receives events from parsing and from querying robots.txt
+   * parsed by this reader. If no listener is set, the global listener is used
+   * (see {@link Metrics#setGlobalListener}).
+   *
+   * @param listener metrics listener or <code>null</code> to remove listener
+   */
+  public void setListener(MetricsListener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Gets target user agents.
+   *
+   * @return target user agents (empty if all groups are kept)
+   */
+  public List<String> getTargetAgents() {
+    return targetAgents;
+  }
+
+  /**
+   * Sets target user agents.
+   * <p>
+   * When set, only groups which might be applicable for any of the target
+   * user agents are kept, together with the group for all the agents
+   * (<code>*</code>). Queries for the target user agents give the same
+   * results as without the setting; queries for any other user agent fall
+   * back to the <code>*</code> group.
+   *
+   * @param userAgents target user agents or <code>null</code> to keep all groups
+   */
+  public void setTargetAgents(Collection<String> userAgents) {
+    this.targetAgents = userAgents != null
+            ? Collections.unmodifiableList(new ArrayList<>(userAgents))
+            : Collections.emptyList();
+  }
+
+  /**
+   * Gets compile threshold.
+   *
+   * @return number of queries after which rules of a group are compiled or
+   * negative number if rules are never compiled
+   */
+  public int getCompileThreshold() {
+    return compileThreshold;
+  }
+
+  /**
+   * Sets compile threshold.
+   * <p>
+   * Rules of a group queried more than the given number of times are
+   * compiled into a matcher dedicated to them: clauses without wildcards are
+   * merged into a trie walked once per path and clauses with wildcards are
+   * split into segments upfront. Compiling pays off for robots.txt queried
+   * many times, for example: of the most frequently crawled hosts. Compiled
+   * matchers give the same results as interpreted matching. By default rules
+   * are never compiled.
+   *
+   * @param compileThreshold number of queries (<code>0</code> to compile
+   * with the first query) or negative number to never compile
+   */
+  public void setCompileThreshold(int compileThreshold) {
+    this.compileThreshold = compileThreshold;
+  }
+
+  /**
+   * Checks if rules are optimized.
+   *
+   * @return <code>true</code> if rules which never win are removed
+   */
+  public boolean isOptimize() {
+    return optimize;
+  }
+
+  /**
+   * Sets rules optimization.
+   * <p>
+   * When set, rules which never win are removed from the parsed groups:
+   * duplicates, rules covered by a broader or equal rule outranking them and
+   * <code>Allow</code> rules covered by a longer <code>Disallow</code> rule.
+   * Grants remain identical while less rules are kept in memory and matched
+   * per query; however {@link RobotsTxt#getDisallowList(String)} and the
+   * string representation reflect the remaining rules only. Number of
+   * the removed rules is reported with {@link MetricsListener#onOptimize(int)}.
+   * Applies to the default strategies only. Disabled by default.
+   *
+   * @param optimize <code>true</code> to remove rules which never win
+   */
+  public void setOptimize(boolean optimize) {
+    this.optimize = optimize;
+  }
+
   /**
    * Reads robots txt.
    *
@@ -56,21 +176,101 @@ class RobotsTxtReader {
    * @throws IOException if reading stream fails
    */
   public RobotsTxt readRobotsTxt(InputStream inputStream) throws IOException {
-    BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
-    Group currentGroup = null;
+    MetricsListener metricsListener = Metrics.resolve(listener);
+    ParseEvent event = new ParseEvent();
+    if (metricsListener == null && !event.isEnabled()) {
+      BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+      return readRobotsTxt(reader::readLine).build();
+    }
+
+    long start = System.nanoTime();
+    event.begin();
+    CountingInputStream countingStream = new CountingInputStream(inputStream);
+    BufferedReader reader = new BufferedReader(new InputStreamReader(countingStream, StandardCharsets.UTF_8));
+    RobotsTxtBuilder robots = readRobotsTxt(reader::readLine);
+    notifyParsed(metricsListener, event, robots, start, countingStream.count);
+    return robots.build();
+  }
+
+  /**
+   * Reads robots txt from the content already loaded into memory.
+   *
+   * @param content robots.txt content
+   * @return parsed robots.txt
+   */
+  public RobotsTxt readRobotsTxt(byte[] content) {
+    return readRobotsTxt(content, new Scratch());
+  }
+
+  /**
+   * Reads robots txt from the content already loaded into memory reusing
+   * scratch buffers.
+   *
+   * @param content robots.txt content
+   * @param scratch scratch buffers; must not be shared between threads
+   * @return parsed robots.txt
+   */
+  RobotsTxt readRobotsTxt(byte[] content, Scratch scratch) {
+    MetricsListener metricsListener = Metrics.resolve(listener);
+    ParseEvent event = new ParseEvent();
+    boolean notify = metricsListener != null || event.isEnabled();
+    long start = notify ? System.nanoTime() : 0L;
+    event.begin();
+    try {
+      RobotsTxtBuilder robots = readRobotsTxt(scratch.decode(content));
+      if (notify) {
+        notifyParsed(metricsListener, event, robots, start, content.length);
+      }
+      return robots.build();
+    } catch (IOException ex) {
+      // decoding in memory content never fails with I/O error
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private void notifyParsed(MetricsListener metricsListener, ParseEvent event, RobotsTxtBuilder robots, long start, long bytes) {
+    long nanos = System.nanoTime() - start;
+    int groups = robots.countGroups();
+    int rules = robots.countRules();
+    if (metricsListener != null) {
+      metricsListener.onParse(nanos, bytes, groups, rules);
+      if (optimize) {
+        metricsListener.onOptimize(robots.countRemovedRules());
+      }
+    }
+    if (event.isEnabled()) {
+      event.end();
+      event.bytes = bytes;
+      event.groups = groups;
+      event.rules = rules;
+      event.removedRules = robots.countRemovedRules();
+      event.commit();
+    }
+  }
+
+  /**
+   * Reads robots txt from the line source.
+   *
+   * @param lines source of lines
+   * @return builder with parsed robots.txt
+   * @throws IOException if reading lines fails
+   */
+  private RobotsTxtBuilder readRobotsTxt(LineSource lines) throws IOException {
+    Section currentGroup = null;
     boolean startGroup = false;
-    RobotsTxtImpl robots = new RobotsTxtImpl(matchingStrategy, winningStrategy);
+    RobotsTxtBuilder robots = new RobotsTxtBuilder(matchingStrategy, winningStrategy, listener);
+    robots.setCompileThreshold(compileThreshold);
 
-    for (Entry entry = readEntry(reader); entry != null; entry = readEntry(reader)) {
+    for (Entry entry = readEntry(lines); entry != null; entry = readEntry(lines)) {
       switch (entry.getKey().toUpperCase()) {
         case "USER-AGENT":
           if (!startGroup && currentGroup != null) {
-            robots.addGroup(currentGroup);
+            robots.addSection(currentGroup, isTarget(currentGroup));
             currentGroup = null;
           }
 
           if (currentGroup == null) {
-            currentGroup = new Group();
+            currentGroup = new Section();
           }
 
           currentGroup.addUserAgent(entry.getValue());
@@ -80,7 +280,7 @@ class RobotsTxtReader {
         case "DISALLOW":
           if (currentGroup != null) {
             boolean access = entry.getValue().isEmpty();
-            currentGroup.addAccess(new Access(currentGroup, entry.getSource(), entry.getValue(), access));
+            currentGroup.addAccess(new Access(entry.getSource(), entry.getValue(), entry.getRawValue(), access));
             startGroup = false;
           }
           break;
@@ -88,7 +288,7 @@ class RobotsTxtReader {
         case "ALLOW":
           if (currentGroup != null) {
             boolean access = !entry.getValue().isEmpty();
-            currentGroup.addAccess(new Access(currentGroup, entry.getSource(), entry.getValue(), access));
+            currentGroup.addAccess(new Access(entry.getSource(), entry.getValue(), entry.getRawValue(), access));
             startGroup = false;
           }
           break;
@@ -110,7 +310,7 @@ class RobotsTxtReader {
           break;
 
         case "SITEMAP":
-          robots.getSitemaps().add(entry.getValue());
+          robots.addSitemap(entry.getValue());
           startGroup = false;
           break;
 
@@ -121,20 +321,42 @@ class RobotsTxtReader {
     }
 
     if (currentGroup != null) {
-      robots.addGroup(currentGroup);
+      robots.addSection(currentGroup, isTarget(currentGroup));
+    }
+
+    if (optimize) {
+      robots.optimize();
     }
 
     return robots;
   }
 
+  /**
+   * Checks if section might be applicable for any of the target user agents.
+   *
+   * @param group section
+   * @return <code>true</code> if section should be kept
+   */
+  private boolean isTarget(Section group) {
+    if (targetAgents.isEmpty() || group.isAnyAgent()) {
+      return true;
+    }
+    for (String userAgent : targetAgents) {
+      if (userAgent != null && AgentIndex.isApplicable(group.getUserAgents(), userAgent)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Reads next entry from the reader.
    *
    * @return entry or <code>null</code> if no more data in the stream
    * @throws IOException if reading from stream fails
    */
-  private Entry readEntry(BufferedReader reader) throws IOException {
-    for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+  private Entry readEntry(LineSource lines) throws IOException {
+    for (String line = lines.readLine(); line != null; line = lines.readLine()) {
       Entry entry = parseEntry(line);
       if (entry != null) {
         return entry;
@@ -173,9 +395,132 @@ class RobotsTxtReader {
 
     String value = StringUtils.trimToEmpty(hashIndex >= 0 ? rest.substring(0, hashIndex) : rest);
 
-    value = decode(value);
+    return new Entry(line, key, decode(value), value);
+  }
+
+  /**
+   * Input stream counting bytes read.
+   */
+  private static final class CountingInputStream extends FilterInputStream {
+
+    private long count;
+
+    public CountingInputStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b >= 0) {
+        count++;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int n = super.read(b, off, len);
+      if (n > 0) {
+        count += n;
+      }
+      return n;
+    }
 
-    return new Entry(line, key, value);
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = super.skip(n);
+      count += skipped;
+      return skipped;
+    }
+  }
+
+  /**
+   * Source of lines.
+   */
+  @FunctionalInterface
+  private interface LineSource {
+
+    /**
+     * Reads next line.
+     *
+     * @return line or <code>null</code> if no more lines
+     * @throws IOException if reading fails
+     */
+    String readLine() throws IOException;
+  }
+
+  /**
+   * Reusable decoding buffers.
+   * <p>
+   * Holds UTF-8 decoder and character buffer between subsequent reads, thus
+   * parsing large number of files doesn't allocate new decoding machinery for
+   * each of them. An instance must be confined to a single thread.
+   */
+  static final class Scratch {
+
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private CharBuffer chars = CharBuffer.allocate(4096);
+
+    /**
+     * Decodes content into the internal buffer.
+     *
+     * @param content content
+     * @return line source reading decoded characters
+     */
+    LineSource decode(byte[] content) {
+      int required = (int) Math.ceil(content.length * (double) decoder.maxCharsPerByte());
+      if (chars.capacity() < required) {
+        chars = CharBuffer.allocate(required);
+      }
+      chars.clear();
+      decoder.reset();
+      ByteBuffer bytes = ByteBuffer.wrap(content);
+      CoderResult result = decoder.decode(bytes, chars, true);
+      if (!result.isOverflow()) {
+        decoder.flush(chars);
+      }
+      chars.flip();
+      return new CharBufferLines(chars.array(), chars.limit());
+    }
+  }
+
+  /**
+   * Line source over decoded characters.
+   * <p>
+   * Recognizes the same line terminators as {@link BufferedReader#readLine()}.
+   */
+  private static final class CharBufferLines implements LineSource {
+
+    private final char[] chars;
+    private final int limit;
+    private int position;
+
+    public CharBufferLines(char[] chars, int limit) {
+      this.chars = chars;
+      this.limit = limit;
+    }
+
+    @Override
+    public String readLine() {
+      if (position >= limit) {
+        return null;
+      }
+      int start = position;
+      while (position < limit && chars[position] != '\n' && chars[position] != '\r') {
+        position++;
+      }
+      String line = new String(chars, start, position - start);
+      if (position < limit && chars[position] == '\r') {
+        position++;
+      }
+      if (position < limit && chars[position] == '\n') {
+        position++;
+      }
+      return line;
+    }
   }
 
   /**
@@ -186,11 +531,13 @@ class RobotsTxtReader {
     private final String source;
     private final String key;
     private final String value;
+    private final String rawValue;
 
-    public Entry(String source, String key, String value) {
+    public Entry(String source, String key, String value, String rawValue) {
       this.source = source;
       this.key = key;
       this.value = value;
+      this.rawValue = rawValue;
     }
 
     public String getKey() {
@@ -201,6 +548,10 @@ class RobotsTxtReader {
       return value;
     }
 
+    public String getRawValue() {
+      return rawValue;
+    }
+
     public String getSource() {
       return source;
     }
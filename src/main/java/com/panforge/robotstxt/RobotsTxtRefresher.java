@@ -0,0 +1,436 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Refresh-ahead cache of robots.txt.
+ * <p>
+ * Keeps robots.txt obtained from another {@link RobotsTxtProvider} for the
+ * time to live. Robots.txt of an origin which is asked for within the
+ * refresh-ahead window before it expires is revalidated in background while
+ * the current one is still served; the new one replaces it atomically once
+ * loaded. Thus origins asked for regularly never wait for robots.txt to be
+ * downloaded and parsed again. Only robots.txt missing or already expired is
+ * waited for.
+ * <p>
+ * The refresh time of each origin is moved earlier by a jitter derived from
+ * the origin, so origins loaded together are not revalidated together. No
+ * more than the maximum number of revalidations run at once; an origin which
+ * can't be revalidated right away is revalidated with a later request. A
+ * failed revalidation keeps the current robots.txt until it expires and is
+ * retried half way to the expiry.
+ * <p>
+ * Call {@link #refreshDue()} periodically (for example: from a
+ * {@link java.util.concurrent.ScheduledExecutorService}) to revalidate
+ * origins asked for since they were loaded even if not asked for lately,
+ * and to evict expired robots.txt.
+ * <p>
+ * Being a provider itself, the refresher might be given to
+ * {@link RobotsTxtFilter} or {@link RobotsTxtServer}. Instances are
+ * thread-safe.
+ */
+public class RobotsTxtRefresher implements RobotsTxtProvider, AutoCloseable {
+
+  private static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofHours(24);
+  private static final Duration DEFAULT_REFRESH_AHEAD = Duration.ofHours(1);
+  private static final Duration DEFAULT_JITTER = Duration.ofMinutes(10);
+  private static final int DEFAULT_MAX_CONCURRENCY = 4;
+
+  private final RobotsTxtProvider provider;
+  private final Clock clock;
+  private final ConcurrentHashMap<String, Origin> origins = new ConcurrentHashMap<>();
+  private final AtomicInteger revalidating = new AtomicInteger();
+  private final LongAdder refreshes = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private volatile long timeToLive = DEFAULT_TIME_TO_LIVE.toMillis();
+  private volatile long refreshAhead = DEFAULT_REFRESH_AHEAD.toMillis();
+  private volatile long jitter = DEFAULT_JITTER.toMillis();
+  private volatile int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+  private volatile boolean closed;
+  private Executor executor;
+  private ExecutorService ownExecutor;
+
+  /**
+   * Creates instance of the refresher using system clock.
+   *
+   * @param provider provider loading robots.txt
+   */
+  public RobotsTxtRefresher(RobotsTxtProvider provider) {
+    this(provider, Clock.systemUTC());
+  }
+
+  /**
+   * Creates instance of the refresher.
+   *
+   * @param provider provider loading robots.txt
+   * @param clock clock
+   */
+  public RobotsTxtRefresher(RobotsTxtProvider provider, Clock clock) {
+    if (provider == null) {
+      throw new IllegalArgumentException("Provider must not be null.");
+    }
+    if (clock == null) {
+      throw new IllegalArgumentException("Clock must not be null.");
+    }
+    this.provider = provider;
+    this.clock = clock;
+  }
+
+  /**
+   * Sets time to live.
+   * <p>
+   * By default robots.txt is kept for 24 hours. Time to live must be longer
+   * than refresh-ahead window and jitter together; set them first when
+   * shortening time to live below an hour and ten minutes.
+   *
+   * @param timeToLive time robots.txt is kept after being loaded
+   */
+  public void setTimeToLive(Duration timeToLive) {
+    if (timeToLive == null || timeToLive.isNegative() || timeToLive.isZero()) {
+      throw new IllegalArgumentException("Time to live must be positive.");
+    }
+    checkRefreshWindow(timeToLive.toMillis(), refreshAhead, jitter);
+    this.timeToLive = timeToLive.toMillis();
+  }
+
+  /**
+   * Sets refresh-ahead window.
+   * <p>
+   * By default robots.txt is revalidated within an hour before it expires.
+   *
+   * @param refreshAhead time before expiry from which robots.txt is revalidated
+   */
+  public void setRefreshAhead(Duration refreshAhead) {
+    if (refreshAhead == null || refreshAhead.isNegative()) {
+      throw new IllegalArgumentException("Refresh ahead must not be negative.");
+    }
+    checkRefreshWindow(timeToLive, refreshAhead.toMillis(), jitter);
+    this.refreshAhead = refreshAhead.toMillis();
+  }
+
+  /**
+   * Sets maximum jitter.
+   * <p>
+   * By default refresh time of an origin is moved earlier by up to 10
+   * minutes.
+   *
+   * @param jitter maximum time refresh of an origin is moved earlier by
+   */
+  public void setJitter(Duration jitter) {
+    if (jitter == null || jitter.isNegative()) {
+      throw new IllegalArgumentException("Jitter must not be negative.");
+    }
+    checkRefreshWindow(timeToLive, refreshAhead, jitter.toMillis());
+    this.jitter = jitter.toMillis();
+  }
+
+  /**
+   * Checks that robots.txt is served for a while before being revalidated;
+   * otherwise every request would revalidate it.
+   */
+  private static void checkRefreshWindow(long timeToLive, long refreshAhead, long jitter) {
+    if (refreshAhead + jitter >= timeToLive) {
+      throw new IllegalArgumentException("Refresh ahead and jitter must be shorter than time to live.");
+    }
+  }
+
+  /**
+   * Sets maximum number of revalidations running at once.
+   * <p>
+   * By default up to 4 origins are revalidated at once.
+   *
+   * @param maxConcurrency maximum number of revalidations
+   */
+  public void setMaxConcurrency(int maxConcurrency) {
+    if (maxConcurrency <= 0) {
+      throw new IllegalArgumentException("Maximum concurrency must be positive.");
+    }
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  /**
+   * Sets executor starting revalidations.
+   * <p>
+   * By default threads of an own pool are used; no more of them are busy
+   * than the maximum number of revalidations.
+   *
+   * @param executor executor
+   */
+  public synchronized void setExecutor(Executor executor) {
+    this.executor = executor;
+  }
+
+  @Override
+  public CompletionStage<RobotsTxt> get(URI origin) {
+    String key = PolitenessScheduler.originOf(origin);
+    Origin entry = origins.computeIfAbsent(key, Origin::new);
+    long now = clock.millis();
+    Loaded loaded = entry.loaded;
+    if (loaded != null && now < loaded.expiresAt) {
+      entry.asked = true;
+      if (now >= loaded.refreshAt) {
+        revalidate(entry, loaded);
+      }
+      return CompletableFuture.completedFuture(loaded.robotsTxt);
+    }
+    return load(entry);
+  }
+
+  /**
+   * Revalidates robots.txt due for refresh.
+   * <p>
+   * Robots.txt within the refresh-ahead window is revalidated if it has
+   * been asked for since loaded. Expired robots.txt is evicted, as are
+   * origins whose robots.txt has never been loaded; unless being loaded.
+   * Robots.txt of an evicted origin is loaded again once asked for.
+   *
+   * @return number of revalidations started
+   */
+  public int refreshDue() {
+    long now = clock.millis();
+    int started = 0;
+    for (Map.Entry<String, Origin> e : origins.entrySet()) {
+      Origin entry = e.getValue();
+      Loaded loaded = entry.loaded;
+      if (loaded == null || now >= loaded.expiresAt) {
+        if (entry.evictIfIdle()) {
+          origins.remove(e.getKey(), entry);
+        }
+      } else if (now >= loaded.refreshAt && entry.asked && revalidate(entry, loaded)) {
+        started++;
+      }
+    }
+    return started;
+  }
+
+  /**
+   * Removes robots.txt of the origin.
+   *
+   * @param origin origin
+   */
+  public void invalidate(URI origin) {
+    origins.remove(PolitenessScheduler.originOf(origin));
+  }
+
+  /**
+   * Gets number of cached origins.
+   *
+   * @return number of origins
+   */
+  public int size() {
+    return origins.size();
+  }
+
+  /**
+   * Gets number of successful revalidations.
+   *
+   * @return number of revalidations
+   */
+  public long getRefreshCount() {
+    return refreshes.sum();
+  }
+
+  /**
+   * Gets number of failed loads and revalidations.
+   *
+   * @return number of failures
+   */
+  public long getFailureCount() {
+    return failures.sum();
+  }
+
+  /**
+   * Stops revalidating. Robots.txt loaded so far is still served and
+   * missing or expired robots.txt is still loaded when asked for.
+   */
+  @Override
+  public synchronized void close() {
+    closed = true;
+    if (ownExecutor != null) {
+      ownExecutor.shutdown();
+      ownExecutor = null;
+    }
+  }
+
+  /**
+   * Loads robots.txt of the origin in the calling thread, unless already being loaded.
+   */
+  private CompletableFuture<RobotsTxt> load(Origin entry) {
+    CompletableFuture<RobotsTxt> future;
+    synchronized (entry) {
+      if (entry.pending != null) {
+        return entry.pending;
+      }
+      future = new CompletableFuture<>();
+      entry.pending = future;
+    }
+    fetch(entry, future, false);
+    return future;
+  }
+
+  /**
+   * Starts revalidation of robots.txt of the origin in background.
+   *
+   * @return <code>true</code> if revalidation has been started
+   */
+  private boolean revalidate(Origin entry, Loaded loaded) {
+    if (closed) {
+      return false;
+    }
+    CompletableFuture<RobotsTxt> future;
+    synchronized (entry) {
+      if (entry.loaded != loaded || entry.pending != null || !tryAcquire()) {
+        return false;
+      }
+      future = new CompletableFuture<>();
+      entry.pending = future;
+    }
+    future.whenComplete((robotsTxt, ex) -> revalidating.decrementAndGet());
+    try {
+      executor().execute(() -> fetch(entry, future, true));
+      return true;
+    } catch (RejectedExecutionException ex) {
+      complete(entry, future, null, ex, true);
+      return false;
+    }
+  }
+
+  private boolean tryAcquire() {
+    for (int current = revalidating.get(); current < maxConcurrency; current = revalidating.get()) {
+      if (revalidating.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void fetch(Origin entry, CompletableFuture<RobotsTxt> future, boolean revalidation) {
+    try {
+      provider.get(URI.create(entry.origin)).whenComplete((robotsTxt, ex) -> complete(entry, future, robotsTxt, ex, revalidation));
+    } catch (RuntimeException ex) {
+      complete(entry, future, null, ex, revalidation);
+    }
+  }
+
+  private void complete(Origin entry, CompletableFuture<RobotsTxt> future, RobotsTxt robotsTxt, Throwable ex, boolean revalidation) {
+    long now = clock.millis();
+    boolean unloaded;
+    synchronized (entry) {
+      Loaded loaded = entry.loaded;
+      unloaded = loaded == null;
+      if (ex == null && robotsTxt != null) {
+        long expiresAt = now + timeToLive;
+        long refreshAt = Math.max(now, expiresAt - refreshAhead - jitterOf(entry.origin));
+        entry.loaded = new Loaded(robotsTxt, refreshAt, expiresAt);
+        entry.asked = false;
+      } else {
+        if (loaded != null && now < loaded.expiresAt) {
+          // keep serving current robots.txt; retry half way to the expiry
+          entry.loaded = new Loaded(loaded.robotsTxt, now + (loaded.expiresAt - now) / 2, loaded.expiresAt);
+        }
+      }
+      entry.pending = null;
+    }
+    if (unloaded && (ex != null || robotsTxt == null)) {
+      // nothing to serve; failed load must not leave the origin behind
+      origins.remove(entry.origin, entry);
+    }
+    if (ex == null && robotsTxt != null) {
+      if (revalidation) {
+        refreshes.increment();
+      }
+      future.complete(robotsTxt);
+    } else {
+      failures.increment();
+      future.completeExceptionally(ex != null ? ex : new IllegalStateException("No robots.txt."));
+    }
+  }
+
+  /**
+   * Gets jitter of the origin: the same origin is always given the same jitter.
+   */
+  private long jitterOf(String origin) {
+    long maxJitter = jitter;
+    return maxJitter > 0 ? Long.remainderUnsigned(origin.hashCode() * 0x9E3779B97F4A7C15L, maxJitter + 1) : 0;
+  }
+
+  private synchronized Executor executor() {
+    if (executor != null) {
+      return executor;
+    }
+    if (ownExecutor == null) {
+      if (closed) {
+        throw new RejectedExecutionException("Refresher closed.");
+      }
+      // number of busy threads is bounded by the number of revalidations
+      ownExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "robots-txt-refresher");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return ownExecutor;
+  }
+
+  /**
+   * Robots.txt of an origin.
+   */
+  private static final class Origin {
+
+    private final String origin;
+    private volatile Loaded loaded;
+    private volatile boolean asked;
+    private CompletableFuture<RobotsTxt> pending;
+
+    Origin(String origin) {
+      this.origin = origin;
+    }
+
+    synchronized boolean evictIfIdle() {
+      return pending == null;
+    }
+  }
+
+  /**
+   * Loaded robots.txt; replaced as a whole.
+   */
+  private static final class Loaded {
+
+    private final RobotsTxt robotsTxt;
+    private final long refreshAt;
+    private final long expiresAt;
+
+    Loaded(RobotsTxt robotsTxt, long refreshAt, long expiresAt) {
+      this.robotsTxt = robotsTxt;
+      this.refreshAt = refreshAt;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
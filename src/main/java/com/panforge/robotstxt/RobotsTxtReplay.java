@@ -0,0 +1,471 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Offline replay of a URL log against a corpus of robots.txt.
+ * <p>
+ * Every URL of the log is checked with {@link RobotsTxt#ask(String, String)}
+ * against robots.txt of its host. Robots.txt of a host is parsed when the
+ * host is seen for the first time. Parsing and querying are timed separately;
+ * latencies are collected into histograms and attributed to hosts.
+ * <p>
+ * Corpus is a directory or a zip archive holding either
+ * <code>&lt;host&gt;.txt</code> (or just <code>&lt;host&gt;</code>) files or
+ * <code>&lt;host&gt;/robots.txt</code> files. URL log holds one absolute URL
+ * per line; anything after the first whitespace is ignored. Usage:
+ * <pre>
+ * java -cp robots.jar com.panforge.robotstxt.RobotsTxtReplay [--agent &lt;name&gt;] [--top &lt;n&gt;] &lt;corpus dir or zip&gt; &lt;url log or -&gt;
+ * </pre>
+ */
+public class RobotsTxtReplay {
+
+  private final RobotsTxtReader reader;
+  private String userAgent;
+  private int top = 10;
+
+  /**
+   * Creates instance of the replay using default reader.
+   */
+  public RobotsTxtReplay() {
+    this(new RobotsTxtReader());
+  }
+
+  /**
+   * Creates instance of the replay.
+   *
+   * @param reader reader used to parse robots.txt
+   */
+  public RobotsTxtReplay(RobotsTxtReader reader) {
+    if (reader == null) {
+      throw new IllegalArgumentException("Reader must not be null.");
+    }
+    this.reader = reader;
+  }
+
+  /**
+   * Sets user agent to ask for.
+   *
+   * @param userAgent user agent or <code>null</code> for any
+   */
+  public void setUserAgent(String userAgent) {
+    this.userAgent = userAgent;
+  }
+
+  /**
+   * Sets number of the most expensive hosts to report.
+   *
+   * @param top number of hosts
+   */
+  public void setTop(int top) {
+    if (top < 0) {
+      throw new IllegalArgumentException("Number of hosts must not be negative.");
+    }
+    this.top = top;
+  }
+
+  /**
+   * Loads corpus from a directory or a zip archive.
+   *
+   * @param path path to the directory or zip archive
+   * @return map of host names to robots.txt content
+   * @throws IOException if reading corpus fails
+   */
+  public static Map<String, byte[]> loadCorpus(Path path) throws IOException {
+    Map<String, byte[]> corpus = new HashMap<>();
+    if (Files.isDirectory(path)) {
+      try (Stream<Path> files = Files.walk(path)) {
+        for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+          String name = path.relativize(file).toString().replace('\\', '/');
+          corpus.put(hostOf(name), Files.readAllBytes(file));
+        }
+      }
+    } else {
+      try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(path))) {
+        for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+          if (!entry.isDirectory()) {
+            corpus.put(hostOf(entry.getName()), zip.readAllBytes());
+          }
+        }
+      }
+    }
+    return corpus;
+  }
+
+  /**
+   * Replays URL log.
+   *
+   * @param corpus map of host names to robots.txt content
+   * @param urls URL log
+   * @return report
+   * @throws IOException if reading URL log fails
+   */
+  public Report replay(Map<String, byte[]> corpus, Reader urls) throws IOException {
+    Report report = new Report(top);
+    Map<String, Host> hosts = new HashMap<>();
+    BufferedReader lines = urls instanceof BufferedReader ? (BufferedReader) urls : new BufferedReader(urls);
+    long start = System.nanoTime();
+
+    for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+      String url = firstToken(line);
+      if (url.isEmpty()) {
+        continue;
+      }
+      URI uri;
+      try {
+        uri = new URI(url);
+      } catch (Exception ex) {
+        report.invalid++;
+        continue;
+      }
+      if (uri.getHost() == null) {
+        report.invalid++;
+        continue;
+      }
+      String hostName = uri.getHost().toLowerCase(Locale.ROOT);
+      Host host = hosts.get(hostName);
+      if (host == null) {
+        host = new Host(hostName);
+        hosts.put(hostName, host);
+        byte[] content = corpus.get(hostName);
+        if (content != null) {
+          long parseStart = System.nanoTime();
+          host.robotsTxt = reader.readRobotsTxt(content);
+          host.parseNanos = System.nanoTime() - parseStart;
+          report.parse.record(host.parseNanos);
+        }
+      }
+      if (host.robotsTxt == null) {
+        report.unknown++;
+        continue;
+      }
+
+      String path = pathOf(uri);
+      long queryStart = System.nanoTime();
+      Grant grant = host.robotsTxt.ask(userAgent, path);
+      long queryNanos = System.nanoTime() - queryStart;
+      report.query.record(queryNanos);
+      host.queryNanos += queryNanos;
+      host.queries++;
+      if (grant == null || grant.hasAccess()) {
+        report.allowed++;
+      } else {
+        report.disallowed++;
+      }
+    }
+
+    report.elapsedNanos = System.nanoTime() - start;
+    report.hosts = hosts.size();
+    report.top = hosts.values().stream()
+            .sorted(Comparator.comparingLong(Host::getTotalNanos).reversed())
+            .limit(top)
+            .collect(Collectors.toList());
+    return report;
+  }
+
+  /**
+   * Runs replay from the command line.
+   *
+   * @param args arguments
+   * @throws IOException if reading input fails
+   */
+  public static void main(String[] args) throws IOException {
+    RobotsTxtReplay replay = new RobotsTxtReplay();
+    List<String> positional = new ArrayList<>();
+    for (int i = 0; i < args.length; i++) {
+      if ("--agent".equals(args[i]) && i + 1 < args.length) {
+        replay.setUserAgent(args[++i]);
+      } else if ("--top".equals(args[i]) && i + 1 < args.length) {
+        replay.setTop(Integer.parseInt(args[++i]));
+      } else {
+        positional.add(args[i]);
+      }
+    }
+    if (positional.size() != 2) {
+      System.err.println("Usage: RobotsTxtReplay [--agent <name>] [--top <n>] <corpus dir or zip> <url log or ->");
+      System.exit(1);
+      return;
+    }
+
+    Map<String, byte[]> corpus = loadCorpus(Paths.get(positional.get(0)));
+    InputStream log = "-".equals(positional.get(1)) ? System.in : Files.newInputStream(Paths.get(positional.get(1)));
+    try (Reader urls = new InputStreamReader(log, StandardCharsets.UTF_8)) {
+      replay.replay(corpus, urls).print(System.out);
+    }
+  }
+
+  private static String hostOf(String name) {
+    if (name.endsWith("/robots.txt")) {
+      name = name.substring(0, name.length() - "/robots.txt".length());
+    } else if (name.endsWith(".txt")) {
+      name = name.substring(0, name.length() - ".txt".length());
+    }
+    return name.substring(name.lastIndexOf('/') + 1).toLowerCase(Locale.ROOT);
+  }
+
+  private static String firstToken(String line) {
+    line = line.trim();
+    for (int i = 0; i < line.length(); i++) {
+      if (Character.isWhitespace(line.charAt(i))) {
+        return line.substring(0, i);
+      }
+    }
+    return line;
+  }
+
+  private static String pathOf(URI uri) {
+    String path = uri.getRawPath();
+    if (path == null || path.isEmpty()) {
+      path = "/";
+    }
+    return uri.getRawQuery() != null ? path + "?" + uri.getRawQuery() : path;
+  }
+
+  /**
+   * Host statistics.
+   */
+  public static final class Host {
+
+    private final String name;
+    private RobotsTxt robotsTxt;
+    private long parseNanos;
+    private long queryNanos;
+    private long queries;
+
+    Host(String name) {
+      this.name = name;
+    }
+
+    /**
+     * Gets host name.
+     * @return host name
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Gets time spent parsing robots.txt of the host.
+     * @return time in nanoseconds
+     */
+    public long getParseNanos() {
+      return parseNanos;
+    }
+
+    /**
+     * Gets time spent querying robots.txt of the host.
+     * @return time in nanoseconds
+     */
+    public long getQueryNanos() {
+      return queryNanos;
+    }
+
+    /**
+     * Gets number of queries.
+     * @return number of queries
+     */
+    public long getQueries() {
+      return queries;
+    }
+
+    /**
+     * Gets total time spent on the host.
+     * @return time in nanoseconds
+     */
+    public long getTotalNanos() {
+      return parseNanos + queryNanos;
+    }
+  }
+
+  /**
+   * Replay report.
+   */
+  public static final class Report {
+
+    private final LatencyHistogram parse = new LatencyHistogram();
+    private final LatencyHistogram query = new LatencyHistogram();
+    private final int topCount;
+    private long allowed;
+    private long disallowed;
+    private long unknown;
+    private long invalid;
+    private long hosts;
+    private long elapsedNanos;
+    private List<Host> top = new ArrayList<>();
+
+    Report(int topCount) {
+      this.topCount = topCount;
+    }
+
+    /**
+     * Gets number of queries.
+     * @return number of queries
+     */
+    public long getQueries() {
+      return query.getCount();
+    }
+
+    /**
+     * Gets number of allowed URL's.
+     * @return number of allowed URL's
+     */
+    public long getAllowed() {
+      return allowed;
+    }
+
+    /**
+     * Gets number of disallowed URL's.
+     * @return number of disallowed URL's
+     */
+    public long getDisallowed() {
+      return disallowed;
+    }
+
+    /**
+     * Gets number of URL's of hosts missing in the corpus.
+     * @return number of URL's
+     */
+    public long getUnknown() {
+      return unknown;
+    }
+
+    /**
+     * Gets number of lines not being absolute URL's.
+     * @return number of lines
+     */
+    public long getInvalid() {
+      return invalid;
+    }
+
+    /**
+     * Gets number of robots.txt parsed.
+     * @return number of robots.txt
+     */
+    public long getParsed() {
+      return parse.getCount();
+    }
+
+    /**
+     * Gets number of distinct hosts.
+     * @return number of hosts
+     */
+    public long getHosts() {
+      return hosts;
+    }
+
+    /**
+     * Gets total time spent parsing.
+     * @return time in nanoseconds
+     */
+    public long getParseNanos() {
+      return parse.getTotal();
+    }
+
+    /**
+     * Gets total time spent querying.
+     * @return time in nanoseconds
+     */
+    public long getQueryNanos() {
+      return query.getTotal();
+    }
+
+    /**
+     * Gets query latency percentile.
+     * @param percentile percentile (0-100)
+     * @return latency in nanoseconds
+     */
+    public long getQueryPercentile(double percentile) {
+      return query.getPercentile(percentile);
+    }
+
+    /**
+     * Gets parse latency percentile.
+     * @param percentile percentile (0-100)
+     * @return latency in nanoseconds
+     */
+    public long getParsePercentile(double percentile) {
+      return parse.getPercentile(percentile);
+    }
+
+    /**
+     * Gets the most expensive hosts.
+     * @return hosts ordered by total time descending
+     */
+    public List<Host> getTop() {
+      return top;
+    }
+
+    /**
+     * Prints report.
+     * @param out output stream
+     */
+    public void print(PrintStream out) {
+      long work = parse.getTotal() + query.getTotal();
+      out.printf(Locale.ROOT, "urls: %d (allowed: %d, disallowed: %d, no robots.txt: %d, invalid: %d)%n",
+              query.getCount() + unknown + invalid, allowed, disallowed, unknown, invalid);
+      out.printf(Locale.ROOT, "hosts: %d, robots.txt parsed: %d%n", hosts, parse.getCount());
+      out.printf(Locale.ROOT, "elapsed: %.1f ms, throughput: %.0f queries/s (%.0f queries/s of robots work)%n",
+              elapsedNanos / 1e6, rate(query.getCount(), elapsedNanos), rate(query.getCount(), work));
+      out.printf(Locale.ROOT, "parse/query split: %.1f ms (%.1f%%) / %.1f ms (%.1f%%)%n",
+              parse.getTotal() / 1e6, share(parse.getTotal(), work), query.getTotal() / 1e6, share(query.getTotal(), work));
+      printHistogram(out, "query", query);
+      printHistogram(out, "parse", parse);
+      if (topCount > 0) {
+        out.printf(Locale.ROOT, "top %d hosts by time:%n", topCount);
+        for (Host host : top) {
+          out.printf(Locale.ROOT, "  %-40s total: %9.3f ms, parse: %9.3f ms, queries: %8d, query: %9.3f ms%n",
+                  host.getName(), host.getTotalNanos() / 1e6, host.getParseNanos() / 1e6, host.getQueries(), host.getQueryNanos() / 1e6);
+        }
+      }
+    }
+
+    private static void printHistogram(PrintStream out, String name, LatencyHistogram histogram) {
+      out.printf(Locale.ROOT, "%s latency (ns): p50: %d, p90: %d, p99: %d, p99.9: %d, max: %d%n", name,
+              histogram.getPercentile(50), histogram.getPercentile(90), histogram.getPercentile(99),
+              histogram.getPercentile(99.9), histogram.getMax());
+    }
+
+    private static double rate(long count, long nanos) {
+      return nanos > 0 ? count * 1e9 / nanos : 0.0;
+    }
+
+    private static double share(long part, long total) {
+      return total > 0 ? part * 100.0 / total : 0.0;
+    }
+  }
+}
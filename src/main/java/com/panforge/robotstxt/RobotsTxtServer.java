@@ -0,0 +1,458 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Robots.txt decision service.
+ * <p>
+ * Embeddable HTTP server (built on the JDK {@link HttpServer}) answering
+ * batches of robots.txt decisions, so that crawler processes written in any
+ * language share a single cache of parsed robots.txt. Robots.txt of an
+ * origin is obtained from {@link RobotsTxtProvider} once and kept for the
+ * time to live (24 hours by default) or until {@link #invalidate(URI)};
+ * failed loads are retried with the next request. No more than
+ * <code>maxOrigins</code> robots.txt are kept; the ones loaded first are
+ * evicted first. To revalidate robots.txt in background rather than
+ * waiting for it once expired, give a {@link RobotsTxtRefresher} as the
+ * provider and a short time to live.
+ * <p>
+ * Decisions are requested with <code>POST /decisions</code> and a UTF-8 text
+ * body made of blocks separated by empty lines. The first line of a block is
+ * the origin, optionally followed by a tab and the user agent; each following
+ * line is a path (or an absolute URL) to decide on:
+ * <pre>
+ * https://example.com&lt;TAB&gt;MyBot
+ * /index.html
+ * /private/data.html
+ *
+ * https://example.org
+ * /
+ * </pre>
+ * The response holds a line per block: a character per path, <code>1</code>
+ * if allowed and <code>0</code> if disallowed, followed by a tab and crawl
+ * delay (in seconds) from the grant of the first path or <code>-</code>:
+ * <pre>
+ * 10&lt;TAB&gt;5
+ * 1&lt;TAB&gt;-
+ * </pre>
+ * Malformed requests are answered with status 400. All the origins of a
+ * request are waited for up to the timeout in total.
+ * <p>
+ * Consider starting the JVM with
+ * <code>-Dsun.net.httpserver.nodelay=true</code>: with Nagle's algorithm on
+ * (the JDK default), responses are delayed by the delayed acknowledgement of
+ * the client (about 40 ms on loopback). The property is read once per JVM,
+ * when the first {@link HttpServer} is created, thus the server doesn't set
+ * it.
+ */
+public class RobotsTxtServer implements AutoCloseable {
+
+  /**
+   * Path of the decisions endpoint.
+   */
+  public static final String PATH = "/decisions";
+
+  private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+  private static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofHours(24);
+  private static final int DEFAULT_MAX_ORIGINS = 10_000;
+
+  private final RobotsTxtProvider provider;
+  private final Clock clock;
+  private final ConcurrentHashMap<String, Entry> origins = new ConcurrentHashMap<>();
+  private final ConcurrentLinkedQueue<Entry> loaded = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger loadedCount = new AtomicInteger();
+  private volatile boolean allowOnFailure;
+  private volatile Duration timeout = DEFAULT_TIMEOUT;
+  private volatile long timeToLive = DEFAULT_TIME_TO_LIVE.toMillis();
+  private volatile int maxOrigins = DEFAULT_MAX_ORIGINS;
+  private Executor executor;
+  private ExecutorService ownExecutor;
+  private HttpServer server;
+
+  /**
+   * Creates instance of the server.
+   *
+   * @param provider robots.txt provider
+   */
+  public RobotsTxtServer(RobotsTxtProvider provider) {
+    this(provider, Clock.systemUTC());
+  }
+
+  /**
+   * Creates instance of the server.
+   *
+   * @param provider robots.txt provider
+   * @param clock clock measuring time to live
+   */
+  public RobotsTxtServer(RobotsTxtProvider provider, Clock clock) {
+    if (provider == null) {
+      throw new IllegalArgumentException("Provider must not be null.");
+    }
+    if (clock == null) {
+      throw new IllegalArgumentException("Clock must not be null.");
+    }
+    this.provider = provider;
+    this.clock = clock;
+  }
+
+  /**
+   * Sets executor handling requests.
+   * <p>
+   * By default a fixed pool of a thread per processor is used. On Java 21
+   * or later a virtual thread per task executor might be given.
+   *
+   * @param executor executor; must be set before the server starts
+   */
+  public void setExecutor(Executor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Checks if paths are allowed when robots.txt can't be obtained.
+   *
+   * @return <code>true</code> if paths are allowed
+   */
+  public boolean isAllowOnFailure() {
+    return allowOnFailure;
+  }
+
+  /**
+   * Sets whether paths are allowed when robots.txt can't be obtained.
+   * <p>
+   * By default paths of such an origin are disallowed.
+   *
+   * @param allowOnFailure <code>true</code> to allow paths
+   */
+  public void setAllowOnFailure(boolean allowOnFailure) {
+    this.allowOnFailure = allowOnFailure;
+  }
+
+  /**
+   * Sets maximum time to wait for robots.txt of all the origins of a request
+   * to be loaded.
+   *
+   * @param timeout timeout; loads taking longer are treated as failed by
+   * the request, yet keep running and their result is used by later requests
+   */
+  public void setTimeout(Duration timeout) {
+    if (timeout == null || timeout.isNegative()) {
+      throw new IllegalArgumentException("Timeout must not be negative.");
+    }
+    this.timeout = timeout;
+  }
+
+  /**
+   * Sets time to live.
+   * <p>
+   * By default robots.txt is kept for 24 hours.
+   *
+   * @param timeToLive time robots.txt is kept after being loaded
+   */
+  public void setTimeToLive(Duration timeToLive) {
+    if (timeToLive == null || timeToLive.isNegative() || timeToLive.isZero()) {
+      throw new IllegalArgumentException("Time to live must be positive.");
+    }
+    this.timeToLive = timeToLive.toMillis();
+  }
+
+  /**
+   * Sets maximum number of origins whose robots.txt is kept.
+   * <p>
+   * By default robots.txt of up to 10000 origins is kept.
+   *
+   * @param maxOrigins maximum number of origins
+   */
+  public void setMaxOrigins(int maxOrigins) {
+    if (maxOrigins <= 0) {
+      throw new IllegalArgumentException("Maximum number of origins must be positive.");
+    }
+    this.maxOrigins = maxOrigins;
+  }
+
+  /**
+   * Starts server on the loopback interface.
+   *
+   * @param port port or <code>0</code> for any free port
+   * @return address the server is bound to
+   * @throws IOException if binding fails
+   */
+  public InetSocketAddress start(int port) throws IOException {
+    return start(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+  }
+
+  /**
+   * Starts server.
+   *
+   * @param address address to bind to
+   * @return address the server is bound to
+   * @throws IOException if binding fails
+   */
+  public synchronized InetSocketAddress start(InetSocketAddress address) throws IOException {
+    if (server != null) {
+      throw new IllegalStateException("Server already started.");
+    }
+    HttpServer httpServer = HttpServer.create(address, 0);
+    httpServer.createContext(PATH, this::handle);
+    if (executor == null) {
+      ownExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+    httpServer.setExecutor(executor != null ? executor : ownExecutor);
+    httpServer.start();
+    server = httpServer;
+    return httpServer.getAddress();
+  }
+
+  /**
+   * Gets address the server is bound to.
+   *
+   * @return address or <code>null</code> if server is not started
+   */
+  public synchronized InetSocketAddress getAddress() {
+    return server != null ? server.getAddress() : null;
+  }
+
+  /**
+   * Stops server.
+   */
+  @Override
+  public synchronized void close() {
+    if (server != null) {
+      server.stop(0);
+      server = null;
+    }
+    if (ownExecutor != null) {
+      ownExecutor.shutdown();
+      ownExecutor = null;
+    }
+  }
+
+  /**
+   * Drops cached robots.txt of the origin.
+   *
+   * @param origin origin (or any URL of the origin)
+   */
+  public void invalidate(URI origin) {
+    origins.remove(PolitenessScheduler.originOf(origin));
+  }
+
+  /**
+   * Gets number of cached origins.
+   *
+   * @return number of origins
+   */
+  public int size() {
+    return origins.size();
+  }
+
+  /**
+   * Answers request.
+   *
+   * @param request request body
+   * @return response body
+   * @throws IOException if reading request fails
+   * @throws IllegalArgumentException if request is malformed
+   */
+  String decide(BufferedReader request) throws IOException {
+    List<Block> blocks = new ArrayList<>();
+    Block block = null;
+    for (String line = request.readLine(); line != null; line = request.readLine()) {
+      if (line.isEmpty()) {
+        block = null;
+      } else if (block == null) {
+        block = new Block(line);
+        blocks.add(block);
+      } else {
+        block.paths.add(line);
+      }
+    }
+
+    // loads of all the origins run concurrently and share the deadline
+    long deadline = System.nanoTime() + timeout.toNanos();
+    for (Block b : blocks) {
+      b.robotsTxt = robotsTxt(b.origin);
+    }
+
+    StringBuilder response = new StringBuilder();
+    for (Block b : blocks) {
+      RobotsTxt robotsTxt = await(b.robotsTxt, deadline);
+      Integer crawlDelay = null;
+      for (int i = 0; i < b.paths.size(); i++) {
+        Grant grant = robotsTxt.ask(b.userAgent, b.paths.get(i));
+        response.append(grant.hasAccess() ? '1' : '0');
+        if (i == 0) {
+          crawlDelay = grant.getCrawlDelay();
+        }
+      }
+      response.append('\t').append(crawlDelay != null ? crawlDelay.toString() : "-").append('\n');
+    }
+    return response.toString();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try {
+      if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+        exchange.getResponseHeaders().set("Allow", "POST");
+        respond(exchange, 405, "Method not allowed.\n");
+        return;
+      }
+      String response;
+      try {
+        response = decide(new BufferedReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)));
+      } catch (IllegalArgumentException ex) {
+        respond(exchange, 400, ex.getMessage() + "\n");
+        return;
+      }
+      respond(exchange, 200, response);
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+    exchange.sendResponseHeaders(status, bytes.length > 0 ? bytes.length : -1);
+    if (bytes.length > 0) {
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(bytes);
+      }
+    }
+  }
+
+  private Entry robotsTxt(String origin) {
+    Entry entry = origins.get(origin);
+    if (entry != null && clock.millis() < entry.expiresAt) {
+      return entry;
+    }
+    if (entry != null) {
+      origins.remove(origin, entry);
+    }
+    Entry created = new Entry(origin);
+    entry = origins.putIfAbsent(origin, created);
+    if (entry != null) {
+      return entry;
+    }
+    evict(created);
+    try {
+      provider.get(URI.create(origin)).whenComplete((robotsTxt, ex) -> {
+        if (ex != null || robotsTxt == null) {
+          origins.remove(origin, created);
+          created.future.completeExceptionally(ex != null ? ex : new IllegalStateException("No robots.txt."));
+        } else {
+          created.expiresAt = clock.millis() + timeToLive;
+          created.future.complete(robotsTxt);
+        }
+      });
+    } catch (RuntimeException ex) {
+      origins.remove(origin, created);
+      created.future.completeExceptionally(ex);
+    }
+    return created;
+  }
+
+  /**
+   * Evicts origins loaded first once there are too many of them.
+   */
+  private void evict(Entry entry) {
+    loaded.offer(entry);
+    if (loadedCount.incrementAndGet() <= maxOrigins) {
+      return;
+    }
+    while (loadedCount.get() > maxOrigins) {
+      Entry eldest = loaded.poll();
+      if (eldest == null) {
+        break;
+      }
+      loadedCount.decrementAndGet();
+      origins.remove(eldest.origin, eldest);
+    }
+  }
+
+  private RobotsTxt await(Entry entry, long deadline) {
+    try {
+      return entry.future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException ex) {
+      origins.remove(entry.origin, entry);
+    } catch (TimeoutException ex) {
+      // load still in flight is kept; later requests get its result
+    }
+    return allowOnFailure ? TrivialRobotsTxt.ALLOW_ALL : TrivialRobotsTxt.DISALLOW_ALL;
+  }
+
+  /**
+   * Robots.txt of an origin.
+   */
+  private static final class Entry {
+
+    private final String origin;
+    private final CompletableFuture<RobotsTxt> future = new CompletableFuture<>();
+    // robots.txt being loaded doesn't expire
+    private volatile long expiresAt = Long.MAX_VALUE;
+
+    Entry(String origin) {
+      this.origin = origin;
+    }
+  }
+
+  /**
+   * Block of the request.
+   */
+  private static final class Block {
+
+    private final String origin;
+    private final String userAgent;
+    private final List<String> paths = new ArrayList<>();
+    private Entry robotsTxt;
+
+    Block(String header) {
+      int tab = header.indexOf('\t');
+      String url = tab >= 0 ? header.substring(0, tab) : header;
+      this.userAgent = tab >= 0 && tab + 1 < header.length() ? header.substring(tab + 1) : null;
+      try {
+        this.origin = PolitenessScheduler.originOf(URI.create(url.trim()));
+      } catch (IllegalArgumentException ex) {
+        throw new IllegalArgumentException(String.format("Invalid origin: %s", url));
+      }
+    }
+  }
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Frozen storage of all the rules of a single robots.txt.
+ * <p>
+ * Rules are not kept as objects. Distinct canonical clauses are concatenated
+ * into a single string (canonical clauses are ASCII, thus stored one byte per
+ * character) and identified by a clause number; sources and decoded clauses
+ * are concatenated into another string. Remaining properties of the rules are
+ * held in parallel primitive arrays indexed by the rule number. Rules of a
+ * group occupy a contiguous range of rule numbers.
+ * <p>
+ * Strings and {@link Access} objects are created only when details of a rule
+ * are asked for. Instances are immutable.
+ */
+final class RuleArena {
+  /**
+   * No rule.
+   */
+  static final int NONE = -1;
+
+  private final String clauses;
+  private final int[] clauseOffsets;
+  private final String text;
+  private final int[] textOffsets;
+  private final int[] sourceLengths;
+  private final int[] clauseIds;
+  private final boolean[] allowed;
+
+  // statistics of the immutable content, computed once
+  private final int wildcardRules;
+  private final int maxClauseLength;
+  private final long retainedBytes;
+
+  private RuleArena(String clauses, int[] clauseOffsets, String text, int[] textOffsets, int[] sourceLengths, int[] clauseIds, boolean[] allowed) {
+    this.clauses = clauses;
+    this.clauseOffsets = clauseOffsets;
+    this.text = text;
+    this.textOffsets = textOffsets;
+    this.sourceLengths = sourceLengths;
+    this.clauseIds = clauseIds;
+    this.allowed = allowed;
+
+    // each clause is scanned once, no matter how many rules share it
+    boolean[] wildcard = new boolean[clauseOffsets.length - 1];
+    for (int id = 0; id < wildcard.length; id++) {
+      for (int i = clauseOffsets[id]; i < clauseOffsets[id + 1] && !wildcard[id]; i++) {
+        wildcard[id] = clauses.charAt(i) == '*';
+      }
+    }
+    int wildcards = 0;
+    int max = 0;
+    for (int rule = 0; rule < allowed.length; rule++) {
+      wildcards += wildcard[clauseIds[rule]] ? 1 : 0;
+      max = Math.max(max, getClauseLength(rule));
+    }
+    this.wildcardRules = wildcards;
+    this.maxClauseLength = max;
+    this.retainedBytes = MemoryLayout.object(7, 16)
+            + MemoryLayout.string(clauses)
+            + MemoryLayout.array(clauseOffsets.length, 4)
+            + MemoryLayout.string(text)
+            + MemoryLayout.array(textOffsets.length, 4)
+            + MemoryLayout.array(sourceLengths.length, 4)
+            + MemoryLayout.array(clauseIds.length, 4)
+            + MemoryLayout.array(allowed.length, 1);
+  }
+
+  /**
+   * Gets number of rules.
+   * @return number of rules
+   */
+  int size() {
+    return allowed.length;
+  }
+
+  /**
+   * Gets number of distinct canonical clauses.
+   * @return number of clauses
+   */
+  int countClauses() {
+    return clauseOffsets.length - 1;
+  }
+
+  /**
+   * Checks if rule allows access.
+   * @param rule rule number
+   * @return <code>true</code> if access allowed
+   */
+  boolean isAllowed(int rule) {
+    return allowed[rule];
+  }
+
+  /**
+   * Gets clause number of the rule; rules with equal canonical clauses share the number.
+   * @param rule rule number
+   * @return clause number
+   */
+  int getClauseId(int rule) {
+    return clauseIds[rule];
+  }
+
+  /**
+   * Gets canonical clause.
+   * @param rule rule number
+   * @return canonical clause
+   */
+  String getCanonicalClause(int rule) {
+    int id = clauseIds[rule];
+    return clauses.substring(clauseOffsets[id], clauseOffsets[id + 1]);
+  }
+
+  /**
+   * Gets decoded clause.
+   * @param rule rule number
+   * @return decoded clause
+   */
+  String getClause(int rule) {
+    int start = textOffsets[rule] + sourceLengths[rule];
+    int end = textOffsets[rule + 1];
+    return start < end ? text.substring(start, end) : getCanonicalClause(rule);
+  }
+
+  /**
+   * Gets length of the decoded clause.
+   * @param rule rule number
+   * @return length of the decoded clause
+   */
+  int getClauseLength(int rule) {
+    int start = textOffsets[rule] + sourceLengths[rule];
+    int end = textOffsets[rule + 1];
+    if (start < end) {
+      return end - start;
+    }
+    int id = clauseIds[rule];
+    return clauseOffsets[id + 1] - clauseOffsets[id];
+  }
+
+  /**
+   * Gets source of the rule.
+   * @param rule rule number
+   * @return source
+   */
+  String getSource(int rule) {
+    return text.substring(textOffsets[rule], textOffsets[rule] + sourceLengths[rule]);
+  }
+
+  /**
+   * Creates access object of the rule.
+   * @param rule rule number
+   * @return access
+   */
+  Access toAccess(int rule) {
+    return new Access(getSource(rule), getClause(rule), getCanonicalClause(rule), allowed[rule]);
+  }
+
+  /**
+   * Checks if path matches the rule.
+   * @param rule rule number
+   * @param path path to check, prepared with {@link MatchingStrategy#prepare(String)}
+   * @param matchingStrategy matcher
+   * @param listener metrics listener (might be <code>null</code>)
+   * @return <code>true</code> if path matches the rule
+   * @see Access#matches(String, MatchingStrategy, MetricsListener)
+   */
+  boolean matches(int rule, String path, MatchingStrategy matchingStrategy, MetricsListener listener) {
+    if (path == null) {
+      return false;
+    }
+    int id = clauseIds[rule];
+    int from = clauseOffsets[id];
+    int to = clauseOffsets[id + 1];
+    if (matchingStrategy == MatchingStrategy.DEFAULT) {
+      return from == to || WildcardMatcher.matches(clauses, from, to, path);
+    }
+    return Access.matches(clauses.substring(from, to), path, matchingStrategy, listener);
+  }
+
+  /**
+   * Checks if path matches the rule remembering results by clause.
+   * @param rule rule number
+   * @param path path to check, prepared with {@link MatchingStrategy#prepare(String)}
+   * @param matchingStrategy matcher
+   * @param listener metrics listener (might be <code>null</code>)
+   * @param matches results of matching by clause number: 0 - unknown, 1 - match, 2 - no match
+   * @return <code>true</code> if path matches the rule
+   */
+  boolean matches(int rule, String path, MatchingStrategy matchingStrategy, MetricsListener listener, byte[] matches) {
+    int id = clauseIds[rule];
+    if (matches[id] == 0) {
+      matches[id] = matches(rule, path, matchingStrategy, listener) ? (byte) 1 : (byte) 2;
+    }
+    return matches[id] == 1;
+  }
+
+  /**
+   * Counts rules with <code>*</code> wildcard.
+   * @return number of rules
+   */
+  int countWildcardRules() {
+    return wildcardRules;
+  }
+
+  /**
+   * Gets length of the longest decoded clause.
+   * @return length of the longest clause or <code>0</code> if no rules
+   */
+  int getMaxClauseLength() {
+    return maxClauseLength;
+  }
+
+  /**
+   * Estimates retained size.
+   * @return number of bytes
+   * @see MemoryLayout
+   */
+  long getRetainedBytes() {
+    return retainedBytes;
+  }
+
+  /**
+   * Rule arena builder.
+   */
+  static final class Builder {
+    private final StringBuilder clauses = new StringBuilder();
+    private final Map<String, Integer> clauseNumbers = new HashMap<>();
+    private int[] clauseOffsets = new int[16];
+    private final StringBuilder text = new StringBuilder();
+    private int[] textOffsets = new int[16];
+    private int[] sourceLengths = new int[16];
+    private int[] clauseIds = new int[16];
+    private boolean[] allowed = new boolean[16];
+    private int size;
+
+    /**
+     * Gets number of rules added so far.
+     * @return number of rules
+     */
+    int size() {
+      return size;
+    }
+
+    /**
+     * Adds rule.
+     * @param access rule
+     * @return rule number
+     */
+    int add(Access access) {
+      if (size + 1 >= textOffsets.length) {
+        int capacity = textOffsets.length * 2;
+        textOffsets = Arrays.copyOf(textOffsets, capacity);
+        sourceLengths = Arrays.copyOf(sourceLengths, capacity);
+        clauseIds = Arrays.copyOf(clauseIds, capacity);
+        allowed = Arrays.copyOf(allowed, capacity);
+      }
+      String canonical = access.getCanonicalClause();
+      Integer id = clauseNumbers.get(canonical);
+      if (id == null) {
+        id = clauseNumbers.size();
+        clauseNumbers.put(canonical, id);
+        if (id + 2 > clauseOffsets.length) {
+          clauseOffsets = Arrays.copyOf(clauseOffsets, clauseOffsets.length * 2);
+        }
+        clauses.append(canonical);
+        clauseOffsets[id + 1] = clauses.length();
+      }
+      String source = access.toString() != null ? access.toString() : "";
+      text.append(source);
+      if (!access.getClause().equals(canonical)) {
+        text.append(access.getClause());
+      }
+      sourceLengths[size] = source.length();
+      clauseIds[size] = id;
+      allowed[size] = access.hasAccess();
+      textOffsets[++size] = text.length();
+      return size - 1;
+    }
+
+    /**
+     * Builds arena.
+     * @return arena
+     */
+    RuleArena build() {
+      return new RuleArena(
+              clauses.toString(),
+              Arrays.copyOf(clauseOffsets, clauseNumbers.size() + 1),
+              text.toString(),
+              Arrays.copyOf(textOffsets, size + 1),
+              Arrays.copyOf(sourceLengths, size),
+              Arrays.copyOf(clauseIds, size),
+              Arrays.copyOf(allowed, size));
+    }
+  }
+}
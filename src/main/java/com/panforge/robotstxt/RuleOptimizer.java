@@ -0,0 +1,206 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optimizer of the rules of a single group.
+ * <p>
+ * Removes rules which never win with the default strategies: a rule is
+ * removed if another rule matches every path the rule matches and outranks
+ * it whenever both match. Outranking follows {@link WinningStrategy#DEFAULT}:
+ * within a kind the longer decoded clause wins and the first rule wins on
+ * tie; an allowing rule wins over a disallowing rule of the same or shorter
+ * length. Removing rules which never win doesn't change the winner of any
+ * path, thus grants remain identical.
+ * <p>
+ * Covering is established without matching any paths: rules with equal
+ * clauses (after dropping trailing <code>*</code>) cover each other, and
+ * a plain prefix clause covers every clause starting with it. Each rule is
+ * checked in time proportional to the length of its clause.
+ */
+final class RuleOptimizer {
+
+  private RuleOptimizer() {
+  }
+
+  /**
+   * Optimizes rules.
+   * @param rules rules of the group in order of declaration
+   * @return rules to keep in order of declaration
+   */
+  static List<Access> optimize(List<Access> rules) {
+    int size = rules.size();
+    if (size < 2) {
+      return rules;
+    }
+    int[] lengths = new int[size];
+    String[] clauses = new String[size];
+    Map<String, Witnesses> equal = new HashMap<>();
+    Trie prefixes = new Trie();
+    for (int rule = 0; rule < size; rule++) {
+      Access access = rules.get(rule);
+      lengths[rule] = access.getClause().length();
+      clauses[rule] = normalize(access.getCanonicalClause());
+      boolean allowed = access.hasAccess();
+      equal.computeIfAbsent(clauses[rule], clause -> new Witnesses()).offer(rule, allowed, lengths);
+      if (isPrefix(clauses[rule])) {
+        prefixes.add(clauses[rule]).offer(rule, allowed, lengths);
+      }
+    }
+
+    List<Access> kept = new ArrayList<>(size);
+    for (int rule = 0; rule < size; rule++) {
+      boolean allowed = rules.get(rule).hasAccess();
+      if (!equal.get(clauses[rule]).outrank(rule, allowed, lengths) && !prefixes.outrank(literal(clauses[rule]), rule, allowed, lengths)) {
+        kept.add(rules.get(rule));
+      }
+    }
+    return kept.size() < size ? kept : rules;
+  }
+
+  /**
+   * Normalizes canonical clause: trailing <code>*</code> (and <code>$</code>
+   * following <code>*</code>) doesn't change the set of matching paths.
+   */
+  private static String normalize(String clause) {
+    int end = clause.length();
+    if (clause.endsWith("*$")) {
+      end--;
+    }
+    if (end == clause.length() && clause.endsWith("$")) {
+      return clause;
+    }
+    while (end > 0 && clause.charAt(end - 1) == '*') {
+      end--;
+    }
+    return clause.substring(0, end);
+  }
+
+  /**
+   * Checks if normalized clause matches every path starting with it and only such.
+   */
+  private static boolean isPrefix(String clause) {
+    return clause.indexOf('*') < 0 && !clause.endsWith("$");
+  }
+
+  /**
+   * Gets literal part of normalized clause every matching path starts with.
+   */
+  private static String literal(String clause) {
+    int star = clause.indexOf('*');
+    if (star >= 0) {
+      return clause.substring(0, star);
+    }
+    return clause.endsWith("$") ? clause.substring(0, clause.length() - 1) : clause;
+  }
+
+  /**
+   * Best rules of each kind amongst rules covering the same paths.
+   */
+  private static final class Witnesses {
+    private int allow = RuleArena.NONE;
+    private int disallow = RuleArena.NONE;
+
+    void offer(int rule, boolean allowed, int[] lengths) {
+      // rules are offered in order of declaration, thus only longer wins
+      if (allowed) {
+        if (allow == RuleArena.NONE || lengths[rule] > lengths[allow]) {
+          allow = rule;
+        }
+      } else if (disallow == RuleArena.NONE || lengths[rule] > lengths[disallow]) {
+        disallow = rule;
+      }
+    }
+
+    /**
+     * Checks if any of the witnesses outranks the rule.
+     */
+    boolean outrank(int rule, boolean allowed, int[] lengths) {
+      int length = lengths[rule];
+      int same = allowed ? allow : disallow;
+      if (same != RuleArena.NONE && same != rule && (lengths[same] > length || (lengths[same] == length && same < rule))) {
+        return true;
+      }
+      int opposite = allowed ? disallow : allow;
+      if (opposite == RuleArena.NONE) {
+        return false;
+      }
+      return allowed ? lengths[opposite] > length : lengths[opposite] >= length;
+    }
+  }
+
+  /**
+   * Trie of prefix clauses.
+   */
+  private static final class Trie {
+    private final Map<Long, Integer> edges = new HashMap<>();
+    private final List<Witnesses> nodes = new ArrayList<>();
+
+    Trie() {
+      nodes.add(null);
+    }
+
+    Witnesses add(String clause) {
+      int node = 0;
+      for (int i = 0; i < clause.length(); i++) {
+        long key = edge(node, clause.charAt(i));
+        Integer child = edges.get(key);
+        if (child == null) {
+          child = nodes.size();
+          edges.put(key, child);
+          nodes.add(null);
+        }
+        node = child;
+      }
+      Witnesses witnesses = nodes.get(node);
+      if (witnesses == null) {
+        witnesses = new Witnesses();
+        nodes.set(node, witnesses);
+      }
+      return witnesses;
+    }
+
+    /**
+     * Checks if any prefix clause the literal starts with outranks the rule.
+     */
+    boolean outrank(String literal, int rule, boolean allowed, int[] lengths) {
+      int node = 0;
+      for (int i = 0; ; i++) {
+        Witnesses witnesses = nodes.get(node);
+        if (witnesses != null && witnesses.outrank(rule, allowed, lengths)) {
+          return true;
+        }
+        if (i == literal.length()) {
+          return false;
+        }
+        Integer child = edges.get(edge(node, literal.charAt(i)));
+        if (child == null) {
+          return false;
+        }
+        node = child;
+      }
+    }
+
+    private static long edge(int node, char c) {
+      return (long) node << 16 | c;
+    }
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Section of robots.txt.
+ * <p>
+ * Mutable counterpart of the {@link Group} used while parsing. Sections
+ * declaring the same user agents are merged into a single group.
+ */
+class Section {
+  private final List<String> userAgents = new ArrayList<>();
+  private final List<Access> accessList = new ArrayList<>();
+  private boolean anyAgent;
+  private Integer crawlDelay;
+
+  /**
+   * Checks if is any agent.
+   * @return <code>true</code> if any agent
+   */
+  public boolean isAnyAgent() {
+    return anyAgent;
+  }
+
+  /**
+   * Adds user agent.
+   * @param userAgent host name
+   */
+  public void addUserAgent(String userAgent) {
+    if (userAgent.equals("*")) {
+      anyAgent = true;
+    } else {
+      this.userAgents.add(userAgent);
+    }
+  }
+
+  /**
+   * Gets user agents.
+   * @return user agents
+   */
+  public List<String> getUserAgents() {
+    return userAgents;
+  }
+
+  /**
+   * Adds access.
+   * @param access access
+   */
+  public void addAccess(Access access) {
+    this.accessList.add(access);
+  }
+
+  /**
+   * Counts accesses.
+   * @return number of accesses
+   */
+  public int countAccess() {
+    return accessList.size();
+  }
+
+  /**
+   * Sets crawl delay.
+   *
+   * @param crawlDelay crawl delay.
+   */
+  public void setCrawlDelay(Integer crawlDelay) {
+    this.crawlDelay = crawlDelay;
+  }
+
+  /**
+   * Imports accesses from another section.
+   * <p>
+   * Crawl delay of another section is taken only if this section doesn't
+   * declare its own.
+   *
+   * @param section another section
+   */
+  public void importSection(Section section) {
+    accessList.addAll(section.accessList);
+    if (crawlDelay == null) {
+      crawlDelay = section.crawlDelay;
+    }
+  }
+
+  /**
+   * Removes rules which never win with the default strategies.
+   * @return number of rules removed
+   * @see RuleOptimizer
+   */
+  public int optimize() {
+    List<Access> kept = RuleOptimizer.optimize(accessList);
+    int removed = accessList.size() - kept.size();
+    if (removed > 0) {
+      accessList.clear();
+      accessList.addAll(kept);
+    }
+    return removed;
+  }
+
+  /**
+   * Adds rules of the section to the arena.
+   * @param rules arena builder
+   * @return number of the first rule added
+   */
+  public int addRules(RuleArena.Builder rules) {
+    int from = rules.size();
+    accessList.forEach(rules::add);
+    return from;
+  }
+
+  /**
+   * Creates immutable group.
+   * @param rules rules of the robots.txt
+   * @param from number of the first rule of the section (see {@link #addRules(RuleArena.Builder)})
+   * @param compileThreshold number of queries after which rules are compiled or negative number to never compile
+   * @return group
+   */
+  public Group toGroup(RuleArena rules, int from, int compileThreshold) {
+    return new Group(userAgents, anyAgent, crawlDelay, rules, from, from + accessList.size(), compileThreshold);
+  }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import static com.panforge.robotstxt.URLDecoder.decode;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sitemap scanner.
+ * <p>
+ * Collects <code>Sitemap</code> (and optionally <code>Host</code>) directives
+ * from robots.txt without parsing groups and rules. Lines are examined
+ * directly in the raw bytes; a string is created only for the values of the
+ * directives of interest. Results are the same as obtained from
+ * {@link RobotsTxt#getSitemaps()} and {@link RobotsTxt#getHost()} after full
+ * parsing.
+ */
+public class SitemapScanner {
+
+  private static final byte[] SITEMAP = "sitemap".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] HOST = "host".getBytes(StandardCharsets.US_ASCII);
+  private static final int BUFFER_SIZE = 8192;
+
+  private final boolean includeHost;
+
+  /**
+   * Creates instance of the scanner collecting site maps only.
+   */
+  public SitemapScanner() {
+    this(false);
+  }
+
+  /**
+   * Creates instance of the scanner.
+   *
+   * @param includeHost <code>true</code> to collect host as well
+   */
+  public SitemapScanner(boolean includeHost) {
+    this.includeHost = includeHost;
+  }
+
+  /**
+   * Scans robots.txt content.
+   *
+   * @param content robots.txt content
+   * @return scan result
+   */
+  public Result scan(byte[] content) {
+    Result result = new Result();
+    scanLines(content, 0, content.length, true, result);
+    return result;
+  }
+
+  /**
+   * Scans robots.txt stream.
+   *
+   * @param inputStream input stream with robots.txt content
+   * @return scan result
+   * @throws IOException if reading stream fails
+   */
+  public Result scan(InputStream inputStream) throws IOException {
+    Result result = new Result();
+    byte[] buffer = new byte[BUFFER_SIZE];
+    int length = 0;
+    for (int n = inputStream.read(buffer, length, buffer.length - length); n >= 0; n = inputStream.read(buffer, length, buffer.length - length)) {
+      length += n;
+      int consumed = scanLines(buffer, 0, length, false, result);
+      if (consumed > 0) {
+        System.arraycopy(buffer, consumed, buffer, 0, length - consumed);
+        length -= consumed;
+      } else if (length == buffer.length) {
+        // single line longer than the buffer
+        byte[] larger = new byte[buffer.length * 2];
+        System.arraycopy(buffer, 0, larger, 0, length);
+        buffer = larger;
+      }
+    }
+    scanLines(buffer, 0, length, true, result);
+    return result;
+  }
+
+  /**
+   * Scans complete lines.
+   *
+   * @param bytes bytes
+   * @param offset start offset
+   * @param limit end offset
+   * @param last <code>true</code> if there will be no more bytes, thus the
+   * trailing bytes form the last line
+   * @param result result to collect directives
+   * @return offset of the first byte not consumed
+   */
+  private int scanLines(byte[] bytes, int offset, int limit, boolean last, Result result) {
+    int lineStart = offset;
+    for (int i = offset; i < limit; i++) {
+      byte b = bytes[i];
+      if (b == '\n' || b == '\r') {
+        scanLine(bytes, lineStart, i, result);
+        lineStart = i + 1;
+      }
+    }
+    if (last && lineStart < limit) {
+      scanLine(bytes, lineStart, limit, result);
+      lineStart = limit;
+    }
+    return lineStart;
+  }
+
+  private void scanLine(byte[] bytes, int start, int end, Result result) {
+    while (start < end && isWhitespace(bytes[start])) {
+      start++;
+    }
+    if (start >= end) {
+      return;
+    }
+    byte first = (byte) (bytes[start] | 0x20);
+    if (first == 's') {
+      int valueStart = matchKey(bytes, start, end, SITEMAP);
+      if (valueStart >= 0) {
+        result.sitemaps.add(value(bytes, valueStart, end));
+      }
+    } else if (first == 'h' && includeHost) {
+      int valueStart = matchKey(bytes, start, end, HOST);
+      if (valueStart >= 0) {
+        result.host = value(bytes, valueStart, end);
+      }
+    }
+  }
+
+  /**
+   * Matches key (case-insensitive) followed by optional whitespace and colon.
+   *
+   * @return offset of the value or <code>-1</code> if key doesn't match
+   */
+  private static int matchKey(byte[] bytes, int start, int end, byte[] key) {
+    if (end - start <= key.length) {
+      return -1;
+    }
+    for (int k = 0; k < key.length; k++) {
+      if ((bytes[start + k] | 0x20) != key[k]) {
+        return -1;
+      }
+    }
+    int i = start + key.length;
+    while (i < end && isWhitespace(bytes[i])) {
+      i++;
+    }
+    return i < end && bytes[i] == ':' ? i + 1 : -1;
+  }
+
+  private static String value(byte[] bytes, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (bytes[i] == '#') {
+        end = i;
+        break;
+      }
+    }
+    while (start < end && isWhitespace(bytes[start])) {
+      start++;
+    }
+    while (end > start && isWhitespace(bytes[end - 1])) {
+      end--;
+    }
+    return decode(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Checks if byte is whitespace as understood by {@link String#trim()}.
+   */
+  private static boolean isWhitespace(byte b) {
+    return b >= 0 && b <= ' ';
+  }
+
+  /**
+   * Scan result.
+   */
+  public static final class Result {
+
+    private final List<String> sitemaps = new ArrayList<>();
+    private String host;
+
+    /**
+     * Gets site maps.
+     *
+     * @return list of site map URL's.
+     */
+    public List<String> getSitemaps() {
+      return Collections.unmodifiableList(sitemaps);
+    }
+
+    /**
+     * Gets host.
+     *
+     * @return host or <code>null</code> if no host declared or host not requested
+     */
+    public String getHost() {
+      return host;
+    }
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event emitted when matching a path against a pattern
+ * exceeded its time budget.
+ * <p>
+ * Disabled by default; enable with <code>com.panforge.robotstxt.Timeout#enabled=true</code>.
+ */
+@Name("com.panforge.robotstxt.Timeout")
+@Label("Robots.txt Matching Timeout")
+@Category("Robots.txt")
+@Description("Matching path against a robots.txt pattern exceeded its time budget")
+@Enabled(false)
+class TimeoutEvent extends jdk.jfr.Event {
+
+  @Label("Pattern")
+  String pattern;
+
+  @Label("Path")
+  String path;
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trivial robots.txt.
+ * <p>
+ * Shared representations of the most common robots.txt files: empty one,
+ * one allowing everything (<code>Disallow:</code>) and one disallowing
+ * everything (<code>Disallow: /</code>) for all the agents. Queries are
+ * answered without matching and without allocation. Queries are reported to
+ * the global metrics listener only.
+ */
+final class TrivialRobotsTxt implements RobotsTxt {
+
+  /**
+   * Empty robots.txt.
+   */
+  static final TrivialRobotsTxt EMPTY = new TrivialRobotsTxt(null, "");
+
+  /**
+   * Robots.txt allowing everything.
+   */
+  static final TrivialRobotsTxt ALLOW_ALL = new TrivialRobotsTxt(new Access("Disallow:", "", true), String.format("User-agent: *%nDisallow:%n%n"));
+
+  /**
+   * Robots.txt disallowing everything.
+   */
+  static final TrivialRobotsTxt DISALLOW_ALL = new TrivialRobotsTxt(new Access("Disallow: /", "/", false), String.format("User-agent: *%nDisallow: /%n%n"));
+
+  private static final Grant ALLOWED = new Match(null, Access.DEFAULT);
+
+  private final Access access;
+  private final Grant verdict;
+  private final List<String> disallowList;
+  private final String text;
+
+  private TrivialRobotsTxt(Access access, String text) {
+    this.access = access;
+    this.verdict = access != null ? new Match(null, access) : null;
+    this.disallowList = access != null && !access.hasAccess()
+            ? Collections.singletonList(access.getClause())
+            : Collections.emptyList();
+    this.text = text;
+  }
+
+  @Override
+  public boolean query(String userAgent, String path) {
+    return ask(userAgent, path).hasAccess();
+  }
+
+  @Override
+  public Grant ask(String userAgent, String path) {
+    MetricsListener metricsListener = Metrics.getGlobalListener();
+    QueryEvent event = QueryEvent.sample();
+    if (metricsListener == null && event == null) {
+      return answer(path, null);
+    }
+
+    long start = System.nanoTime();
+    Grant grant = answer(path, metricsListener);
+    int matchedRules = grant == verdict ? 1 : 0;
+    if (metricsListener != null) {
+      metricsListener.onQuery(System.nanoTime() - start, matchedRules);
+    }
+    if (event != null) {
+      event.end();
+      event.userAgent = userAgent;
+      event.path = path;
+      event.rules = access != null ? 1 : 0;
+      event.matchedRules = matchedRules;
+      event.allowed = grant.hasAccess();
+      event.commit();
+    }
+    return grant;
+  }
+
+  @Override
+  public Map<String, Grant> askAll(Collection<String> userAgents, String path) {
+    if (Metrics.getGlobalListener() != null) {
+      return RobotsTxt.super.askAll(userAgents, path);
+    }
+    // answer doesn't depend on user agent
+    Grant grant = answer(path, null);
+    Map<String, Grant> grants = new LinkedHashMap<>();
+    for (String userAgent : userAgents) {
+      grants.put(userAgent, grant);
+    }
+    return grants;
+  }
+
+  private Grant answer(String path, MetricsListener metricsListener) {
+    if (access == null || path == null) {
+      return ALLOWED;
+    }
+    if (path.startsWith("/")) {
+      // already relative; canonical form starts with slash as well
+      return "/robots.txt".equalsIgnoreCase(path) ? ALLOWED : verdict;
+    }
+    String relativePath = MatchingStrategy.DEFAULT.prepare(RobotsTxtImpl.relativize(path));
+    return access.matches(relativePath, MatchingStrategy.DEFAULT, metricsListener) ? verdict : ALLOWED;
+  }
+
+  /**
+   * Gets crawl delay.
+   *
+   * @return always <code>null</code>
+   * @deprecated use {@link #ask} to get {@link Grant} from which {@link Grant#getCrawlDelay} might be invoked.
+   */
+  @Override
+  @Deprecated
+  public Integer getCrawlDelay() {
+    return null;
+  }
+
+  @Override
+  public String getHost() {
+    return null;
+  }
+
+  @Override
+  public List<String> getSitemaps() {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public List<String> getDisallowList(String userAgent) {
+    return disallowList;
+  }
+
+  /**
+   * Gets footprint.
+   * <p>
+   * Trivial instances are shared, thus retain no memory of their own.
+   *
+   * @return footprint
+   */
+  @Override
+  public Footprint getFootprint() {
+    return access != null ? new Footprint(0, 1, 1, 0, access.getClause().length()) : Footprint.NONE;
+  }
+
+  @Override
+  public String toString() {
+    return text;
+  }
+}
@@ -27,14 +27,16 @@ class URLDecoder {
    * @return encoded string
    */
   public static String decode(String str) {
-    if (str!=null) {
+    if (str!=null && (str.indexOf('%')>=0 || str.indexOf('+')>=0)) {
       try {
-        StringBuilder sb = new StringBuilder();
-        for (int idx = str.toLowerCase().indexOf("%2f"); idx>=0; idx = str.toLowerCase().indexOf("%2f")) {
-          sb.append(java.net.URLDecoder.decode(str.substring(0, idx), StandardCharsets.UTF_8)).append(str, idx, idx+3);
-          str = str.substring(idx+3);
+        String lower = str.toLowerCase();
+        StringBuilder sb = new StringBuilder(str.length());
+        int start = 0;
+        for (int idx = lower.indexOf("%2f"); idx>=0; idx = lower.indexOf("%2f", start)) {
+          sb.append(java.net.URLDecoder.decode(str.substring(start, idx), StandardCharsets.UTF_8)).append(str, idx, idx+3);
+          start = idx+3;
         }
-        sb.append(java.net.URLDecoder.decode(str, StandardCharsets.UTF_8));
+        sb.append(java.net.URLDecoder.decode(str.substring(start), StandardCharsets.UTF_8));
         str = sb.toString();
       } catch (Exception ex) {
       }
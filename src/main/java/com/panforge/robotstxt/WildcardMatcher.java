@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+/**
+ * Wildcard matcher.
+ * <p>
+ * Matches a pattern against the beginning of a path. Allowed wildcards:<br>
+ * <br>
+ * &nbsp;&nbsp;&nbsp;* - matches any sequence of characters<br>
+ * &nbsp;&nbsp;&nbsp;$ - matches end of path (if last character of the pattern)<br>
+ * <br>
+ * Literal segments between wildcards are located left to right, each at its
+ * earliest position, thus matching never backtracks and takes at most
+ * <code>O(pattern length * path length)</code> comparisons.
+ */
+final class WildcardMatcher {
+
+  private WildcardMatcher() {
+  }
+
+  /**
+   * Matches path with a pattern.
+   *
+   * @param pattern pattern
+   * @param path path
+   * @return <code>true</code> if pattern matches beginning of the path
+   */
+  static boolean matches(String pattern, String path) {
+    return matches(pattern, 0, pattern.length(), path);
+  }
+
+  /**
+   * Matches path with a pattern being a region of a string.
+   *
+   * @param text text holding the pattern
+   * @param from start of the pattern (inclusive)
+   * @param to end of the pattern (exclusive)
+   * @param path path
+   * @return <code>true</code> if pattern matches beginning of the path
+   */
+  static boolean matches(String text, int from, int to, String path) {
+    int end = to;
+    boolean anchored = end > from && text.charAt(end - 1) == '$';
+    if (anchored) {
+      end--;
+    }
+
+    int star = indexOfStar(text, from, end);
+    if (star < 0) {
+      // no wildcards: prefix or exact match
+      int length = end - from;
+      return anchored
+              ? path.length() == length && path.regionMatches(0, text, from, length)
+              : path.regionMatches(0, text, from, length);
+    }
+    if (!path.regionMatches(0, text, from, star - from)) {
+      return false;
+    }
+
+    int position = star - from;
+    int segmentStart = star + 1;
+    while (true) {
+      int nextStar = indexOfStar(text, segmentStart, end);
+      int segmentEnd = nextStar >= 0 ? nextStar : end;
+      int segmentLength = segmentEnd - segmentStart;
+      if (nextStar < 0) {
+        if (anchored) {
+          int at = path.length() - segmentLength;
+          return at >= position && path.regionMatches(at, text, segmentStart, segmentLength);
+        }
+        return indexOf(path, position, text, segmentStart, segmentLength) >= 0;
+      }
+      int at = indexOf(path, position, text, segmentStart, segmentLength);
+      if (at < 0) {
+        return false;
+      }
+      position = at + segmentLength;
+      segmentStart = nextStar + 1;
+    }
+  }
+
+  private static int indexOfStar(String pattern, int from, int end) {
+    for (int i = from; i < end; i++) {
+      if (pattern.charAt(i) == '*') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int indexOf(String path, int from, String pattern, int segmentStart, int segmentLength) {
+    for (int at = from; at + segmentLength <= path.length(); at++) {
+      if (path.regionMatches(at, pattern, segmentStart, segmentLength)) {
+        return at;
+      }
+    }
+    return -1;
+  }
+}
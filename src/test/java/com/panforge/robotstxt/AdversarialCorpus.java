@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Generator of pathological robots.txt inputs.
+ * <p>
+ * Every generator takes a size parameter; cost of processing the generated
+ * input is expected to grow at most linearly with it.
+ */
+final class AdversarialCorpus {
+
+  private AdversarialCorpus() {}
+
+  /**
+   * Single group with many rules.
+   * @param lines number of rule lines
+   * @return robots.txt content
+   */
+  static byte[] manyLines(int lines) {
+    StringBuilder sb = new StringBuilder(lines * 24).append("User-agent: *\n");
+    for (int i = 0; i < lines; i++) {
+      sb.append(i % 2 == 0 ? "Disallow: /private/" : "Allow: /public/").append(i).append("/*.html\n");
+    }
+    return bytes(sb);
+  }
+
+  /**
+   * Single rule with very long clause.
+   * @param length length of the clause
+   * @return robots.txt content
+   */
+  static byte[] longLine(int length) {
+    StringBuilder sb = new StringBuilder(length + 32).append("User-agent: *\nDisallow: /");
+    for (int i = 1; i < length; i++) {
+      sb.append((char) ('a' + i % 26));
+    }
+    return bytes(sb.append('\n'));
+  }
+
+  /**
+   * Many groups; every other group repeats an earlier agent so groups get merged.
+   * @param groups number of groups
+   * @return robots.txt content
+   */
+  static byte[] manyGroups(int groups) {
+    StringBuilder sb = new StringBuilder(groups * 48);
+    for (int i = 0; i < groups; i++) {
+      int agent = i % 2 == 0 ? i : i / 2;
+      sb.append("User-agent: bot").append(agent).append('\n')
+        .append("Crawl-delay: 1\n")
+        .append("Disallow: /g").append(i).append("/\n\n");
+    }
+    return bytes(sb);
+  }
+
+  /**
+   * Clause made of percent-encoded octets, including encoded slashes and
+   * nested escapes.
+   * @param octets number of escapes
+   * @return robots.txt content
+   */
+  static byte[] deepPercentEncoding(int octets) {
+    StringBuilder sb = new StringBuilder(octets * 3 + 32).append("User-agent: *\nDisallow: /");
+    String[] escapes = {"%2f", "%2F", "%25", "%41", "%c3%a9"};
+    for (int i = 0; i < octets; i++) {
+      sb.append(escapes[i % escapes.length]);
+    }
+    return bytes(sb.append('\n'));
+  }
+
+  /**
+   * Wildcard clause which never matches a path made of the repeated letter.
+   * @param stars number of wildcard segments
+   * @return clause
+   */
+  static String wildcardClause(int stars) {
+    StringBuilder sb = new StringBuilder("/");
+    for (int i = 0; i < stars; i++) {
+      sb.append("*a");
+    }
+    return sb.append("*b").toString();
+  }
+
+  /**
+   * Long path made of a single repeated letter.
+   * @param length length of the path
+   * @return path
+   */
+  static String longPath(int length) {
+    StringBuilder sb = new StringBuilder(length).append('/');
+    for (int i = 1; i < length; i++) {
+      sb.append('a');
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Path which needs to be canonicalized: non-ASCII characters and
+   * lower-case escapes.
+   * @param length number of characters to encode
+   * @return path
+   */
+  static String encodedPath(int length) {
+    StringBuilder sb = new StringBuilder(length * 3).append('/');
+    for (int i = 1; i < length; i++) {
+      sb.append(i % 2 == 0 ? "é" : "%2f");
+    }
+    return sb.toString();
+  }
+
+  private static byte[] bytes(StringBuilder sb) {
+    return sb.toString().getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntFunction;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Complexity regression tests on pathological inputs.
+ * <p>
+ * Each workload is measured at size <i>n</i> and <i>8n</i>. Linear cost gives
+ * ratio of about 8, quadratic one about 64; limits are set generously in
+ * between so that noisy build machines don't fail the build.
+ */
+public class AdversarialInputsTest {
+
+  private static final int SCALE = 8;
+  private static final double TIME_SLACK = 3.0;
+  private static final double ALLOCATION_SLACK = 1.5;
+  private static final long TIME_FLOOR_NANOS = 5_000_000L;
+  private static final long ALLOCATION_FLOOR_BYTES = 1L << 20;
+  private static final int RUNS = 5;
+
+  private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private final RobotsTxtReader reader = new RobotsTxtReader();
+
+  @Test
+  public void testManyLines() {
+    assertLinear("many lines", 12_500, n -> parse(AdversarialCorpus.manyLines(n)));
+    RobotsTxt robotsTxt = reader.readRobotsTxt(AdversarialCorpus.manyLines(100_000));
+    assertFalse(robotsTxt.query("any", "/private/99998/index.html"));
+    assertTrue(robotsTxt.query("any", "/public/99999/index.html"));
+  }
+
+  @Test
+  public void testLongLine() {
+    assertLinear("long line", 128 * 1024, n -> parse(AdversarialCorpus.longLine(n)));
+    RobotsTxt robotsTxt = reader.readRobotsTxt(AdversarialCorpus.longLine(1 << 20));
+    assertTrue(robotsTxt.query("any", "/abc"));
+  }
+
+  @Test
+  public void testManyGroups() {
+    assertLinear("many groups", 1_000, n -> parse(AdversarialCorpus.manyGroups(n)));
+    RobotsTxt robotsTxt = reader.readRobotsTxt(AdversarialCorpus.manyGroups(8_000));
+    assertFalse(robotsTxt.query("bot3", "/g7/"));
+    assertTrue(robotsTxt.query("bot3", "/g8/"));
+  }
+
+  @Test
+  public void testDeepPercentEncoding() {
+    assertLinear("deep percent encoding", 32 * 1024, n -> parse(AdversarialCorpus.deepPercentEncoding(n)));
+  }
+
+  @Test
+  public void testWildcardClauseOnLongPath() {
+    Access access = new Access("", AdversarialCorpus.wildcardClause(16), false);
+    assertLinear("wildcards on long path", 64 * 1024, n -> {
+      String path = MatchingStrategy.DEFAULT.prepare(AdversarialCorpus.longPath(n));
+      return () -> assertFalse(access.matches(path, MatchingStrategy.DEFAULT, null));
+    });
+  }
+
+  @Test
+  public void testQueryManyRules() {
+    assertLinear("query many rules", 2_000, n -> {
+      RobotsTxt robotsTxt = reader.readRobotsTxt(AdversarialCorpus.manyLines(n));
+      return () -> robotsTxt.query("any", "/other/index.html");
+    });
+  }
+
+  @Test
+  public void testQueryEncodedPath() {
+    RobotsTxt robotsTxt = reader.readRobotsTxt(AdversarialCorpus.manyLines(8));
+    assertLinear("query encoded path", 32 * 1024, n -> {
+      String path = AdversarialCorpus.encodedPath(n);
+      return () -> robotsTxt.query("any", path);
+    });
+  }
+
+  @Test
+  public void testFootprint() {
+    assertLinear("footprint of many lines", 12_500, n -> footprint(AdversarialCorpus.manyLines(n)));
+    assertLinear("footprint of long line", 128 * 1024, n -> footprint(AdversarialCorpus.longLine(n)));
+    assertLinear("footprint of many groups", 1_000, n -> footprint(AdversarialCorpus.manyGroups(n)));
+    assertLinear("footprint of deep percent encoding", 32 * 1024, n -> footprint(AdversarialCorpus.deepPercentEncoding(n)));
+  }
+
+  private Runnable parse(byte[] content) {
+    return () -> reader.readRobotsTxt(content);
+  }
+
+  private Runnable footprint(byte[] content) {
+    RobotsTxt robotsTxt = reader.readRobotsTxt(content);
+    return robotsTxt::getFootprint;
+  }
+
+  /**
+   * Asserts that cost of the workload grows at most linearly.
+   * @param name name of the workload
+   * @param n base size
+   * @param workload workload factory; input is generated outside of measurement
+   */
+  private static void assertLinear(String name, int n, IntFunction<Runnable> workload) {
+    Cost small = measure(workload.apply(n));
+    Cost large = measure(workload.apply(SCALE * n));
+    assertTrue(String.format("%s: time grew from %d ns to %d ns", name, small.nanos, large.nanos),
+            large.nanos <= SCALE * TIME_SLACK * Math.max(small.nanos, TIME_FLOOR_NANOS));
+    assertTrue(String.format("%s: allocation grew from %d B to %d B", name, small.bytes, large.bytes),
+            large.bytes <= SCALE * ALLOCATION_SLACK * Math.max(small.bytes, ALLOCATION_FLOOR_BYTES));
+  }
+
+  /**
+   * Measures best of several runs after warm up.
+   */
+  private static Cost measure(Runnable task) {
+    long threadId = Thread.currentThread().getId();
+    for (int i = 0; i < RUNS; i++) {
+      task.run();
+    }
+    long nanos = Long.MAX_VALUE;
+    long bytes = Long.MAX_VALUE;
+    for (int i = 0; i < RUNS; i++) {
+      long allocated = THREADS.getThreadAllocatedBytes(threadId);
+      long start = System.nanoTime();
+      task.run();
+      nanos = Math.min(nanos, System.nanoTime() - start);
+      bytes = Math.min(bytes, THREADS.getThreadAllocatedBytes(threadId) - allocated);
+    }
+    return new Cost(nanos, bytes);
+  }
+
+  private static final class Cost {
+    final long nanos;
+    final long bytes;
+
+    Cost(long nanos, long bytes) {
+      this.nanos = nanos;
+      this.bytes = bytes;
+    }
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Testing per-agent view.
+ */
+public class AgentViewTest {
+
+  @Test
+  public void testSameGrantsAsRobotsTxt() {
+    Random random = new Random(7);
+    for (int round = 0; round < 50; round++) {
+      StringBuilder content = new StringBuilder("User-agent: *\nCrawl-delay: 3\n");
+      for (int rule = random.nextInt(12); rule > 0; rule--) {
+        content.append(random.nextBoolean() ? "Allow: " : "Disallow: ").append(RandomRobotsTxt.path(random));
+        if (random.nextInt(4) == 0) {
+          content.append('$');
+        }
+        content.append('\n');
+      }
+      RobotsTxt robotsTxt = new RobotsTxtReader().readRobotsTxt(content.toString().getBytes(StandardCharsets.UTF_8));
+      AgentView view = new AgentView(robotsTxt, "SomeBot", 64);
+      for (int query = 0; query < 500; query++) {
+        String path = RandomRobotsTxt.path(random);
+        Grant expected = robotsTxt.ask("SomeBot", path);
+        Grant actual = view.ask(path);
+        String message = content + "path: " + path;
+        assertEquals(message, expected.hasAccess(), actual.hasAccess());
+        assertEquals(message, expected.getClause(), actual.getClause());
+        assertEquals(message, expected.getCrawlDelay(), actual.getCrawlDelay());
+      }
+      assertTrue(view.size() <= 64);
+    }
+  }
+
+  @Test
+  public void testSiblingsShareMemo() {
+    RobotsTxt robotsTxt = new RobotsTxtReader().readRobotsTxt(
+            "User-agent: *\nDisallow: /product/\nAllow: /product/public/\nDisallow: /cart$\n".getBytes(StandardCharsets.UTF_8));
+    AgentView view = new AgentView(robotsTxt, "SomeBot");
+    for (int i = 0; i < 1000; i++) {
+      assertFalse(view.query("/product/" + i));
+      assertTrue(view.query("/product/public/" + i));
+      assertTrue(view.query("/list/page/" + i));
+    }
+    assertTrue(view.query("/cart/x"));
+    assertFalse(view.query("/cart"));
+    assertTrue(view.query("/cartx"));
+    assertTrue("memoized prefixes: " + view.size(), view.size() <= 20);
+  }
+
+  @Test
+  public void testWildcardGroupIsNotMemoized() {
+    RobotsTxt robotsTxt = new RobotsTxtReader().readRobotsTxt(
+            "User-agent: *\nDisallow: /*.pdf$\n".getBytes(StandardCharsets.UTF_8));
+    AgentView view = new AgentView(robotsTxt, "SomeBot");
+    assertFalse(view.query("/docs/a.pdf"));
+    assertTrue(view.query("/docs/a.html"));
+    assertEquals(0, view.size());
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Differential testing of compiled matchers against interpreted matching.
+ */
+public class CompiledMatcherTest {
+
+  @Test
+  public void testSameGrantsAsInterpreted() {
+    RobotsTxtReader interpreted = new RobotsTxtReader();
+    RobotsTxtReader compiled = new RobotsTxtReader();
+    compiled.setCompileThreshold(0);
+    Random random = new Random(11);
+
+    for (int round = 0; round < 300; round++) {
+      String content = RandomRobotsTxt.robotsTxt(random, 15);
+      RobotsTxt expectedRobots = interpreted.readRobotsTxt(content.getBytes(StandardCharsets.UTF_8));
+      RobotsTxt actualRobots = compiled.readRobotsTxt(content.getBytes(StandardCharsets.UTF_8));
+      for (int query = 0; query < 200; query++) {
+        String path = RandomRobotsTxt.clause(random, false);
+        String agent = random.nextBoolean() ? "SomeBot" : "OtherBot";
+        Grant expected = expectedRobots.ask(agent, path);
+        Grant actual = actualRobots.ask(agent, path);
+        String message = content + "agent: " + agent + ", path: " + path;
+        assertEquals(message, expected.hasAccess(), actual.hasAccess());
+        assertEquals(message, expected.getClause(), actual.getClause());
+        assertEquals(message, expected.toString(), actual.toString());
+      }
+    }
+  }
+
+  @Test
+  public void testCompilesAfterThreshold() {
+    RobotsTxtReader reader = new RobotsTxtReader();
+    reader.setCompileThreshold(3);
+    RobotsTxt robotsTxt = reader.readRobotsTxt("User-agent: *\nDisallow: /a\nAllow: /a/b\nDisallow: /*.pdf$\n".getBytes(StandardCharsets.UTF_8));
+    for (int i = 0; i < 10; i++) {
+      assertFalse(robotsTxt.query("Bot", "/a/c"));
+      assertTrue(robotsTxt.query("Bot", "/a/b/c"));
+      assertFalse(robotsTxt.query("Bot", "/x/y.pdf"));
+      assertTrue(robotsTxt.query("Bot", "/x/y.pdf?download"));
+    }
+  }
+}
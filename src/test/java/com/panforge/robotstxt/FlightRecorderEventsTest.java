@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Testing flight recorder events.
+ */
+public class FlightRecorderEventsTest {
+
+  private static final byte[] CONTENT = "User-agent: *\nDisallow: /private/\n\nUser-agent: Bot\nDisallow: /\nAllow: /public/".getBytes(StandardCharsets.UTF_8);
+
+  private int sampling;
+
+  @Before
+  public void setUp() {
+    sampling = QueryEvent.getSampling();
+  }
+
+  @After
+  public void tearDown() {
+    QueryEvent.setSampling(sampling);
+  }
+
+  @Test
+  public void testEventsAreRecorded() throws Exception {
+    Path file = Files.createTempFile("robotstxt", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable("com.panforge.robotstxt.Parse");
+      recording.enable("com.panforge.robotstxt.Query");
+      recording.enable("com.panforge.robotstxt.Timeout");
+      recording.start();
+      QueryEvent.setSampling(1);
+
+      RobotsTxt robotsTxt = new RobotsTxtReader().readRobotsTxt(CONTENT);
+      robotsTxt.query("Bot", "/public/index.html");
+
+      MatchingStrategy timingOut = (pattern, path) -> {
+        throw new TimeLimitedMatcherFactory.RegExpTimeoutException("timeout");
+      };
+      new RobotsTxtReader(timingOut, WinningStrategy.DEFAULT).readRobotsTxt(CONTENT).query("Any", "/private/data.txt");
+
+      recording.stop();
+      recording.dump(file);
+
+      List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+      RecordedEvent parse = only(events, "com.panforge.robotstxt.Parse").get(0);
+      assertEquals(CONTENT.length, parse.getLong("bytes"));
+      assertEquals(2, parse.getInt("groups"));
+      assertEquals(3, parse.getInt("rules"));
+
+      List<RecordedEvent> queries = only(events, "com.panforge.robotstxt.Query");
+      assertEquals(2, queries.size());
+      RecordedEvent query = queries.get(0);
+      assertEquals("Bot", query.getString("userAgent"));
+      assertEquals("/public/index.html", query.getString("path"));
+      assertEquals(2, query.getInt("rules"));
+      assertEquals(2, query.getInt("matchedRules"));
+      assertTrue(query.getBoolean("allowed"));
+
+      RecordedEvent timeout = only(events, "com.panforge.robotstxt.Timeout").get(0);
+      assertEquals("/private/", timeout.getString("pattern"));
+      assertEquals("/private/data.txt", timeout.getString("path"));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test
+  public void testEventsAreDisabledByDefault() throws Exception {
+    Path file = Files.createTempFile("robotstxt", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.start();
+      new RobotsTxtReader().readRobotsTxt(CONTENT).query("Bot", "/public/index.html");
+      recording.stop();
+      recording.dump(file);
+
+      List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+      assertTrue(events.stream().noneMatch(e -> e.getEventType().getName().startsWith("com.panforge.robotstxt.")));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  private static List<RecordedEvent> only(List<RecordedEvent> events, String name) {
+    return events.stream().filter(e -> e.getEventType().getName().equals(name)).collect(Collectors.toList());
+  }
+}
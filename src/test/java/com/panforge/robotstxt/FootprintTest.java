@@ -0,0 +1,151 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assume;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Testing memory footprint.
+ * <p>
+ * Estimates are validated against heap usage measured after garbage
+ * collection with many instances of the same robots.txt retained. Used heap
+ * is only an approximation of the live objects: it is exact right after a
+ * full collection of a stop-the-world collector, yet not with concurrent
+ * collectors, and it counts anything else allocated meanwhile (static caches
+ * of other tests included). Therefore the build runs this test in its own
+ * JVM with the serial collector (see <code>pom.xml</code>); measurements are
+ * skipped if explicit collections are disabled.
+ */
+public class FootprintTest {
+
+  private static final long RETAINED = 16L << 20;
+  private static final double TOLERANCE = 0.1;
+
+  @Test
+  public void testShape() {
+    RobotsTxt robotsTxt = new RobotsTxtReader().readRobotsTxt((
+            "User-agent: *\nDisallow: /private\nAllow: /private/*.html$\nCrawl-delay: 500\n\n"
+            + "User-agent: SomeBot\nUser-agent: OtherBot\nDisallow: /tmp/\nDisallow: /*?session=\nDisallow: /é\n").getBytes(StandardCharsets.UTF_8));
+    Footprint footprint = robotsTxt.getFootprint();
+
+    assertEquals(2, footprint.getGroups());
+    assertEquals(5, footprint.getRules());
+    assertEquals(2, footprint.getWildcardRules());
+    assertEquals("/private/*.html$".length(), footprint.getMaxClauseLength());
+    assertTrue(footprint.getRetainedBytes() > 0);
+  }
+
+  @Test
+  public void testSharedInstancesRetainNothing() {
+    Footprint footprint = new RobotsTxtReader().readRobotsTxt("User-agent: *\nDisallow: /\n".getBytes(StandardCharsets.UTF_8)).getFootprint();
+    assertEquals(0, footprint.getRetainedBytes());
+    assertEquals(1, footprint.getRules());
+  }
+
+  @Test
+  public void testEstimateOfSampleRobotsTxt() throws Exception {
+    assertEstimate(new RobotsTxtReader(), load("robots.txt"), false);
+  }
+
+  @Test
+  public void testEstimateOfLargeRobotsTxt() throws Exception {
+    StringBuilder sb = new StringBuilder();
+    for (int group = 0; group < 20; group++) {
+      sb.append("User-agent: Bot").append(group).append('\n');
+      for (int rule = 0; rule < 50; rule++) {
+        sb.append(rule % 3 == 0 ? "Allow: " : "Disallow: ").append("/section").append(group).append("/item-").append(rule);
+        sb.append(rule % 4 == 0 ? "*.pdf$" : "/").append(rule % 7 == 0 ? "żółw" : "").append('\n');
+      }
+      sb.append("Crawl-delay: ").append(group * 100).append("\n\n");
+    }
+    sb.append("Sitemap: https://example.com/sitemap.xml\nHost: example.com\n");
+    assertEstimate(new RobotsTxtReader(), sb.toString().getBytes(StandardCharsets.UTF_8), false);
+  }
+
+  @Test
+  public void testEstimateIncludesCompiledMatchers() throws Exception {
+    StringBuilder sb = new StringBuilder("User-agent: *\n");
+    for (int rule = 0; rule < 200; rule++) {
+      sb.append("Disallow: /catalog/").append(rule).append(rule % 5 == 0 ? "/*/print" : "/").append('\n');
+    }
+    RobotsTxtReader reader = new RobotsTxtReader();
+    reader.setCompileThreshold(0);
+    RobotsTxt robotsTxt = reader.readRobotsTxt(sb.toString().getBytes(StandardCharsets.UTF_8));
+    long interpreted = robotsTxt.getFootprint().getRetainedBytes();
+    robotsTxt.query("Bot", "/catalog/1/");
+    assertTrue(robotsTxt.getFootprint().getRetainedBytes() > interpreted);
+
+    assertEstimate(reader, sb.toString().getBytes(StandardCharsets.UTF_8), false);
+    assertEstimate(reader, sb.toString().getBytes(StandardCharsets.UTF_8), true);
+  }
+
+  /**
+   * Measures heap retained by many instances parsed from the content and
+   * compares it with the estimate.
+   */
+  private static void assertEstimate(RobotsTxtReader reader, byte[] content, boolean query) throws InterruptedException {
+    Assume.assumeFalse("explicit garbage collection disabled",
+            ManagementFactory.getRuntimeMXBean().getInputArguments().contains("-XX:+DisableExplicitGC"));
+    // enough instances to retain a few megabytes, thus noise is negligible
+    long estimated = reader.readRobotsTxt(content).getFootprint().getRetainedBytes();
+    RobotsTxt[] instances = new RobotsTxt[(int) Math.max(1000, RETAINED / estimated)];
+    long before = usedHeap();
+    for (int i = 0; i < instances.length; i++) {
+      instances[i] = reader.readRobotsTxt(content);
+      if (query) {
+        instances[i].query("Bot", "/");
+      }
+    }
+    long measured = (usedHeap() - before) / instances.length;
+    estimated = instances[0].getFootprint().getRetainedBytes();
+
+    assertTrue("estimated: " + estimated + ", measured: " + measured, Math.abs(estimated - measured) <= measured * TOLERANCE);
+  }
+
+  /**
+   * Gets used heap once it settles: objects left by other tests might be
+   * released only after cleaning or finalization, thus a few collections later.
+   */
+  private static long usedHeap() throws InterruptedException {
+    Runtime runtime = Runtime.getRuntime();
+    long used = -1;
+    for (int i = 0; i < 20; i++) {
+      System.gc();
+      Thread.sleep(20);
+      long current = runtime.totalMemory() - runtime.freeMemory();
+      if (current == used) {
+        break;
+      }
+      used = current;
+    }
+    return used;
+  }
+
+  private static byte[] load(String name) throws Exception {
+    try (InputStream inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(name)) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      inputStream.transferTo(out);
+      return out.toByteArray();
+    }
+  }
+}
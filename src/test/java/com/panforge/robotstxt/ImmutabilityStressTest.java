@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Testing sharing of parsed robots.txt between threads.
+ */
+public class ImmutabilityStressTest {
+
+  private static final int THREADS = 8;
+
+  private static final String CONTENT
+          = "User-agent: *\n"
+          + "Disallow: /private/\n"
+          + "Allow: /private/public/\n"
+          + "Crawl-delay: 5\n"
+          + "\n"
+          + "User-agent: SomeBot\n"
+          + "Disallow: /\n"
+          + "Allow: /open/*.html$\n"
+          + "\n"
+          + "User-agent: OtherBot\n"
+          + "Disallow: /other/\n"
+          + "\n"
+          + "User-agent: SomeBot\n"
+          + "Disallow: /merged/\n"
+          + "Crawl-delay: 2\n"
+          + "\n"
+          + "Sitemap: http://example.com/sitemap.xml\n";
+
+  private static final String[] AGENTS = {null, "Any", "SomeBot", "SomeBot/2.1", "Mozilla/5.0 (compatible; OtherBot/1.0)", "OtherBot"};
+
+  private static final String[] PATHS = {"/", "/private/a", "/private/public/b", "/open/x.html", "/open/x.htm", "/other/y", "/merged/z", "/robots.txt", "http://example.com/private/"};
+
+  private RobotsTxt racy;
+
+  @Test
+  public void testConcurrentQueriesMatchSequentialResults() throws Exception {
+    RobotsTxt robotsTxt = read();
+    List<String> expected = answers(robotsTxt);
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<Integer>> futures = new ArrayList<>();
+      for (int t = 0; t < THREADS; t++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          int mismatches = 0;
+          for (int i = 0; i < 2000; i++) {
+            if (!expected.equals(answers(robotsTxt))) {
+              mismatches++;
+            }
+          }
+          return mismatches;
+        }));
+      }
+      start.countDown();
+      for (Future<Integer> future : futures) {
+        assertEquals(0, (int) future.get(60, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testRacyPublication() throws Exception {
+    List<String> expected = answers(read());
+    AtomicInteger mismatches = new AtomicInteger();
+    AtomicInteger observed = new AtomicInteger();
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      futures.add(executor.submit(() -> {
+        for (int i = 0; i < 2000; i++) {
+          racy = read();
+        }
+      }));
+      for (int t = 1; t < THREADS; t++) {
+        futures.add(executor.submit(() -> {
+          // keep reading until the writer has been seen at least once
+          for (int i = 0; i < 2000 || observed.get() == 0; i++) {
+            RobotsTxt robotsTxt = racy;
+            if (robotsTxt != null) {
+              observed.incrementAndGet();
+              if (!expected.equals(answers(robotsTxt))) {
+                mismatches.incrementAndGet();
+              }
+            }
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertTrue(observed.get() > 0);
+    assertEquals(0, mismatches.get());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testSitemapsAreUnmodifiable() throws Exception {
+    RobotsTxt robotsTxt = read();
+    assertEquals(1, robotsTxt.getSitemaps().size());
+    robotsTxt.getSitemaps().add("http://example.com/other.xml");
+  }
+
+  @Test
+  public void testMergedGroupReportsMergedCrawlDelay() throws Exception {
+    RobotsTxt robotsTxt = read();
+    Grant grant = robotsTxt.ask("SomeBot", "/merged/z");
+    assertFalse(grant.hasAccess());
+    assertEquals("/merged/", grant.getClause());
+    assertEquals(2, (int) grant.getCrawlDelay());
+    assertEquals(5, (int) robotsTxt.ask("Any", "/x").getCrawlDelay());
+  }
+
+  private static RobotsTxt read() {
+    return new RobotsTxtReader().readRobotsTxt(CONTENT.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static List<String> answers(RobotsTxt robotsTxt) {
+    List<String> answers = new ArrayList<>();
+    for (String agent : AGENTS) {
+      for (String path : PATHS) {
+        Grant grant = robotsTxt.ask(agent, path);
+        answers.add(grant.hasAccess() + " " + grant.getClause() + " " + grant.getCrawlDelay() + " " + grant.getUserAgents());
+      }
+    }
+    answers.add(String.valueOf(robotsTxt.getSitemaps()));
+    return answers;
+  }
+}
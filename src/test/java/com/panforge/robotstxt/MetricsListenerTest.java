@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Testing metrics listener.
+ */
+public class MetricsListenerTest {
+
+  private static final byte[] CONTENT = "User-agent: *\nDisallow: /private/\nAllow: /private/public/\n\nUser-agent: Bot\nDisallow: /".getBytes(StandardCharsets.UTF_8);
+
+  @Test
+  public void testReaderListener() throws Exception {
+    CountingMetricsListener listener = new CountingMetricsListener();
+    RobotsTxtReader reader = new RobotsTxtReader();
+    reader.setListener(listener);
+
+    RobotsTxt robotsTxt = reader.readRobotsTxt(new ByteArrayInputStream(CONTENT));
+
+    assertEquals(1, listener.getParseCount());
+    assertEquals(CONTENT.length, listener.getParsedBytes());
+    assertEquals(2, listener.getParsedGroups());
+    assertEquals(3, listener.getParsedRules());
+
+    assertFalse(robotsTxt.query("Any", "/private/data.txt"));
+    assertTrue(robotsTxt.query("Any", "/private/public/data.txt"));
+    assertTrue(robotsTxt.query("Any", "/index.html"));
+
+    assertEquals(3, listener.getQueryCount());
+    assertEquals(3, listener.getMatchedRules());
+  }
+
+  @Test
+  public void testGlobalListener() throws Exception {
+    CountingMetricsListener listener = new CountingMetricsListener();
+    Metrics.setGlobalListener(listener);
+    try {
+      RobotsTxt robotsTxt = RobotsTxt.read(new ByteArrayInputStream(CONTENT));
+      robotsTxt.query("Bot", "/index.html");
+    } finally {
+      Metrics.setGlobalListener(null);
+    }
+
+    assertEquals(1, listener.getParseCount());
+    assertEquals(1, listener.getQueryCount());
+  }
+
+  @Test
+  public void testTimeoutIsReported() throws Exception {
+    CountingMetricsListener listener = new CountingMetricsListener();
+    MatchingStrategy timingOut = (pattern, path) -> {
+      throw new TimeLimitedMatcherFactory.RegExpTimeoutException("timeout");
+    };
+    RobotsTxtReader reader = new RobotsTxtReader(timingOut, WinningStrategy.DEFAULT);
+    reader.setListener(listener);
+
+    RobotsTxt robotsTxt = reader.readRobotsTxt(CONTENT);
+
+    assertTrue(robotsTxt.query("Any", "/private/data.txt"));
+    assertEquals(2, listener.getTimeoutCount());
+    assertEquals(0, listener.getMatchedRules());
+  }
+}
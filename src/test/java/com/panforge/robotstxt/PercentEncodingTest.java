@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Testing canonical percent-encoding and wildcard matching.
+ */
+public class PercentEncodingTest {
+
+  @Test
+  public void testCanonicalForm() throws Exception {
+    assertEquals("/plain/path.html?q=1&r=2", PercentEncoding.canonicalize("/plain/path.html?q=1&r=2"));
+    assertEquals("/A-b_c.d~", PercentEncoding.canonicalize("/%41%2db%5Fc%2Ed%7e"));
+    assertEquals("/a%2Fb%3F%2A", PercentEncoding.canonicalize("/a%2fb%3f%2a"));
+    assertEquals("/caf%C3%A9", PercentEncoding.canonicalize("/café"));
+    assertEquals("/caf%C3%A9", PercentEncoding.canonicalize("/caf%c3%a9"));
+    assertEquals("/a%20b%22", PercentEncoding.canonicalize("/a b\""));
+    assertEquals("/100%25/%25z", PercentEncoding.canonicalize("/100%/%z"));
+    assertEquals("/a+b", PercentEncoding.canonicalize("/a+b"));
+  }
+
+  @Test
+  public void testMatchingIsExact() throws Exception {
+    RobotsTxt robotsTxt = new RobotsTxtReader().readRobotsTxt((
+            "User-agent: *\n"
+            + "Disallow: /caf%c3%a9/\n"
+            + "Disallow: /%7Euser/\n"
+            + "Disallow: /search%3Fq\n"
+            + "Disallow: /a%2Fb\n"
+            + "Disallow: /plus+sign\n").getBytes(StandardCharsets.UTF_8));
+
+    assertFalse(robotsTxt.query("Bot", "/café/menu"));
+    assertFalse(robotsTxt.query("Bot", "/caf%C3%A9/menu"));
+    assertFalse(robotsTxt.query("Bot", "/~user/page"));
+    assertFalse(robotsTxt.query("Bot", "/%7euser/page"));
+    assertFalse(robotsTxt.query("Bot", "/search%3fq=robots"));
+    assertTrue(robotsTxt.query("Bot", "/search?q=robots"));
+    assertFalse(robotsTxt.query("Bot", "/a%2fb"));
+    assertTrue(robotsTxt.query("Bot", "/a/b"));
+    assertFalse(robotsTxt.query("Bot", "/plus+sign"));
+    assertTrue(robotsTxt.query("Bot", "/plus%20sign"));
+    // clauses are still reported decoded
+    assertEquals("/café/", robotsTxt.getDisallowList("Bot").get(0));
+  }
+
+  @Test
+  public void testWildcardMatcherAgreesWithRegex() throws Exception {
+    Random random = new Random(7);
+    char[] alphabet = {'a', 'b', '/', '*', '$'};
+    for (int n = 0; n < 20000; n++) {
+      StringBuilder pattern = new StringBuilder();
+      for (int i = random.nextInt(8); i > 0; i--) {
+        pattern.append(alphabet[random.nextInt(alphabet.length)]);
+      }
+      StringBuilder path = new StringBuilder();
+      for (int i = random.nextInt(10); i > 0; i--) {
+        path.append(alphabet[random.nextInt(3)]);
+      }
+      assertEquals(pattern + " ~ " + path, regex(pattern.toString()).matcher(path).lookingAt(), WildcardMatcher.matches(pattern.toString(), path.toString()));
+    }
+  }
+
+  @Test(timeout = 5000)
+  public void testNoCatastrophicBacktracking() throws Exception {
+    StringBuilder pattern = new StringBuilder("/");
+    StringBuilder path = new StringBuilder("/");
+    for (int i = 0; i < 200; i++) {
+      pattern.append("*a");
+      path.append("a");
+    }
+    pattern.append("b$");
+    for (int i = 0; i < 5000; i++) {
+      path.append("a");
+    }
+    assertFalse(WildcardMatcher.matches(pattern.toString(), path.toString()));
+  }
+
+  private static Pattern regex(String pattern) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < pattern.length(); i++) {
+      char c = pattern.charAt(i);
+      if (c == '*') {
+        sb.append(".*");
+      } else if (c == '$' && i == pattern.length() - 1) {
+        sb.append('$');
+      } else {
+        sb.append(Pattern.quote(String.valueOf(c)));
+      }
+    }
+    return Pattern.compile(sb.toString());
+  }
+}
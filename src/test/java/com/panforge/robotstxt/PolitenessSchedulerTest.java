@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Testing politeness scheduler.
+ */
+public class PolitenessSchedulerTest {
+
+  private static final RobotsTxt ROBOTS = new RobotsTxtReader().readRobotsTxt((
+          "User-agent: *\n"
+          + "Disallow: /private/\n"
+          + "Crawl-delay: 5\n"
+          + "\n"
+          + "User-agent: FastBot\n"
+          + "Allow: /\n"
+          + "Disallow: /private/\n").getBytes(StandardCharsets.UTF_8));
+
+  @Test
+  public void testReservationsAreSpacedByCrawlDelay() throws Exception {
+    ManualClock clock = new ManualClock(1000);
+    PolitenessScheduler scheduler = new PolitenessScheduler(clock);
+
+    assertEquals(1000, scheduler.reserve(URI.create("http://a.com/1"), "Bot", ROBOTS));
+    assertEquals(6000, scheduler.reserve(URI.create("http://a.com/2"), "Bot", ROBOTS));
+    assertEquals(11000, scheduler.peek(URI.create("http://A.com/3")));
+    assertEquals(1000, scheduler.reserve(URI.create("http://b.com/1"), "Bot", ROBOTS));
+    assertEquals(1000, scheduler.reserve(URI.create("https://a.com/1"), "Bot", ROBOTS));
+
+    clock.advance(20000);
+    assertEquals(21000, scheduler.reserve(URI.create("http://a.com/3"), "Bot", ROBOTS));
+  }
+
+  @Test
+  public void testDefaultAndMaximumDelay() throws Exception {
+    ManualClock clock = new ManualClock(0);
+    PolitenessScheduler scheduler = new PolitenessScheduler(clock);
+    scheduler.setDefaultDelay(Duration.ofMillis(250));
+    scheduler.setMaxDelay(Duration.ofSeconds(2));
+
+    assertEquals(0, scheduler.reserve(URI.create("http://a.com/1"), "FastBot", ROBOTS));
+    assertEquals(250, scheduler.reserve(URI.create("http://a.com/2"), "FastBot", ROBOTS));
+    assertEquals(500, scheduler.reserve(URI.create("http://a.com/3"), "Bot", ROBOTS));
+    assertEquals(2500, scheduler.peek(URI.create("http://a.com/4")));
+  }
+
+  @Test
+  public void testQueuedUrlsAreHandedOutWhenDue() throws Exception {
+    ManualClock clock = new ManualClock(0);
+    PolitenessScheduler scheduler = new PolitenessScheduler(clock);
+
+    assertTrue(scheduler.submit(URI.create("http://a.com/1"), "Bot", ROBOTS));
+    assertTrue(scheduler.submit(URI.create("http://a.com/2"), "Bot", ROBOTS));
+    assertTrue(scheduler.submit(URI.create("http://b.com/1"), "Bot", ROBOTS));
+    assertFalse(scheduler.submit(URI.create("http://b.com/private/x"), "Bot", ROBOTS));
+    assertEquals(3, scheduler.size());
+
+    List<URI> first = new ArrayList<>();
+    for (URI url = scheduler.poll(); url != null; url = scheduler.poll()) {
+      first.add(url);
+    }
+    assertEquals(2, first.size());
+    assertTrue(first.contains(URI.create("http://a.com/1")));
+    assertTrue(first.contains(URI.create("http://b.com/1")));
+    assertEquals(5000, scheduler.nextDueTime());
+
+    clock.advance(4999);
+    assertNull(scheduler.poll());
+    clock.advance(1);
+    assertEquals(URI.create("http://a.com/2"), scheduler.poll());
+    assertEquals(0, scheduler.size());
+    assertEquals(Long.MAX_VALUE, scheduler.nextDueTime());
+  }
+
+  @Test
+  public void testQueueRespectsDirectReservations() throws Exception {
+    ManualClock clock = new ManualClock(0);
+    PolitenessScheduler scheduler = new PolitenessScheduler(clock);
+
+    scheduler.submit(URI.create("http://a.com/1"), "Bot", ROBOTS);
+    assertEquals(0, scheduler.reserve(URI.create("http://a.com/2"), "Bot", ROBOTS));
+    assertNull(scheduler.poll());
+    clock.advance(5000);
+    assertEquals(URI.create("http://a.com/1"), scheduler.poll());
+  }
+
+  @Test
+  public void testPurgeForgetsIdleHostsOnly() throws Exception {
+    ManualClock clock = new ManualClock(0);
+    PolitenessScheduler scheduler = new PolitenessScheduler(clock);
+
+    scheduler.reserve(URI.create("http://a.com/1"), "Bot", ROBOTS);
+    scheduler.reserve(URI.create("http://b.com/1"), "FastBot", ROBOTS);
+    scheduler.submit(URI.create("http://c.com/1"), "Bot", ROBOTS);
+    assertEquals(3, scheduler.countHosts());
+
+    assertEquals(1, scheduler.purge());
+    assertEquals(2, scheduler.countHosts());
+    assertEquals(5000, scheduler.peek(URI.create("http://a.com/2")));
+  }
+
+  @Test
+  public void testConcurrentReservationsNeverOverlap() throws Exception {
+    ManualClock clock = new ManualClock(0);
+    PolitenessScheduler scheduler = new PolitenessScheduler(clock);
+    URI url = URI.create("http://a.com/");
+    int threads = 8;
+    int perThread = 1000;
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    List<Long> slots = Collections.synchronizedList(new ArrayList<>());
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < perThread; i++) {
+            slots.add(scheduler.reserve(url, "Bot", ROBOTS));
+            if (i % 100 == 0) {
+              scheduler.purge();
+            }
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    Collections.sort(slots);
+    for (int i = 0; i < slots.size(); i++) {
+      assertEquals(i * 5000L, (long) slots.get(i));
+    }
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.util.Random;
+
+/**
+ * Generator of random robots.txt for differential tests.
+ * <p>
+ * Clauses and paths are made of a small alphabet, thus duplicates,
+ * overlapping prefixes, percent-encoding variants and wildcards are frequent.
+ */
+final class RandomRobotsTxt {
+
+  /**
+   * User agents of the generated groups (besides <code>*</code>) and one
+   * more sharing a prefix with the first one.
+   */
+  static final String[] AGENTS = {"SomeBot", "OtherBot", "SomeBot-News"};
+
+  private static final String[] PIECES = {"/", "/a", "a", "b", "ab", "/ab", "c", "%2f", "%2F", "%41", "é", "%C3%A9", "?", "=1", ".html", "$x"};
+  private static final String[] SEGMENTS = {"a", "ab", "abc", "product", "products", "page", "p", "1", "12", "123", "x%2Fy", "é"};
+
+  private RandomRobotsTxt() {}
+
+  /**
+   * Generates robots.txt of up to four groups.
+   * @param random source of randomness
+   * @param maxRules maximum number of rules per group (exclusive)
+   * @return robots.txt content
+   */
+  static String robotsTxt(Random random, int maxRules) {
+    StringBuilder sb = new StringBuilder();
+    for (int group = random.nextInt(4); group >= 0; group--) {
+      sb.append("User-agent: ").append(random.nextInt(3) == 0 ? "*" : AGENTS[random.nextInt(2)]).append('\n');
+      for (int rule = random.nextInt(maxRules); rule > 0; rule--) {
+        sb.append(random.nextBoolean() ? "Allow: " : "Disallow: ").append(clause(random, true)).append('\n');
+      }
+      if (random.nextInt(4) == 0) {
+        sb.append("Crawl-delay: ").append(random.nextInt(10)).append('\n');
+      }
+      sb.append('\n');
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Generates clause (or path when without wildcards).
+   * @param random source of randomness
+   * @param wildcards <code>true</code> to insert <code>*</code> and <code>$</code>
+   * @return clause
+   */
+  static String clause(Random random, boolean wildcards) {
+    StringBuilder sb = new StringBuilder();
+    if (random.nextInt(10) > 0) {
+      sb.append('/');
+    }
+    for (int piece = random.nextInt(5); piece > 0; piece--) {
+      if (wildcards && random.nextInt(5) == 0) {
+        sb.append('*');
+      }
+      sb.append(PIECES[random.nextInt(PIECES.length)]);
+    }
+    if (wildcards && random.nextInt(6) == 0) {
+      sb.append('*');
+    }
+    if (wildcards && random.nextInt(6) == 0) {
+      sb.append('$');
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Generates hierarchical path of up to four segments; paths often are
+   * siblings or ancestors of each other.
+   * @param random source of randomness
+   * @return path
+   */
+  static String path(Random random) {
+    StringBuilder path = new StringBuilder();
+    for (int depth = random.nextInt(4); depth >= 0; depth--) {
+      path.append('/').append(SEGMENTS[random.nextInt(SEGMENTS.length)]);
+    }
+    if (random.nextInt(3) == 0) {
+      path.append('/');
+    }
+    return path.toString();
+  }
+}
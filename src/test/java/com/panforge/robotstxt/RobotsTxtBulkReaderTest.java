@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Testing bulk reader.
+ */
+public class RobotsTxtBulkReaderTest {
+
+  @Test
+  public void testParsesAllDocuments() throws Exception {
+    byte[] content = load("robots.txt");
+    Map<Integer, RobotsTxt> results = new ConcurrentHashMap<>();
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      RobotsTxtBulkReader bulkReader = new RobotsTxtBulkReader(pool, 8);
+      Stream<Map.Entry<Integer, byte[]>> source = IntStream.range(0, 1000).mapToObj(i -> new AbstractMap.SimpleEntry<>(i, content));
+      RobotsTxtBulkReader.Statistics stats = bulkReader.read(source, results::put);
+
+      assertEquals(1000, stats.getParsed());
+      assertEquals(0, stats.getFailed());
+      assertEquals(1000L * content.length, stats.getBytes());
+    } finally {
+      pool.shutdown();
+    }
+
+    assertEquals(1000, results.size());
+    RobotsTxt robotsTxt = results.get(500);
+    assertFalse(robotsTxt.query("Goo1", "/fish.html"));
+    assertTrue(robotsTxt.query("Any", "/root/data/re.txt"));
+  }
+
+  @Test
+  public void testConsumerFailuresAreCountedApart() throws Exception {
+    RobotsTxtBulkReader bulkReader = new RobotsTxtBulkReader(Runnable::run, 1);
+    Stream<Map.Entry<String, byte[]>> source = Stream.of(
+            new AbstractMap.SimpleEntry<>("good", "User-agent: *\nDisallow: /".getBytes(StandardCharsets.UTF_8)),
+            new AbstractMap.SimpleEntry<>("bad", "User-agent: *\nDisallow: /".getBytes(StandardCharsets.UTF_8)));
+    Map<String, Exception> failures = new ConcurrentHashMap<>();
+
+    RobotsTxtBulkReader.Statistics stats = bulkReader.read(source.iterator(), (key, robotsTxt) -> {
+      if (key.equals("bad")) {
+        throw new IllegalStateException("rejected");
+      }
+    }, failures::put);
+
+    assertEquals(2, stats.getParsed());
+    assertEquals(0, stats.getFailed());
+    assertEquals(1, stats.getRejected());
+    assertTrue(failures.containsKey("bad"));
+  }
+
+  @Test
+  public void testUsesGivenReader() throws Exception {
+    RobotsTxtReader reader = new RobotsTxtReader();
+    reader.setListener(new MetricsListener() {
+      @Override
+      public void onParse(long nanos, long bytes, int groups, int rules) {
+        if (bytes == 0) {
+          throw new IllegalStateException("empty");
+        }
+      }
+    });
+    RobotsTxtBulkReader bulkReader = new RobotsTxtBulkReader(reader, Runnable::run, 1);
+    Stream<Map.Entry<String, byte[]>> source = Stream.of(
+            new AbstractMap.SimpleEntry<>("good", "User-agent: *\nDisallow: /".getBytes(StandardCharsets.UTF_8)),
+            new AbstractMap.SimpleEntry<>("empty", new byte[0]));
+    Map<String, RobotsTxt> results = new ConcurrentHashMap<>();
+    Map<String, Exception> failures = new ConcurrentHashMap<>();
+
+    RobotsTxtBulkReader.Statistics stats = bulkReader.read(source.iterator(), results::put, failures::put);
+
+    assertEquals(1, stats.getParsed());
+    assertEquals(1, stats.getFailed());
+    assertEquals(0, stats.getRejected());
+    assertTrue(results.containsKey("good"));
+    assertTrue(failures.get("empty") instanceof IllegalStateException);
+  }
+
+  @Test
+  public void testByteContentMatchesStreamContent() throws Exception {
+    byte[] content = "User-agent: *\r\nDisallow: /a\r\rUser-agent: B\nAllow: /\n".getBytes(StandardCharsets.UTF_8);
+    RobotsTxtReader reader = new RobotsTxtReader();
+    RobotsTxt fromBytes = reader.readRobotsTxt(content);
+    RobotsTxt fromStream = reader.readRobotsTxt(new java.io.ByteArrayInputStream(content));
+
+    assertEquals(fromStream.toString(), fromBytes.toString());
+    assertFalse(fromBytes.query("A", "/a"));
+    assertTrue(fromBytes.query("B", "/a"));
+  }
+
+  private static byte[] load(String name) throws Exception {
+    try (InputStream inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(name)) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      inputStream.transferTo(out);
+      return out.toByteArray();
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Testing content-addressed cache.
+ */
+public class RobotsTxtCacheTest {
+
+  private static final String BODY = "User-agent: *\nDisallow: /wp-admin/\nAllow: /wp-admin/admin-ajax.php\n\nSitemap: https://example.com/wp-sitemap.xml\n";
+
+  @Test
+  public void testMurmur3Vectors() throws Exception {
+    assertEquals("00000000000000000000000000000000", ContentHash.murmur3(bytes("")).toString());
+    assertEquals("cbd8a7b341bd9b025b1e906a48ae1d19", ContentHash.murmur3(bytes("hello")).toString());
+    assertEquals("e34bbc7bbc071b6c7a433ca9c49a9347", ContentHash.murmur3(bytes("The quick brown fox jumps over the lazy dog")).toString());
+  }
+
+  @Test
+  public void testIdenticalBodiesShareInstance() throws Exception {
+    CountingMetricsListener listener = new CountingMetricsListener();
+    RobotsTxtReader reader = new RobotsTxtReader();
+    reader.setListener(listener);
+    RobotsTxtCache cache = new RobotsTxtCache(reader);
+
+    RobotsTxt first = cache.read(bytes(BODY));
+    RobotsTxt second = cache.read(bytes(BODY));
+    RobotsTxt crlf = cache.read(bytes(BODY.replace("\n", "\r\n")));
+    RobotsTxt trailing = cache.read(bytes(BODY + "\n\n"));
+    RobotsTxt other = cache.read(bytes(BODY.replace("wp-admin", "admin")));
+
+    assertSame(first, second);
+    assertSame(first, crlf);
+    assertSame(first, trailing);
+    assertNotSame(first, other);
+    assertFalse(other.query("Bot", "/admin/x"));
+
+    assertEquals(5, cache.getRequests());
+    assertEquals(3, cache.getHits());
+    assertEquals(2, cache.getMisses());
+    assertEquals(2.5, cache.getDedupRatio(), 0.0001);
+    assertEquals(2, cache.size());
+    assertEquals(3, listener.getCacheHitCount());
+    assertEquals(2, listener.getCacheMissCount());
+    assertEquals(2, listener.getParseCount());
+  }
+
+  @Test
+  public void testUnreferencedEntriesAreDropped() throws Exception {
+    RobotsTxtCache cache = new RobotsTxtCache();
+    List<RobotsTxt> all = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      all.add(cache.read(bytes(BODY + "# " + i)));
+    }
+    assertEquals(100, cache.size());
+
+    // drop all but every tenth only now, thus no entry might be collected earlier
+    List<RobotsTxt> retained = new ArrayList<>();
+    for (int i = 0; i < all.size(); i += 10) {
+      retained.add(all.get(i));
+    }
+    all.clear();
+
+    for (int i = 0; i < 20 && cache.size() > retained.size(); i++) {
+      System.gc();
+      Thread.sleep(50);
+    }
+
+    assertEquals(retained.size(), cache.size());
+    assertSame(retained.get(0), cache.read(bytes(BODY + "# 0")));
+  }
+
+  private static byte[] bytes(String str) {
+    return str.getBytes(StandardCharsets.UTF_8);
+  }
+}
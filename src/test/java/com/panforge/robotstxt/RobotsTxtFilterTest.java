@@ -0,0 +1,259 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Testing robots.txt filter.
+ */
+public class RobotsTxtFilterTest {
+
+  private static final RobotsTxt ROBOTS = new RobotsTxtReader().readRobotsTxt("User-agent: *\nDisallow: /private/".getBytes(StandardCharsets.UTF_8));
+
+  @Test
+  public void testUrlsAreParkedUntilRobotsTxtIsLoaded() throws Exception {
+    ManualProvider provider = new ManualProvider();
+    RobotsTxtFilter filter = new RobotsTxtFilter(provider, "Bot");
+    ManualPublisher publisher = new ManualPublisher();
+    RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+    publisher.subscribe(filter);
+    filter.subscribe(subscriber);
+
+    publisher.emit("http://a.com/1", "http://a.com/private/2", "http://b.com/1", "http://a.com/3");
+    assertTrue(subscriber.received.isEmpty());
+    assertEquals(2, provider.requests.size());
+
+    provider.complete("http://b.com", ROBOTS);
+    assertEquals(Arrays.asList(URI.create("http://b.com/1")), subscriber.received);
+
+    publisher.emit("http://b.com/private/x", "http://b.com/2");
+    publisher.complete();
+    assertFalse(subscriber.completed);
+
+    provider.complete("http://a.com", ROBOTS);
+    assertEquals(urls("http://b.com/1", "http://b.com/2", "http://a.com/1", "http://a.com/3"), subscriber.received);
+    assertTrue(subscriber.completed);
+    assertEquals(2, provider.requests.size());
+  }
+
+  @Test
+  public void testDemandIsHonored() throws Exception {
+    ManualProvider provider = new ManualProvider();
+    RobotsTxtFilter filter = new RobotsTxtFilter(provider, "Bot", 4);
+    ManualPublisher publisher = new ManualPublisher();
+    RecordingSubscriber subscriber = new RecordingSubscriber(1);
+    publisher.subscribe(filter);
+    filter.subscribe(subscriber);
+    assertEquals(4, publisher.requested.get());
+
+    publisher.emit("http://a.com/1", "http://a.com/private/2", "http://a.com/3", "http://a.com/4");
+    provider.complete("http://a.com", ROBOTS);
+    assertEquals(urls("http://a.com/1"), subscriber.received);
+    // one emitted and one dropped are replenished
+    assertEquals(6, publisher.requested.get());
+
+    subscriber.subscription.request(5);
+    assertEquals(urls("http://a.com/1", "http://a.com/3", "http://a.com/4"), subscriber.received);
+    assertEquals(8, publisher.requested.get());
+  }
+
+  @Test
+  public void testFailurePolicy() throws Exception {
+    RobotsTxtProvider failing = origin -> CompletableFuture.failedFuture(new IllegalStateException("unreachable"));
+
+    assertEquals(0, RobotsTxtFilter.filter(Stream.of(URI.create("http://a.com/1")), failing, "Bot").count());
+
+    RobotsTxtFilter filter = new RobotsTxtFilter(failing, "Bot");
+    filter.setAllowOnFailure(true);
+    ManualPublisher publisher = new ManualPublisher();
+    RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+    publisher.subscribe(filter);
+    filter.subscribe(subscriber);
+    publisher.emit("http://a.com/1", "not-a-url");
+    publisher.complete();
+    assertEquals(urls("http://a.com/1"), subscriber.received);
+    assertTrue(subscriber.completed);
+
+    // failure isn't remembered: provider which recovers is asked again
+    AtomicInteger loads = new AtomicInteger();
+    RobotsTxtProvider recovering = origin -> loads.incrementAndGet() == 1
+            ? CompletableFuture.failedFuture(new IllegalStateException("timeout"))
+            : CompletableFuture.completedFuture(ROBOTS);
+    RobotsTxtFilter retrying = new RobotsTxtFilter(recovering, "Bot");
+    retrying.setAllowOnFailure(true);
+    publisher = new ManualPublisher();
+    subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+    publisher.subscribe(retrying);
+    retrying.subscribe(subscriber);
+    publisher.emit("http://a.com/private/1", "http://a.com/private/2", "http://a.com/3");
+    publisher.complete();
+    assertEquals(urls("http://a.com/private/1", "http://a.com/3"), subscriber.received);
+    assertEquals(2, loads.get());
+    assertTrue(subscriber.completed);
+  }
+
+  @Test
+  public void testLoadedOriginsAreBounded() throws Exception {
+    Map<String, AtomicInteger> loads = new ConcurrentHashMap<>();
+    RobotsTxtProvider provider = origin -> {
+      loads.computeIfAbsent(origin.getHost(), key -> new AtomicInteger()).incrementAndGet();
+      return CompletableFuture.completedFuture(ROBOTS);
+    };
+    RobotsTxtFilter filter = new RobotsTxtFilter(provider, "Bot");
+    filter.setMaxOrigins(2);
+    ManualPublisher publisher = new ManualPublisher();
+    RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+    publisher.subscribe(filter);
+    filter.subscribe(subscriber);
+
+    publisher.emit("http://a.com/1", "http://b.com/1", "http://b.com/2", "http://c.com/1", "http://c.com/2", "http://a.com/2");
+    publisher.complete();
+
+    assertEquals(6, subscriber.received.size());
+    assertTrue(subscriber.completed);
+    // a.com has been evicted by c.com, thus loaded again
+    assertEquals(2, loads.get("a.com").get());
+    assertEquals(1, loads.get("b.com").get());
+    assertEquals(1, loads.get("c.com").get());
+  }
+
+  @Test
+  public void testStreamAdapter() throws Exception {
+    AtomicInteger loads = new AtomicInteger();
+    RobotsTxtProvider provider = origin -> CompletableFuture.supplyAsync(() -> {
+      loads.incrementAndGet();
+      return ROBOTS;
+    });
+
+    Stream<URI> source = IntStream.range(0, 1000)
+            .mapToObj(i -> URI.create(String.format("http://host%d.com/%s%d", i % 10, i % 3 == 0 ? "private/" : "", i)));
+    List<URI> allowed;
+    try (Stream<URI> filtered = RobotsTxtFilter.filter(source, provider, "Bot")) {
+      allowed = filtered.collect(Collectors.toList());
+    }
+
+    assertEquals(666, allowed.size());
+    assertTrue(allowed.stream().noneMatch(url -> url.getPath().startsWith("/private/")));
+    assertEquals(10, loads.get());
+  }
+
+  private static List<URI> urls(String... urls) {
+    return Arrays.stream(urls).map(URI::create).collect(Collectors.toList());
+  }
+
+  /**
+   * Provider completed manually.
+   */
+  private static final class ManualProvider implements RobotsTxtProvider {
+
+    private final Map<String, CompletableFuture<RobotsTxt>> requests = new ConcurrentHashMap<>();
+
+    @Override
+    public CompletableFuture<RobotsTxt> get(URI origin) {
+      return requests.computeIfAbsent(origin.toString(), key -> new CompletableFuture<>());
+    }
+
+    void complete(String origin, RobotsTxt robotsTxt) {
+      requests.get(origin).complete(robotsTxt);
+    }
+  }
+
+  /**
+   * Publisher emitting manually.
+   */
+  private static final class ManualPublisher implements Flow.Publisher<URI> {
+
+    private final AtomicInteger requested = new AtomicInteger();
+    private Flow.Subscriber<? super URI> subscriber;
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super URI> subscriber) {
+      this.subscriber = subscriber;
+      subscriber.onSubscribe(new Flow.Subscription() {
+        @Override
+        public void request(long n) {
+          requested.addAndGet((int) n);
+        }
+
+        @Override
+        public void cancel() {
+        }
+      });
+    }
+
+    void emit(String... urls) {
+      for (String url : urls) {
+        subscriber.onNext(URI.create(url));
+      }
+    }
+
+    void complete() {
+      subscriber.onComplete();
+    }
+  }
+
+  /**
+   * Subscriber recording received URLs.
+   */
+  private static final class RecordingSubscriber implements Flow.Subscriber<URI> {
+
+    private final long initialRequest;
+    private final List<URI> received = new ArrayList<>();
+    private Flow.Subscription subscription;
+    private boolean completed;
+
+    RecordingSubscriber(long initialRequest) {
+      this.initialRequest = initialRequest;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      subscription.request(initialRequest);
+    }
+
+    @Override
+    public void onNext(URI item) {
+      received.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      fail(throwable.toString());
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+    }
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Testing profiler.
+ */
+public class RobotsTxtProfilerTest {
+
+  private static final String CONTENT = "User-agent: *\nDisallow: /private\nAllow: /private/*.html$\n\nUser-agent: SomeBot\nDisallow: /\n";
+
+  @Test
+  public void testCountsAttemptsAndHits() {
+    RobotsTxtProfiler profiler = new RobotsTxtProfiler();
+    RobotsTxt plain = read(CONTENT);
+    RobotsTxt profiled = profiler.profile("example.com", plain);
+
+    for (String path : Arrays.asList("/private/a.html", "/private/b", "/public", "/private/c.html")) {
+      assertEquals(path, plain.query("Bot", path), profiled.query("Bot", path));
+    }
+    assertFalse(profiled.query("SomeBot", "/x"));
+
+    List<RobotsTxtProfiler.HostProfile> hosts = profiler.getHosts();
+    assertEquals(1, hosts.size());
+    RobotsTxtProfiler.HostProfile host = hosts.get(0);
+    assertEquals("example.com", host.getHost());
+    assertEquals(5, host.getQueries());
+    assertEquals(3, host.getRules().size());
+    assertEquals(4, rule(host, "Disallow: /private").getAttempts());
+    assertEquals(3, rule(host, "Disallow: /private").getHits());
+    assertEquals(4, rule(host, "Allow: /private/*.html$").getAttempts());
+    assertEquals(2, rule(host, "Allow: /private/*.html$").getHits());
+    assertEquals(1, rule(host, "Disallow: /").getHits());
+  }
+
+  @Test
+  public void testRanksHostsByMatchingTime() {
+    StringBuilder expensive = new StringBuilder("User-agent: *\n");
+    for (int rule = 0; rule < 200; rule++) {
+      expensive.append("Disallow: /*a*b*c*").append(rule).append("$\n");
+    }
+    RobotsTxtProfiler profiler = new RobotsTxtProfiler();
+    RobotsTxt cheap = profiler.profile("cheap.example.com", read("User-agent: *\nDisallow: /private\n"));
+    RobotsTxt costly = profiler.profile("costly.example.com", read(expensive.toString()));
+    for (int i = 0; i < 100; i++) {
+      cheap.query("Bot", "/aaaa/bbbb/cccc/" + i);
+      costly.query("Bot", "/aaaa/bbbb/cccc/" + i);
+    }
+
+    List<RobotsTxtProfiler.HostProfile> hosts = profiler.getHosts();
+    assertEquals("costly.example.com", hosts.get(0).getHost());
+    assertEquals(200, hosts.get(0).getRules().size());
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    profiler.print(new PrintStream(out, true), 1, 3);
+    String report = out.toString();
+    assertTrue(report, report.contains("costly.example.com"));
+    assertFalse(report, report.contains("cheap.example.com"));
+    assertEquals(report, 5, report.split("\n").length);
+  }
+
+  @Test
+  public void testCountsConcurrentQueries() throws Exception {
+    RobotsTxtProfiler profiler = new RobotsTxtProfiler();
+    RobotsTxt profiled = profiler.profile("example.com", read(CONTENT));
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      Future<?>[] futures = new Future<?>[4];
+      for (int t = 0; t < futures.length; t++) {
+        futures[t] = executor.submit(() -> {
+          for (int i = 0; i < 1000; i++) {
+            profiled.query("Bot", "/private/" + i);
+          }
+        });
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    RobotsTxtProfiler.HostProfile host = profiler.getHosts().get(0);
+    assertEquals(4000, host.getQueries());
+    assertEquals(4000, rule(host, "Disallow: /private").getHits());
+  }
+
+  @Test
+  public void testOnlyProfiledViewIsRecorded() {
+    RobotsTxtProfiler profiler = new RobotsTxtProfiler();
+    RobotsTxt plain = read(CONTENT);
+    RobotsTxt profiled = profiler.profile("example.com", plain);
+    plain.query("Bot", "/private");
+    assertEquals(0, profiler.getHosts().get(0).getQueries());
+
+    profiled.query("Bot", "/private");
+    profiler.reset();
+    assertEquals(0, profiler.getHosts().get(0).getQueries());
+    assertTrue(profiler.getHosts().get(0).getRules().isEmpty());
+
+    profiler.clear();
+    assertTrue(profiler.getHosts().isEmpty());
+  }
+
+  @Test
+  public void testTrivialRobotsTxtIsNotProfiled() {
+    RobotsTxtProfiler profiler = new RobotsTxtProfiler();
+    RobotsTxt trivial = read("User-agent: *\nDisallow: /\n");
+    assertSame(trivial, profiler.profile("example.com", trivial));
+    assertTrue(profiler.getHosts().isEmpty());
+  }
+
+  private static RobotsTxt read(String content) {
+    return new RobotsTxtReader().readRobotsTxt(content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static RobotsTxtProfiler.RuleProfile rule(RobotsTxtProfiler.HostProfile host, String rule) {
+    return host.getRules().stream().filter(profile -> profile.getRule().equals(rule)).findFirst().orElseThrow(AssertionError::new);
+  }
+}
@@ -199,6 +199,90 @@ public class RobotsTxtReaderTest {
     assertTrue("/fish.html", bots.query(user_agent, "/fish.html"));
   }
 
+  @Test
+  public void testUserAgentIsCaseInsensitive() throws Exception {
+    String user_agent = "goo1";
+    
+    assertFalse("/fish.html", bots.query(user_agent, "/fish.html"));
+    assertTrue("/catfish", bots.query(user_agent, "/catfish"));
+  }
+
+  @Test
+  public void testProductTokenFromFullUserAgent() throws Exception {
+    String user_agent = "Mozilla/5.0 (compatible; goo1/2.1; +http://www.example.com/bot.html)";
+    
+    assertFalse("/fish.html", bots.query(user_agent, "/fish.html"));
+    assertTrue("/catfish", bots.query(user_agent, "/catfish"));
+    assertFalse("/root/re.txt", bots.query("Mozilla/5.0 (Windows NT 10.0; Win64; x64)", "/root/re.txt"));
+  }
+
+  @Test
+  public void testManyDistinctFullUserAgents() throws Exception {
+    // more distinct user agents than cached extraction results
+    for (int round = 0; round < 2; round++) {
+      for (int i = 0; i < 5000; i++) {
+        String user_agent = "Mozilla/5.0 (compatible; goo1/" + i + "; +http://www.example.com/bot.html)";
+        assertFalse(user_agent, bots.query(user_agent, "/fish.html"));
+        assertTrue(user_agent, bots.query(user_agent, "/catfish"));
+      }
+    }
+  }
+
+  @Test
+  public void testGroupsWithSameAgentAreMerged() throws Exception {
+    String content = "User-agent: First\nDisallow: /a\n\nUser-agent: Second\nDisallow: /b\n\nUser-agent: FIRST\nUser-agent: Other\nDisallow: /c\n";
+    RobotsTxt robotsTxt = new RobotsTxtReader().readRobotsTxt(content.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+    
+    assertFalse("/a", robotsTxt.query("First", "/a"));
+    assertFalse("/c", robotsTxt.query("First", "/c"));
+    assertTrue("/b", robotsTxt.query("First", "/b"));
+    assertFalse("/b", robotsTxt.query("Second", "/b"));
+    assertTrue("/c", robotsTxt.query("Second", "/c"));
+  }
+
+  @Test
+  public void testTargetAgentsKeepSameResults() throws Exception {
+    String content = "User-agent: *\nDisallow: /root/\n\n"
+            + "User-agent: Other\nDisallow: /a\n\n"
+            + "User-agent: Goo\nDisallow: /fish\n\n"
+            + "User-agent: Goo1\nAllow: /fish/\n\n"
+            + "User-agent: other\nUser-agent: Goo1\nDisallow: /merged-into-other\n\n"
+            + "User-agent: Goo1\nUser-agent: Another\nDisallow: /merged-into-goo1\n";
+    byte[] bytes = content.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+    List<String> targets = java.util.Arrays.asList("Goo1", "Mozilla/5.0 (compatible; Goo/2.0)", "Wild");
+
+    RobotsTxtImpl full = (RobotsTxtImpl) new RobotsTxtReader().readRobotsTxt(bytes);
+    RobotsTxtReader targetedReader = new RobotsTxtReader();
+    targetedReader.setTargetAgents(targets);
+    RobotsTxtImpl targeted = (RobotsTxtImpl) targetedReader.readRobotsTxt(bytes);
+
+    assertEquals(4, full.countGroups());
+    assertEquals(3, targeted.countGroups());
+    String[] paths = {"/", "/a", "/root/x", "/fish", "/fish/x", "/fishy", "/merged-into-other", "/merged-into-goo1"};
+    for (String target : targets) {
+      for (String path : paths) {
+        assertEquals(target + " " + path, full.query(target, path), targeted.query(target, path));
+      }
+    }
+  }
+
+  @Test
+  public void testAskAllMatchesAskPerAgent() throws Exception {
+    List<String> agents = java.util.Arrays.asList("Any", "Banned", "Allowed", "Wild", "Goo2", "Mozilla/5.0 (compatible; Goo4/1.0)", "Other", "Wild", null);
+    String[] paths = {"/", "/root/x", "/root/data/y", "/wild/a", "/wildest/b.gif", "/fish.php", "/fish%2Fx", "/robots.txt", "http://example.com/root/"};
+    for (String path : paths) {
+      java.util.Map<String, Grant> grants = bots.askAll(agents, path);
+      assertEquals(new java.util.ArrayList<>(new java.util.LinkedHashSet<>(agents)), new java.util.ArrayList<>(grants.keySet()));
+      for (String agent : agents) {
+        Grant expected = bots.ask(agent, path);
+        Grant actual = grants.get(agent);
+        assertEquals(agent + " " + path, expected.hasAccess(), actual.hasAccess());
+        assertEquals(agent + " " + path, expected.getClause(), actual.getClause());
+        assertEquals(agent + " " + path, expected.getCrawlDelay(), actual.getCrawlDelay());
+      }
+    }
+  }
+
   @Test
   public void testGetDisallowList() throws Exception {
     String user_agent = null;
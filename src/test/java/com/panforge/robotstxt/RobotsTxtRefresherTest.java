@@ -0,0 +1,363 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Testing refresh-ahead revalidation.
+ */
+public class RobotsTxtRefresherTest {
+
+  private static final long MINUTE = 60_000L;
+
+  private final ManualClock clock = new ManualClock(1_000_000L);
+  private final AtomicInteger fetches = new AtomicInteger();
+  private volatile String content = "User-agent: *\nDisallow: /v1\n";
+  private volatile int status = 200;
+  private HttpServer server;
+  private RobotsTxtRefresher refresher;
+
+  @Before
+  public void setUp() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/robots.txt", exchange -> {
+      fetches.incrementAndGet();
+      byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(status, bytes.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(bytes);
+      }
+    });
+    server.start();
+
+    // every origin is served by the local stand-in
+    URI base = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/robots.txt");
+    HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    RobotsTxtReader reader = new RobotsTxtReader();
+    refresher = new RobotsTxtRefresher(origin -> client.sendAsync(HttpRequest.newBuilder(base).build(), HttpResponse.BodyHandlers.ofByteArray())
+            .thenApply(response -> {
+              if (response.statusCode() != 200) {
+                throw new IllegalStateException("Status: " + response.statusCode());
+              }
+              return reader.readRobotsTxt(response.body());
+            }), clock);
+    refresher.setRefreshAhead(Duration.ofMinutes(2));
+    refresher.setJitter(Duration.ZERO);
+    refresher.setTimeToLive(Duration.ofMinutes(10));
+  }
+
+  @After
+  public void tearDown() {
+    refresher.close();
+    server.stop(0);
+  }
+
+  @Test
+  public void testServesCachedWithinTimeToLive() {
+    URI origin = URI.create("http://example.com");
+    RobotsTxt robotsTxt = get(origin);
+    assertFalse(robotsTxt.query("Bot", "/v1"));
+
+    clock.advance(7 * MINUTE);
+    assertSame(robotsTxt, get(URI.create("http://EXAMPLE.com/index.html")));
+    assertEquals(1, fetches.get());
+    assertEquals(1, refresher.size());
+  }
+
+  @Test
+  public void testRefreshesAheadOfExpiry() throws Exception {
+    URI origin = URI.create("http://example.com");
+    RobotsTxt first = get(origin);
+    content = "User-agent: *\nDisallow: /v2\n";
+
+    clock.advance(9 * MINUTE);
+    assertSame(first, get(origin));
+    await(() -> refresher.getRefreshCount(), 1);
+
+    RobotsTxt second = get(origin);
+    assertNotSame(first, second);
+    assertFalse(second.query("Bot", "/v2"));
+    assertTrue(second.query("Bot", "/v1"));
+    assertEquals(2, fetches.get());
+
+    // expiry has been moved with the revalidation
+    clock.advance(5 * MINUTE);
+    assertSame(second, get(origin));
+    assertEquals(2, fetches.get());
+  }
+
+  @Test
+  public void testWaitsForExpired() {
+    URI origin = URI.create("http://example.com");
+    RobotsTxt first = get(origin);
+    content = "User-agent: *\nDisallow: /v2\n";
+
+    clock.advance(10 * MINUTE);
+    RobotsTxt second = get(origin);
+    assertFalse(second.query("Bot", "/v2"));
+    assertNotSame(first, second);
+    assertEquals(0, refresher.getRefreshCount());
+  }
+
+  @Test
+  public void testKeepsStaleOnFailedRevalidation() throws Exception {
+    URI origin = URI.create("http://example.com");
+    RobotsTxt first = get(origin);
+    status = 503;
+
+    clock.advance(9 * MINUTE);
+    assertSame(first, get(origin));
+    await(() -> refresher.getFailureCount(), 1);
+    assertSame(first, get(origin));
+    assertEquals(2, fetches.get());
+
+    // retried half way to the expiry
+    status = 200;
+    content = "User-agent: *\nDisallow: /v2\n";
+    clock.advance(MINUTE / 2);
+    assertSame(first, get(origin));
+    await(() -> refresher.getRefreshCount(), 1);
+    assertFalse(get(origin).query("Bot", "/v2"));
+  }
+
+  @Test
+  public void testFailingOriginIsEvictedAfterExpiry() throws Exception {
+    URI origin = URI.create("http://example.com");
+    get(origin);
+    status = 503;
+
+    clock.advance(9 * MINUTE);
+    get(origin);
+    await(() -> refresher.getFailureCount(), 1);
+
+    // asked for once, yet not revalidated after expiry
+    clock.advance(2 * MINUTE);
+    for (int i = 0; i < 5; i++) {
+      assertEquals(0, refresher.refreshDue());
+    }
+    assertEquals(0, refresher.size());
+    assertEquals(2, fetches.get());
+  }
+
+  @Test
+  public void testFailedLoadIsNotCached() {
+    URI origin = URI.create("http://example.com");
+    status = 503;
+    try {
+      get(origin);
+      fail("Load should fail.");
+    } catch (CompletionException ex) {
+      assertTrue(ex.getCause() instanceof IllegalStateException);
+    }
+    assertEquals(0, refresher.size());
+    status = 200;
+    assertFalse(get(origin).query("Bot", "/v1"));
+    assertEquals(2, fetches.get());
+  }
+
+  @Test
+  public void testRefreshWindowMustBeShorterThanTimeToLive() {
+    try {
+      refresher.setTimeToLive(Duration.ofMinutes(2));
+      fail("Time to live within refresh-ahead window should be rejected.");
+    } catch (IllegalArgumentException ex) {
+      // expected
+    }
+    try {
+      refresher.setJitter(Duration.ofMinutes(8));
+      fail("Jitter reaching time to live should be rejected.");
+    } catch (IllegalArgumentException ex) {
+      // expected
+    }
+    refresher.setJitter(Duration.ofMinutes(7));
+
+    // robots.txt is served without revalidation before the refresh time
+    URI origin = URI.create("http://example.com");
+    RobotsTxt robotsTxt = get(origin);
+    clock.advance(MINUTE / 2);
+    assertSame(robotsTxt, get(origin));
+    assertEquals(1, fetches.get());
+  }
+
+  @Test
+  public void testRefreshDueRevalidatesAskedAndEvictsCold() throws Exception {
+    URI hot = URI.create("http://hot.example.com");
+    URI cold = URI.create("http://cold.example.com");
+    RobotsTxt first = get(hot);
+    get(cold);
+
+    clock.advance(5 * MINUTE);
+    assertSame(first, get(hot));
+    assertEquals(0, refresher.refreshDue());
+
+    clock.advance(3 * MINUTE);
+    assertEquals(1, refresher.refreshDue());
+    await(() -> refresher.getRefreshCount(), 1);
+
+    clock.advance(2 * MINUTE);
+    assertEquals(0, refresher.refreshDue());
+    assertEquals(1, refresher.size());
+    assertNotSame(first, get(hot));
+    assertEquals(3, fetches.get());
+  }
+
+  @Test
+  public void testBoundsConcurrency() {
+    ManualProvider provider = new ManualProvider();
+    try (RobotsTxtRefresher bounded = new RobotsTxtRefresher(provider, clock)) {
+      bounded.setRefreshAhead(Duration.ofMinutes(2));
+      bounded.setJitter(Duration.ZERO);
+      bounded.setTimeToLive(Duration.ofMinutes(10));
+      bounded.setMaxConcurrency(2);
+      bounded.setExecutor(Runnable::run);
+
+      List<URI> origins = new ArrayList<>();
+      for (int i = 0; i < 5; i++) {
+        origins.add(URI.create("http://host" + i + ".example.com"));
+        CompletableFuture<RobotsTxt> future = bounded.get(origins.get(i)).toCompletableFuture();
+        provider.completeAll();
+        assertNotNull(future.join());
+      }
+
+      clock.advance(9 * MINUTE);
+      for (URI origin : origins) {
+        assertTrue(bounded.get(origin).toCompletableFuture().isDone());
+        assertTrue(bounded.get(origin).toCompletableFuture().isDone());
+      }
+      assertEquals(7, provider.requests.size());
+
+      provider.completeAll();
+      assertEquals(2, bounded.getRefreshCount());
+      assertEquals(2, bounded.refreshDue());
+      assertEquals(9, provider.requests.size());
+      provider.completeAll();
+      assertEquals(1, bounded.refreshDue());
+      provider.completeAll();
+      assertEquals(5, bounded.getRefreshCount());
+      assertEquals(0, bounded.refreshDue());
+    }
+  }
+
+  @Test
+  public void testJitterSpreadsRefreshes() {
+    ManualProvider provider = new ManualProvider();
+    Map<String, Long> refreshedAt = new HashMap<>();
+    try (RobotsTxtRefresher jittered = new RobotsTxtRefresher(provider, clock)) {
+      jittered.setRefreshAhead(Duration.ofMinutes(10));
+      jittered.setJitter(Duration.ofMinutes(20));
+      jittered.setTimeToLive(Duration.ofMinutes(60));
+      jittered.setMaxConcurrency(100);
+      jittered.setExecutor(Runnable::run);
+
+      long start = clock.millis();
+      List<URI> origins = new ArrayList<>();
+      for (int i = 0; i < 50; i++) {
+        origins.add(URI.create("http://host" + i + ".example.com"));
+        jittered.get(origins.get(i));
+      }
+      provider.completeAll();
+
+      for (int minute = 0; minute < 60; minute++) {
+        for (URI origin : origins) {
+          jittered.get(origin);
+        }
+        for (Request request : provider.requests.subList(50, provider.requests.size())) {
+          refreshedAt.putIfAbsent(request.origin, clock.millis() - start);
+        }
+        clock.advance(MINUTE);
+      }
+    }
+
+    assertEquals(50, refreshedAt.size());
+    for (long at : refreshedAt.values()) {
+      assertTrue(String.valueOf(at), at >= 30 * MINUTE && at <= 50 * MINUTE);
+    }
+    assertTrue(new HashSet<>(refreshedAt.values()).size() > 5);
+  }
+
+  private RobotsTxt get(URI origin) {
+    return refresher.get(origin).toCompletableFuture().join();
+  }
+
+  private static void await(LongSupplier counter, long expected) throws InterruptedException {
+    for (int i = 0; i < 500 && counter.getAsLong() < expected; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(expected, counter.getAsLong());
+  }
+
+  /**
+   * Request for robots.txt.
+   */
+  private static final class Request {
+
+    private final String origin;
+    private final CompletableFuture<RobotsTxt> future = new CompletableFuture<>();
+
+    Request(String origin) {
+      this.origin = origin;
+    }
+  }
+
+  /**
+   * Provider completed manually.
+   */
+  private static final class ManualProvider implements RobotsTxtProvider {
+
+    private final List<Request> requests = new ArrayList<>();
+
+    @Override
+    public synchronized CompletableFuture<RobotsTxt> get(URI origin) {
+      Request request = new Request(origin.toString());
+      requests.add(request);
+      return request.future;
+    }
+
+    void completeAll() {
+      List<Request> pending;
+      synchronized (this) {
+        pending = new ArrayList<>(requests);
+      }
+      RobotsTxt robotsTxt = new RobotsTxtReader().readRobotsTxt("User-agent: *\nDisallow: /private\n".getBytes(StandardCharsets.UTF_8));
+      for (Request request : pending) {
+        request.future.complete(robotsTxt);
+      }
+    }
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Testing offline replay.
+ */
+public class RobotsTxtReplayTest {
+
+  private static final String URLS = String.join("\n",
+          "https://a.example.com/private/x.html 200",
+          "https://a.example.com/public/x.html",
+          "https://A.example.com/private",
+          "http://b.example.com/?q=1",
+          "http://c.example.com/anything",
+          "not a url",
+          "");
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testReplayDirectory() throws Exception {
+    Path dir = folder.newFolder("corpus").toPath();
+    Files.write(dir.resolve("a.example.com.txt"), "User-agent: *\nDisallow: /private".getBytes(StandardCharsets.UTF_8));
+    Files.createDirectories(dir.resolve("b.example.com"));
+    Files.write(dir.resolve("b.example.com").resolve("robots.txt"), "User-agent: *\nDisallow: /".getBytes(StandardCharsets.UTF_8));
+
+    RobotsTxtReplay replay = new RobotsTxtReplay();
+    replay.setTop(2);
+    RobotsTxtReplay.Report report = replay.replay(RobotsTxtReplay.loadCorpus(dir), new StringReader(URLS));
+
+    assertEquals(4, report.getQueries());
+    assertEquals(1, report.getAllowed());
+    assertEquals(3, report.getDisallowed());
+    assertEquals(1, report.getUnknown());
+    assertEquals(1, report.getInvalid());
+    assertEquals(3, report.getHosts());
+    assertEquals(2, report.getParsed());
+    assertEquals(2, report.getTop().size());
+    assertEquals(4, report.getTop().stream().mapToLong(RobotsTxtReplay.Host::getQueries).sum());
+    assertTrue(report.getQueryPercentile(50) <= report.getQueryPercentile(99));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    report.print(new PrintStream(out, true, StandardCharsets.UTF_8));
+    String printed = out.toString(StandardCharsets.UTF_8);
+    assertTrue(printed.contains("query latency"));
+    assertTrue(printed.contains("a.example.com"));
+  }
+
+  @Test
+  public void testLoadZip() throws Exception {
+    Path zip = folder.newFile("corpus.zip").toPath();
+    try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+      out.putNextEntry(new ZipEntry("robots/A.example.com"));
+      out.write("User-agent: *\nDisallow: /".getBytes(StandardCharsets.UTF_8));
+      out.closeEntry();
+    }
+
+    Map<String, byte[]> corpus = RobotsTxtReplay.loadCorpus(zip);
+    RobotsTxtReplay.Report report = new RobotsTxtReplay().replay(corpus, new StringReader(URLS));
+
+    assertTrue(corpus.containsKey("a.example.com"));
+    assertEquals(3, report.getDisallowed());
+    assertEquals(2, report.getUnknown());
+  }
+
+  @Test
+  public void testHistogramPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000);
+    }
+    assertEquals(1000, histogram.getCount());
+    assertEquals(1_000_000, histogram.getMax());
+    assertEquals(500_000, histogram.getPercentile(50), 500_000 / 8);
+    assertEquals(990_000, histogram.getPercentile(99), 990_000 / 8);
+    assertEquals(1_000_000, histogram.getPercentile(100));
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Testing decision service.
+ */
+public class RobotsTxtServerTest {
+
+  private static final String CONTENT = "User-agent: *\nDisallow: /private\nCrawl-delay: 5\n\nUser-agent: FastBot\nDisallow: /slow\n";
+
+  private final Map<String, AtomicInteger> loads = new ConcurrentHashMap<>();
+  private final Map<String, CompletableFuture<RobotsTxt>> late = new ConcurrentHashMap<>();
+  private final ManualClock clock = new ManualClock(0);
+  private RobotsTxtServer server;
+  private HttpClient client;
+  private URI endpoint;
+
+  @Before
+  public void setUp() throws Exception {
+    RobotsTxtReader reader = new RobotsTxtReader();
+    server = new RobotsTxtServer(origin -> {
+      loads.computeIfAbsent(origin.getHost(), key -> new AtomicInteger()).incrementAndGet();
+      if (origin.getHost().startsWith("down")) {
+        return CompletableFuture.failedFuture(new IllegalStateException("unreachable"));
+      }
+      if (origin.getHost().startsWith("slow")) {
+        return new CompletableFuture<>();
+      }
+      if (origin.getHost().startsWith("late")) {
+        return late.computeIfAbsent(origin.getHost(), key -> new CompletableFuture<>());
+      }
+      return CompletableFuture.completedFuture(reader.readRobotsTxt(CONTENT.getBytes(StandardCharsets.UTF_8)));
+    }, clock);
+    server.start(0);
+    client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    endpoint = URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + RobotsTxtServer.PATH);
+  }
+
+  @After
+  public void tearDown() {
+    server.close();
+  }
+
+  @Test
+  public void testBatchDecisions() throws Exception {
+    String body = "https://a.example.com\tSomeBot\n/index.html\n/private/x\nhttps://a.example.com/private\n\n"
+            + "https://A.example.com/ignored\tFastBot\n/private/x\n/slow/page\n\n"
+            + "http://b.example.com\n/\n";
+    HttpResponse<String> response = post(body);
+
+    assertEquals(200, response.statusCode());
+    assertEquals("100\t5\n10\t5\n1\t5\n", response.body());
+    assertEquals(1, loads.get("a.example.com").get());
+    assertEquals(2, server.size());
+
+    post(body);
+    assertEquals(1, loads.get("a.example.com").get());
+    server.invalidate(URI.create("https://a.example.com/any"));
+    post(body);
+    assertEquals(2, loads.get("a.example.com").get());
+  }
+
+  @Test
+  public void testFailedLoadIsRetried() throws Exception {
+    String body = "https://down.example.com\n/\n/index.html\n";
+    assertEquals("00\t-\n", post(body).body());
+    server.setAllowOnFailure(true);
+    assertEquals("11\t-\n", post(body).body());
+    assertEquals(2, loads.get("down.example.com").get());
+    assertEquals(0, server.size());
+  }
+
+  @Test
+  public void testCachedRobotsTxtExpires() throws Exception {
+    server.setTimeToLive(Duration.ofMinutes(10));
+    String body = "https://a.example.com\n/private\n";
+    assertEquals("0\t5\n", decide(body));
+    clock.advance(Duration.ofMinutes(9).toMillis());
+    assertEquals("0\t5\n", decide(body));
+    assertEquals(1, loads.get("a.example.com").get());
+
+    clock.advance(Duration.ofMinutes(1).toMillis());
+    assertEquals("0\t5\n", decide(body));
+    assertEquals(2, loads.get("a.example.com").get());
+    assertEquals(1, server.size());
+  }
+
+  @Test
+  public void testCachedOriginsAreBounded() throws Exception {
+    server.setMaxOrigins(2);
+    decide("https://a.example.com\n/\n\nhttps://b.example.com\n/\n\nhttps://c.example.com\n/\n");
+    assertEquals(2, server.size());
+
+    // a.example.com has been evicted by c.example.com
+    decide("https://b.example.com\n/\n\nhttps://c.example.com\n/\n\nhttps://a.example.com\n/\n");
+    assertEquals(2, loads.get("a.example.com").get());
+    assertEquals(1, loads.get("c.example.com").get());
+    assertEquals(2, server.size());
+  }
+
+  @Test
+  public void testTimeoutIsSharedByAllOrigins() throws Exception {
+    server.setTimeout(Duration.ofMillis(300));
+    long start = System.nanoTime();
+    String response = decide("https://slow1.example.com\n/\n\nhttps://slow2.example.com\n/\n\nhttps://slow3.example.com\n/\n\nhttps://a.example.com\n/\n");
+    long elapsed = System.nanoTime() - start;
+
+    assertEquals("0\t-\n0\t-\n0\t-\n1\t5\n", response);
+    assertTrue("elapsed: " + elapsed / 1_000_000 + " ms", elapsed < Duration.ofMillis(600).toNanos());
+  }
+
+  @Test
+  public void testLateLoadIsReused() throws Exception {
+    server.setTimeout(Duration.ofMillis(100));
+    assertEquals("0\t-\n", decide("https://late.example.com\n/\n"));
+    assertEquals("0\t-\n", decide("https://late.example.com\n/\n"));
+    assertEquals(1, loads.get("late.example.com").get());
+
+    late.get("late.example.com").complete(new RobotsTxtReader().readRobotsTxt(CONTENT.getBytes(StandardCharsets.UTF_8)));
+    assertEquals("1\t5\n", decide("https://late.example.com\n/\n"));
+    assertEquals(1, loads.get("late.example.com").get());
+    assertEquals(1, server.size());
+  }
+
+  @Test
+  public void testMalformedRequests() throws Exception {
+    assertEquals(400, post("not an origin\n/\n").statusCode());
+    HttpResponse<String> get = client.send(HttpRequest.newBuilder(endpoint).GET().build(), HttpResponse.BodyHandlers.ofString());
+    assertEquals(405, get.statusCode());
+    assertEquals("", post("").body());
+  }
+
+  @Test
+  public void testDecideWithoutHttp() throws Exception {
+    String response = server.decide(new BufferedReader(new StringReader("https://a.example.com\n/private\n/public\n")));
+    assertEquals("01\t5\n", response);
+  }
+
+  @Test
+  public void testConcurrentLoadOverLoopback() throws Exception {
+    int clients = 8;
+    int requests = 50;
+    int paths = 100;
+    StringBuilder body = new StringBuilder();
+    StringBuilder expected = new StringBuilder();
+    for (int host = 0; host < 4; host++) {
+      body.append("https://h").append(host).append(".example.com\tSomeBot\n");
+      for (int p = 0; p < paths; p++) {
+        body.append(p % 3 == 0 ? "/private/" : "/public/").append(p).append('\n');
+        expected.append(p % 3 == 0 ? '0' : '1');
+      }
+      body.append('\n');
+      expected.append("\t5\n");
+    }
+
+    ExecutorService pool = Executors.newFixedThreadPool(clients);
+    try {
+      List<Future<Integer>> results = new ArrayList<>();
+      for (int c = 0; c < clients; c++) {
+        results.add(pool.submit(() -> {
+          int matching = 0;
+          for (int r = 0; r < requests; r++) {
+            HttpResponse<String> response = post(body.toString());
+            if (response.statusCode() == 200 && response.body().equals(expected.toString())) {
+              matching++;
+            }
+          }
+          return matching;
+        }));
+      }
+      for (Future<Integer> result : results) {
+        assertEquals(requests, result.get().intValue());
+      }
+    } finally {
+      pool.shutdown();
+    }
+    for (int host = 0; host < 4; host++) {
+      assertEquals(1, loads.get("h" + host + ".example.com").get());
+    }
+  }
+
+  private String decide(String body) throws Exception {
+    return server.decide(new BufferedReader(new StringReader(body)));
+  }
+
+  private HttpResponse<String> post(String body) throws Exception {
+    HttpRequest request = HttpRequest.newBuilder(endpoint).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    return client.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+}
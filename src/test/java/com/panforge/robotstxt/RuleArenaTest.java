@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Testing rule arena.
+ */
+public class RuleArenaTest {
+
+  private static final List<Access> RULES = Arrays.asList(
+          new Access("Disallow: /é", "/é", "/é", false),
+          new Access("Allow: /%C3%A9", "/é", "/%C3%A9", true),
+          new Access("Disallow: /private/*.html$", "/private/*.html$", false),
+          new Access("Disallow:", "", false),
+          new Access("Allow: /private/*.html$", "/private/*.html$", true));
+
+  @Test
+  public void testDuplicateCanonicalClausesShareId() {
+    RuleArena arena = build(RULES);
+
+    assertEquals(5, arena.size());
+    assertEquals(3, arena.countClauses());
+    assertEquals(arena.getClauseId(0), arena.getClauseId(1));
+    assertEquals(arena.getClauseId(2), arena.getClauseId(4));
+    assertNotEquals(arena.getClauseId(0), arena.getClauseId(2));
+    assertNotEquals(arena.getClauseId(2), arena.getClauseId(3));
+    assertFalse(arena.isAllowed(2));
+    assertTrue(arena.isAllowed(4));
+  }
+
+  @Test
+  public void testDecodedClauseDiffersFromCanonical() {
+    RuleArena arena = build(RULES);
+
+    assertEquals("/é", arena.getClause(0));
+    assertEquals("/%C3%A9", arena.getCanonicalClause(0));
+    assertEquals(2, arena.getClauseLength(0));
+    assertEquals("/é", arena.getClause(1));
+    assertEquals(2, arena.getClauseLength(1));
+
+    assertEquals("/private/*.html$", arena.getClause(2));
+    assertEquals("/private/*.html$", arena.getCanonicalClause(2));
+    assertEquals("/private/*.html$".length(), arena.getClauseLength(2));
+    assertEquals("", arena.getClause(3));
+    assertEquals(0, arena.getClauseLength(3));
+    assertEquals(2, arena.countWildcardRules());
+    assertEquals("/private/*.html$".length(), arena.getMaxClauseLength());
+  }
+
+  @Test
+  public void testSourceAndAccessRoundTrip() {
+    RuleArena arena = build(RULES);
+
+    RuleArena.Builder rebuilt = new RuleArena.Builder();
+    for (int rule = 0; rule < arena.size(); rule++) {
+      Access expected = RULES.get(rule);
+      Access access = arena.toAccess(rule);
+      assertEquals(expected.toString(), arena.getSource(rule));
+      assertEquals(expected.toString(), access.toString());
+      assertEquals(expected.getClause(), access.getClause());
+      assertEquals(expected.getCanonicalClause(), access.getCanonicalClause());
+      assertEquals(expected.hasAccess(), access.hasAccess());
+      rebuilt.add(access);
+    }
+
+    RuleArena copy = rebuilt.build();
+    for (int rule = 0; rule < arena.size(); rule++) {
+      assertEquals(arena.getSource(rule), copy.getSource(rule));
+      assertEquals(arena.getClause(rule), copy.getClause(rule));
+      assertEquals(arena.getClauseId(rule), copy.getClauseId(rule));
+    }
+  }
+
+  @Test
+  public void testMatching() {
+    RuleArena arena = build(RULES);
+    String path = MatchingStrategy.DEFAULT.prepare("/private/index.html");
+    byte[] matches = new byte[arena.countClauses()];
+
+    assertTrue(arena.matches(2, path, MatchingStrategy.DEFAULT, null));
+    assertTrue(arena.matches(3, path, MatchingStrategy.DEFAULT, null));
+    assertFalse(arena.matches(0, path, MatchingStrategy.DEFAULT, null));
+    assertTrue(arena.matches(2, path, MatchingStrategy.DEFAULT, null, matches));
+    // remembered by clause, thus shared with the rule of the same clause
+    assertEquals(1, matches[arena.getClauseId(4)]);
+    assertTrue(arena.matches(4, path, MatchingStrategy.DEFAULT, null, matches));
+  }
+
+  @Test
+  public void testGroupRangesAcrossMergedSections() {
+    RobotsTxtImpl robotsTxt = (RobotsTxtImpl) new RobotsTxtReader().readRobotsTxt((
+            "User-agent: A\nDisallow: /a1\nAllow: /a1/x\n\n"
+            + "User-agent: B\nDisallow: /b1\n\n"
+            + "User-agent: *\nDisallow: /any\n\n"
+            + "User-agent: A\nDisallow: /a2\n\n"
+            + "User-agent: B\nDisallow: /b2\n").getBytes(StandardCharsets.UTF_8));
+
+    Group a = robotsTxt.findGroup("A");
+    Group b = robotsTxt.findGroup("B");
+    Group any = robotsTxt.findGroup("Other");
+    assertSame(a.getRules(), b.getRules());
+    assertSame(a.getRules(), any.getRules());
+
+    // rules of merged sections are contiguous, in order of declaration
+    assertEquals(3, a.countRules());
+    assertEquals(Arrays.asList("/a1", "/a2"), a.getDisallowList());
+    assertEquals(2, b.countRules());
+    assertEquals(Arrays.asList("/b1", "/b2"), b.getDisallowList());
+    assertEquals(Arrays.asList("/any"), any.getDisallowList());
+    assertEquals(a.getRules().size(), a.countRules() + b.countRules() + any.countRules());
+
+    assertFalse(robotsTxt.query("A", "/a2"));
+    assertTrue(robotsTxt.query("A", "/a1/x"));
+    assertTrue(robotsTxt.query("A", "/b1"));
+    assertFalse(robotsTxt.query("B", "/b2"));
+  }
+
+  private static RuleArena build(List<Access> rules) {
+    RuleArena.Builder builder = new RuleArena.Builder();
+    for (Access access : rules) {
+      builder.add(access);
+    }
+    return builder.build();
+  }
+}
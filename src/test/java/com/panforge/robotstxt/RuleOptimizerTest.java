@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Testing rule optimizer.
+ * <p>
+ * Properties are checked on random robots.txt (see {@link RandomRobotsTxt}).
+ */
+public class RuleOptimizerTest {
+
+  @Test
+  public void testSameGrantsAsUnoptimized() {
+    RobotsTxtReader plain = new RobotsTxtReader();
+    RobotsTxtReader optimizing = new RobotsTxtReader();
+    CountingMetricsListener listener = new CountingMetricsListener();
+    optimizing.setListener(listener);
+    optimizing.setOptimize(true);
+    Random random = new Random(5);
+
+    for (int round = 0; round < 500; round++) {
+      String content = RandomRobotsTxt.robotsTxt(random, 12);
+      RobotsTxt expectedRobots = plain.readRobotsTxt(content.getBytes(StandardCharsets.UTF_8));
+      RobotsTxt actualRobots = optimizing.readRobotsTxt(content.getBytes(StandardCharsets.UTF_8));
+      for (int query = 0; query < 100; query++) {
+        String path = RandomRobotsTxt.clause(random, false);
+        String agent = RandomRobotsTxt.AGENTS[random.nextInt(RandomRobotsTxt.AGENTS.length)];
+        Grant expected = expectedRobots.ask(agent, path);
+        Grant actual = actualRobots.ask(agent, path);
+        String message = content + "agent: " + agent + ", path: " + path;
+        assertEquals(message, expected.hasAccess(), actual.hasAccess());
+        assertEquals(message, expected.getClause(), actual.getClause());
+        assertEquals(message, expected.toString(), actual.toString());
+        assertEquals(message, expected.getCrawlDelay(), actual.getCrawlDelay());
+      }
+    }
+    assertTrue(listener.getRemovedRules() > 0);
+  }
+
+  @Test
+  public void testOptimizingTwiceRemovesNothing() {
+    Random random = new Random(7);
+    for (int round = 0; round < 500; round++) {
+      Section section = new Section();
+      section.addUserAgent("*");
+      for (int rule = random.nextInt(20); rule > 0; rule--) {
+        String clause = RandomRobotsTxt.clause(random, true);
+        section.addAccess(new Access(clause, clause, random.nextBoolean()));
+      }
+      section.optimize();
+      assertEquals(0, section.optimize());
+    }
+  }
+
+  @Test
+  public void testRemovesDuplicates() {
+    RobotsTxtBuilder robots = new RobotsTxtBuilder(MatchingStrategy.DEFAULT, WinningStrategy.DEFAULT, null);
+    robots.addSection(section("*", "Disallow: /a", "Disallow: /a", "Allow: /b", "Allow: /b"));
+    robots.addSection(section("*", "Disallow: /a"));
+    assertEquals(3, robots.optimize());
+    assertEquals(2, robots.countRules());
+    assertEquals(3, robots.countRemovedRules());
+  }
+
+  @Test
+  public void testRemovesRulesNeverWinning() {
+    RobotsTxtBuilder robots = new RobotsTxtBuilder(MatchingStrategy.DEFAULT, WinningStrategy.DEFAULT, null);
+    robots.addSection(section("*",
+            "Disallow: /private",
+            "Disallow: /private*",
+            "Allow: /private",
+            "Allow: /private/a",
+            "Disallow: /private/a",
+            "Disallow: /private/*.html$"));
+    // Disallow: /private* outranks both /private rules, Allow: /private/a outranks its disallowing twin
+    assertEquals(3, robots.optimize());
+    RobotsTxt robotsTxt = robots.build();
+    assertEquals(Arrays.asList("/private*", "/private/*.html$"), robotsTxt.getDisallowList("Bot"));
+    assertTrue(robotsTxt.query("Bot", "/private/a"));
+    assertFalse(robotsTxt.query("Bot", "/private/b"));
+    assertFalse(robotsTxt.query("Bot", "/privateer"));
+    assertFalse(robotsTxt.query("Bot", "/private/a.html"));
+  }
+
+  @Test
+  public void testKeepsRulesWhichMightWin() {
+    RobotsTxtBuilder robots = new RobotsTxtBuilder(MatchingStrategy.DEFAULT, WinningStrategy.DEFAULT, null);
+    robots.addSection(section("*", "Disallow: /a", "Disallow: /a/b", "Allow: /a/b/c$", "Allow: /a/"));
+    assertEquals(0, robots.optimize());
+
+    robots = new RobotsTxtBuilder(MatchingStrategy.DEFAULT, WinningStrategy.DEFAULT, null);
+    robots.addSection(section("*", "Disallow: /a/b", "Allow: /a/*"));
+    // allow is as long as the disallow and covers it
+    assertEquals(1, robots.optimize());
+  }
+
+  @Test
+  public void testReportsRemovedRules() {
+    CountingMetricsListener listener = new CountingMetricsListener();
+    RobotsTxtReader reader = new RobotsTxtReader();
+    reader.setListener(listener);
+    reader.setOptimize(true);
+    RobotsTxt robotsTxt = reader.readRobotsTxt("User-agent: *\nDisallow: /\nDisallow: /*\nAllow: /b\n".getBytes(StandardCharsets.UTF_8));
+
+    assertEquals(1, listener.getRemovedRules());
+    assertEquals(2, listener.getParsedRules());
+    assertTrue(robotsTxt.query("Bot", "/b"));
+    assertFalse(robotsTxt.query("Bot", "/a"));
+  }
+
+  @Test
+  public void testKeepsRulesWithCustomStrategy() {
+    RobotsTxtBuilder robots = new RobotsTxtBuilder(MatchingStrategy.DEFAULT, candidates -> candidates.get(candidates.size() - 1), null);
+    robots.addSection(section("*", "Disallow: /a", "Disallow: /a"));
+    assertEquals(0, robots.optimize());
+    assertEquals(2, robots.countRules());
+  }
+
+  private static Section section(String userAgent, String... rules) {
+    Section section = new Section();
+    section.addUserAgent(userAgent);
+    for (String rule : rules) {
+      String clause = rule.substring(rule.indexOf(':') + 1).trim();
+      section.addAccess(new Access(rule, clause, rule.startsWith("Allow")));
+    }
+    return section;
+  }
+}
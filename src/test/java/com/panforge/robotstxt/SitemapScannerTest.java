@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Testing sitemap scanner.
+ */
+public class SitemapScannerTest {
+
+  private static final String CONTENT = "User-agent: *\r\n"
+          + "Disallow: /private/\r\n"
+          + "  sitemap: https://example.com/sitemap1.xml # comment\r\n"
+          + "SITEMAP :https://example.com/sitemap%20two.xml\n"
+          + "# Sitemap: https://example.com/commented.xml\n"
+          + "Sitemaps: https://example.com/not-a-sitemap.xml\n"
+          + "Host: example.com\r"
+          + "Sitemap: https://example.com/sitemap3.xml";
+
+  @Test
+  public void testScanMatchesFullParse() throws Exception {
+    byte[] content = CONTENT.getBytes(StandardCharsets.UTF_8);
+    RobotsTxt robotsTxt = RobotsTxt.read(new ByteArrayInputStream(content));
+
+    SitemapScanner.Result result = new SitemapScanner(true).scan(content);
+
+    assertEquals(Arrays.asList("https://example.com/sitemap1.xml", "https://example.com/sitemap two.xml", "https://example.com/sitemap3.xml"), result.getSitemaps());
+    assertEquals(robotsTxt.getSitemaps(), result.getSitemaps());
+    assertEquals(robotsTxt.getHost(), result.getHost());
+  }
+
+  @Test
+  public void testScanStreamWithSmallReads() throws Exception {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 2000; i++) {
+      sb.append("Disallow: /").append("x".repeat(i % 50)).append("\n");
+      if (i % 100 == 0) {
+        sb.append("Sitemap: https://example.com/").append("y".repeat(10000)).append(i).append(".xml\n");
+      }
+    }
+    byte[] content = sb.toString().getBytes(StandardCharsets.UTF_8);
+    InputStream slowStream = new ByteArrayInputStream(content) {
+      @Override
+      public synchronized int read(byte[] b, int off, int len) {
+        return super.read(b, off, Math.min(len, 7));
+      }
+    };
+
+    SitemapScanner.Result result = new SitemapScanner().scan(slowStream);
+
+    assertEquals(20, result.getSitemaps().size());
+    assertEquals(RobotsTxt.read(new ByteArrayInputStream(content)).getSitemaps(), result.getSitemaps());
+    assertNull(result.getHost());
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Piotr Andzel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.panforge.robotstxt;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assume;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Testing trivial robots.txt.
+ */
+public class TrivialRobotsTxtTest {
+
+  private static final String[] AGENTS = {null, "Any", "SomeBot/1.0"};
+
+  private static final String[] PATHS = {null, "", "/", "/index.html", "/robots.txt", "/ROBOTS.TXT", "robots.txt", "page.html",
+    "/a%20b", "/a%2fb%zz", "%2Fc", "/+x", "http://example.com/", "http://example.com/robots.txt", "http://example.com/a?b=c", "?q"};
+
+  @Test
+  public void testTrivialShapesAreShared() throws Exception {
+    assertSame(TrivialRobotsTxt.EMPTY, read(""));
+    assertSame(TrivialRobotsTxt.EMPTY, read("# nothing here\n"));
+    assertSame(TrivialRobotsTxt.EMPTY, read("User-agent: *\n"));
+    assertSame(TrivialRobotsTxt.ALLOW_ALL, read("User-agent: *\nDisallow:\n"));
+    assertSame(TrivialRobotsTxt.DISALLOW_ALL, read("User-agent: *\nDisallow: /\n"));
+    assertSame(TrivialRobotsTxt.DISALLOW_ALL, read("User-agent: *\r\nDisallow: / # everything\r\nDisallow: /\r\n"));
+  }
+
+  @Test
+  public void testNonTrivialShapesAreParsed() throws Exception {
+    assertTrue(read("User-agent: *\nDisallow: /\nSitemap: http://example.com/sitemap.xml") instanceof RobotsTxtImpl);
+    assertTrue(read("User-agent: *\nDisallow: /\nCrawl-delay: 10") instanceof RobotsTxtImpl);
+    assertTrue(read("User-agent: *\nDisallow: /\nAllow: /public/") instanceof RobotsTxtImpl);
+    assertTrue(read("User-agent: SomeBot\nDisallow: /") instanceof RobotsTxtImpl);
+    assertTrue(read("User-agent: *\nAllow:") instanceof RobotsTxtImpl);
+  }
+
+  @Test
+  public void testSameAnswersAsFullModel() throws Exception {
+    String[] contents = {
+      "",
+      "User-agent: *\nDisallow:",
+      "User-agent: *\nDisallow: /",
+      "User-agent: *\nDisallow: /private/\n\nUser-agent: SomeBot\nDisallow: /\n\nUser-agent: Other\nDisallow:\nCrawl-delay: 3"
+    };
+    for (String content : contents) {
+      assertSameAnswers(content);
+    }
+  }
+
+  @Test
+  public void testQueriesDoNotAllocate() throws Exception {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+    com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+    Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+
+    RobotsTxt robotsTxt = read("User-agent: *\nDisallow: /");
+    int queries = 100_000;
+    int denied = 0;
+    long before = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    for (int i = 0; i < queries; i++) {
+      if (!robotsTxt.query("SomeBot", "/index.html")) {
+        denied++;
+      }
+    }
+    long allocated = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+
+    assertEquals(queries, denied);
+    // sampling for flight recorder might create an occasional event object
+    assertTrue("allocated: " + allocated, allocated < queries);
+  }
+
+  private static void assertSameAnswers(String content) throws Exception {
+    RobotsTxt fast = read(content);
+    RobotsTxtReader fullReader = new RobotsTxtReader();
+    fullReader.setListener(new MetricsListener() {});
+    RobotsTxt full = fullReader.readRobotsTxt(content.getBytes(StandardCharsets.UTF_8));
+
+    for (String agent : AGENTS) {
+      for (String path : PATHS) {
+        String message = content + " | " + agent + " | " + path;
+        Grant expected = full.ask(agent, path);
+        Grant actual = fast.ask(agent, path);
+        assertEquals(message, expected.hasAccess(), actual.hasAccess());
+        assertEquals(message, expected.getClause(), actual.getClause());
+        assertEquals(message, expected.getCrawlDelay(), actual.getCrawlDelay());
+        assertEquals(message, expected.getUserAgents(), actual.getUserAgents());
+      }
+      assertEquals(full.getDisallowList(agent), fast.getDisallowList(agent));
+    }
+  }
+
+  private static RobotsTxt read(String content) {
+    return new RobotsTxtReader().readRobotsTxt(content.getBytes(StandardCharsets.UTF_8));
+  }
+}